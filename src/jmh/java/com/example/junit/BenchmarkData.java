@@ -0,0 +1,82 @@
+package com.example.junit;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.Student;
+import com.example.junit.repository.DisciplineStats;
+import com.example.junit.repository.StudentGrade;
+import com.example.junit.service.DisciplineAggregator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+public final class BenchmarkData {
+
+    private static final Discipline[] DISCIPLINES = Discipline.values();
+
+    private BenchmarkData() {
+    }
+
+    public static Student student(int grades, Random random) {
+        final Student student = new Student("John", "White", "G" + random.nextInt(100));
+        for (int i = 0; i < grades; i++) {
+            student.addGrade(new Grade(gradeValue(random), DISCIPLINES[random.nextInt(DISCIPLINES.length)]));
+        }
+        return student;
+    }
+
+    public static List<Student> students(int count, int gradesPerStudent, Random random) {
+        final List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(student(gradesPerStudent, random));
+        }
+        return students;
+    }
+
+    public static DisciplineAggregator aggregate(Collection<Grade> grades) {
+        final DisciplineAggregator aggregator = new DisciplineAggregator();
+        for (Grade grade : grades) {
+            aggregator.add(grade.getDiscipline(), grade.getValue());
+        }
+        return aggregator;
+    }
+
+    public static List<DisciplineStats> stats(Long studentId, Student student) {
+        final DisciplineAggregator aggregator = aggregate(student.getGrades());
+        return Arrays.stream(DISCIPLINES)
+                .filter(aggregator::has)
+                .map(discipline -> new DisciplineStats(studentId,
+                                                       discipline,
+                                                       aggregator.count(discipline),
+                                                       aggregator.sum(discipline),
+                                                       aggregator.max(discipline),
+                                                       aggregator.min(discipline)))
+                .toList();
+    }
+
+    /**
+     * The rows {@code findGradesByStudentIdIn} returns for {@code student},
+     * with grade ids numbered from 1.
+     */
+    public static List<StudentGrade> studentGrades(Long studentId, Student student) {
+        if (student.getGrades().isEmpty()) {
+            return List.of(new StudentGrade(studentId, null, null, null));
+        }
+        final List<StudentGrade> rows = new ArrayList<>(student.getGrades().size());
+        for (Grade grade : student.getGrades()) {
+            rows.add(new StudentGrade(studentId, rows.size() + 1L, grade.getValue(), grade.getDiscipline()));
+        }
+        return rows;
+    }
+
+    public static double gradeValue(Random random) {
+        return 1 + random.nextInt(19) * 0.5;
+    }
+
+    public static Discipline discipline(Random random) {
+        return DISCIPLINES[random.nextInt(DISCIPLINES.length)];
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.junit.service;
+
+import com.example.junit.BenchmarkData;
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GradeColumns} against the {@code Student}/{@code Grade} entity graph
+ * holding the same grades: one student's averages and the averages of every
+ * student of a group. The setup prints the retained heap of both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ColumnarGradeStoreBenchmark {
+
+    private static final String GROUP = "G7";
+
+    @Param({"100000"})
+    int students;
+
+    @Param({"10"})
+    int gradesPerStudent;
+
+    @Param({"false", "true"})
+    boolean offHeap;
+
+    private List<Student> entities;
+    private GradeColumns columns;
+    private long studentId;
+    private int studentIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final long empty = usedHeapAfterGc();
+        entities = BenchmarkData.students(students, gradesPerStudent, new Random(42));
+        final long withEntities = usedHeapAfterGc();
+
+        final GradeColumns.Builder builder = GradeColumns.builder(students, students * gradesPerStudent, offHeap);
+        for (int i = 0; i < entities.size(); i++) {
+            final Student student = entities.get(i);
+            for (Grade grade : student.getGrades()) {
+                builder.add(i + 1, student.getGroup(), grade.getDiscipline(), grade.getValue());
+            }
+        }
+        columns = builder.build();
+        final long withColumns = usedHeapAfterGc();
+
+        System.out.printf("%n%,d grades: entities %,d bytes on heap, columns %,d bytes on heap, %,d bytes in columns (%s)%n",
+                          columns.grades(),
+                          withEntities - empty,
+                          withColumns - withEntities,
+                          columns.sizeInBytes(),
+                          offHeap ? "off-heap" : "heap");
+        studentIndex = students / 2;
+        studentId = studentIndex + 1;
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> entityStudentAverages() {
+        return BenchmarkData.aggregate(entities.get(studentIndex).getGrades()).averages();
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> columnarStudentAverages() {
+        final DisciplineAggregator aggregator = new DisciplineAggregator();
+        columns.aggregate(studentId, aggregator);
+        return aggregator.averages();
+    }
+
+    @Benchmark
+    public Map<Long, Map<Discipline, Double>> entityGroupAverages() {
+        final Map<Long, Map<Discipline, Double>> averages = new HashMap<>();
+        for (int i = 0; i < entities.size(); i++) {
+            final Student student = entities.get(i);
+            if (Objects.equals(student.getGroup(), GROUP)) {
+                averages.put(i + 1L, BenchmarkData.aggregate(student.getGrades()).averages());
+            }
+        }
+        return averages;
+    }
+
+    @Benchmark
+    public Map<Long, Map<Discipline, Double>> columnarGroupAverages() {
+        final Map<Long, Map<Discipline, Double>> averages = new HashMap<>();
+        columns.aggregateGroup(GROUP).forEach((id, aggregator) -> averages.put(id, aggregator.averages()));
+        return averages;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.junit.service;
+
+import com.example.junit.BenchmarkData;
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Grade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link DisciplineAggregator} against the {@code Collectors}-based aggregation
+ * {@link GradeService} used before it, over the same in-memory grades. The
+ * aggregator's promotion is decided by {@link PromotionRules} with the default
+ * rules, which promote on the same average threshold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisciplineAggregationBenchmark {
+
+    private static final double PROMOTE_THRESHOLD = 4.5;
+
+    @Param({"1", "100", "10000"})
+    int gradesPerStudent;
+
+    private List<Grade> grades;
+    private PromotionRules rules;
+    private PromotionAccumulator accumulator;
+
+    @Setup
+    public void setup() {
+        grades = BenchmarkData.student(gradesPerStudent, new Random(42)).getGrades();
+        rules = new PromotionRules(new MockEnvironment().withProperty("promotion.threshold", String.valueOf(PROMOTE_THRESHOLD)));
+        accumulator = rules.newAccumulator();
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> collectorsAverage() {
+        return grades.stream()
+                .collect(Collectors.groupingBy(Grade::getDiscipline, Collectors.averagingDouble(Grade::getValue)));
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> collectorsMax() {
+        return grades.stream()
+                .collect(Collectors.toUnmodifiableMap(Grade::getDiscipline, Grade::getValue, Double::max));
+    }
+
+    @Benchmark
+    public Map<Discipline, Boolean> collectorsPromotion() {
+        final Map<Discipline, Boolean> map = collectorsAverage().entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue() > PROMOTE_THRESHOLD))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        final Map<Discipline, Boolean> result = Arrays.stream(Discipline.values())
+                .collect(Collectors.toMap(Function.identity(), d -> false));
+        result.putAll(map);
+        return result;
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> aggregatorAverage() {
+        return BenchmarkData.aggregate(grades).averages();
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> aggregatorMax() {
+        return BenchmarkData.aggregate(grades).maxima();
+    }
+
+    @Benchmark
+    public Map<Discipline, Boolean> aggregatorPromotion() {
+        return PromotionRules.disciplines(rules.evaluate(BenchmarkData.aggregate(grades), accumulator));
+    }
+
+    @Benchmark
+    public void collectorsAllThree(Blackhole blackhole) {
+        blackhole.consume(collectorsAverage());
+        blackhole.consume(collectorsMax());
+        blackhole.consume(collectorsPromotion());
+    }
+
+    @Benchmark
+    public void aggregatorAllThree(Blackhole blackhole) {
+        final DisciplineAggregator aggregator = BenchmarkData.aggregate(grades);
+        blackhole.consume(aggregator.averages());
+        blackhole.consume(aggregator.maxima());
+        blackhole.consume(PromotionRules.disciplines(rules.evaluate(aggregator, accumulator)));
+    }
+}
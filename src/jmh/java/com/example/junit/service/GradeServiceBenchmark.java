@@ -0,0 +1,96 @@
+package com.example.junit.service;
+
+import com.example.junit.BenchmarkData;
+import com.example.junit.datasource.ReplicaRouting;
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Student;
+import com.example.junit.metrics.GradeMetrics;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.StudentRepository;
+import com.example.junit.service.mapper.BenchmarkMappers;
+import com.example.junit.web.dto.GradeDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Service layer over in-memory entities: repositories are stubbed, so the numbers
+ * cover mapping and aggregation cost plus a constant stub overhead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GradeServiceBenchmark {
+
+    private static final Long STUDENT_ID = 1L;
+
+    @Param({"1", "100", "10000"})
+    int gradesPerStudent;
+
+    @Param({"false", "true"})
+    boolean cache;
+
+    private GradeService gradeService;
+
+    @Setup
+    public void setup() {
+        final Student student = BenchmarkData.student(gradesPerStudent, new Random(42));
+        final GradeRepository gradeRepository = mock(GradeRepository.class);
+        when(gradeRepository.findGradesByStudentIdIn(Set.of(STUDENT_ID))).thenReturn(BenchmarkData.studentGrades(STUDENT_ID, student));
+        final DisciplineStatisticService statisticService = mock(DisciplineStatisticService.class);
+        when(statisticService.getStats(STUDENT_ID)).thenReturn(BenchmarkData.stats(STUDENT_ID, student));
+        gradeService = new GradeService(mock(StudentRepository.class),
+                                        gradeRepository,
+                                        statisticService,
+                                        new StudentGradeCache(cache, 10_000, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                                        mock(ColumnarGradeStore.class),
+                                        BenchmarkMappers.gradeDtoMapper(),
+                                        new GradeMetrics(new SimpleMeterRegistry()),
+                                        new ReplicaRouting(false, Duration.ZERO),
+                                        mock(GradeEventOutbox.class),
+                                        new PromotionRules(new MockEnvironment()));
+    }
+
+    @Benchmark
+    public List<GradeDto> getForStudent() {
+        return gradeService.getForStudent(STUDENT_ID);
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> getAveragePerDiscipline() {
+        return gradeService.getAveragePerDiscipline(STUDENT_ID);
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> getMaxPerDiscipline() {
+        return gradeService.getMaxPerDiscipline(STUDENT_ID);
+    }
+
+    @Benchmark
+    public Map<Discipline, Boolean> isPromotedPerDiscipline() {
+        return gradeService.isPromotedPerDiscipline(STUDENT_ID);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.junit.service;
+
+import com.example.junit.BenchmarkData;
+import com.example.junit.JunitApplication;
+import com.example.junit.domain.Discipline;
+import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.GradeRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Service layer against the embedded H2 database from the test configuration.
+ * Every student gets one grade and student 1 gets {@code gradesPerStudent},
+ * so table size and the measured student's grade count vary independently.
+ * With {@code columnar} the statistics are served by {@link ColumnarGradeStore}.
+ * Every trial starts a context and imports the grades, so larger tables are
+ * only run on request ({@code -p students=100000,1000000}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GradeServiceDatabaseBenchmark {
+
+    private static final Long STUDENT_ID = 1L;
+
+    @Param({"10000"})
+    int students;
+
+    @Param({"1", "100", "10000"})
+    int gradesPerStudent;
+
+    @Param({"false", "true"})
+    boolean columnar;
+
+    private ConfigurableApplicationContext context;
+    private GradeService gradeService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(JunitApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("grades.cache.enabled=false",
+                            "grades.columnar.enabled=" + columnar,
+                            "grades.columnar.refresh-interval=3600000",
+                            "logging.level.root=warn")
+                .run();
+        gradeService = context.getBean(GradeService.class);
+        seed(new Random(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed(Random random) {
+        final JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        final List<Object[]> rows = LongStream.rangeClosed(1, students)
+                .mapToObj(id -> new Object[]{id, "John", "White", "G" + id % 100})
+                .toList();
+        jdbcTemplate.batchUpdate("insert into student (id, first_name, last_name, group_number) values (?, ?, ?, ?)", rows);
+
+        final List<GradeRequest> grades = new ArrayList<>(students + gradesPerStudent);
+        for (long id = 1; id <= students; id++) {
+            grades.add(new GradeRequest(id, BenchmarkData.gradeValue(random), BenchmarkData.discipline(random)));
+        }
+        Stream.generate(() -> new GradeRequest(STUDENT_ID, BenchmarkData.gradeValue(random), BenchmarkData.discipline(random)))
+                .limit(gradesPerStudent - 1L)
+                .forEach(grades::add);
+        context.getBean(GradeImportService.class).importGrades(grades.iterator());
+        context.getBean(ColumnarGradeStore.class).refresh();
+    }
+
+    @Benchmark
+    public List<GradeDto> getForStudent() {
+        return gradeService.getForStudent(STUDENT_ID);
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> getAveragePerDiscipline() {
+        return gradeService.getAveragePerDiscipline(STUDENT_ID);
+    }
+
+    @Benchmark
+    public Map<Discipline, Double> getMaxPerDiscipline() {
+        return gradeService.getMaxPerDiscipline(STUDENT_ID);
+    }
+
+    @Benchmark
+    public Map<Discipline, Boolean> isPromotedPerDiscipline() {
+        return gradeService.isPromotedPerDiscipline(STUDENT_ID);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.junit.service;
+
+import com.example.junit.BenchmarkData;
+import com.example.junit.domain.Discipline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * A promotion run over a cohort of students held in flat arrays:
+ * {@link PromotionRules} against building a {@link DisciplineAggregator} and
+ * its promotion map per student, sequentially and in parallel over chunks of
+ * students with one accumulator each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PromotionRulesBenchmark {
+
+    private static final Discipline[] DISCIPLINES = Discipline.values();
+    private static final int CHUNK = 10_000;
+
+    @Param({"1000000"})
+    int students;
+
+    @Param({"10"})
+    int gradesPerStudent;
+
+    @Param({"0", "2"})
+    int dropLowest;
+
+    private int[] offsets;
+    private byte[] disciplines;
+    private double[] values;
+    private PromotionRules rules;
+    private PromotionRules defaultRules;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        offsets = new int[students + 1];
+        disciplines = new byte[students * gradesPerStudent];
+        values = new double[students * gradesPerStudent];
+        for (int i = 0; i < disciplines.length; i++) {
+            disciplines[i] = (byte) random.nextInt(DISCIPLINES.length);
+            values[i] = BenchmarkData.gradeValue(random);
+        }
+        for (int student = 0; student <= students; student++) {
+            offsets[student] = student * gradesPerStudent;
+        }
+        rules = new PromotionRules(new MockEnvironment()
+                                           .withProperty("promotion.drop-lowest", String.valueOf(dropLowest))
+                                           .withProperty("promotion.min-grades.ALGEBRA", "2")
+                                           .withProperty("promotion.threshold.GEOMETRY", "5"));
+        defaultRules = new PromotionRules(new MockEnvironment());
+    }
+
+    /**
+     * The per-student path before the rules: an aggregator and a promotion map
+     * per student, against the default rules only, since an aggregator cannot
+     * drop the lowest grades.
+     */
+    @Benchmark
+    public long aggregatorPromotion() {
+        final PromotionAccumulator accumulator = defaultRules.newAccumulator();
+        long promoted = 0;
+        for (int student = 0; student < students; student++) {
+            final DisciplineAggregator aggregator = new DisciplineAggregator();
+            for (int i = offsets[student]; i < offsets[student + 1]; i++) {
+                aggregator.add(DISCIPLINES[disciplines[i]], values[i]);
+            }
+            for (Map.Entry<Discipline, Boolean> entry : PromotionRules.disciplines(defaultRules.evaluate(aggregator, accumulator)).entrySet()) {
+                if (entry.getValue()) {
+                    promoted++;
+                }
+            }
+        }
+        return promoted;
+    }
+
+    @Benchmark
+    public long rules() {
+        return evaluate(0, students);
+    }
+
+    @Benchmark
+    public long rulesParallel() {
+        return IntStream.range(0, (students + CHUNK - 1) / CHUNK)
+                .parallel()
+                .mapToLong(chunk -> evaluate(chunk * CHUNK, Math.min(students, (chunk + 1) * CHUNK)))
+                .sum();
+    }
+
+    private long evaluate(int from, int to) {
+        final PromotionAccumulator accumulator = rules.newAccumulator();
+        long promoted = 0;
+        for (int student = from; student < to; student++) {
+            accumulator.reset();
+            for (int i = offsets[student]; i < offsets[student + 1]; i++) {
+                accumulator.add(DISCIPLINES[disciplines[i]], values[i]);
+            }
+            promoted += Integer.bitCount(rules.evaluate(accumulator));
+        }
+        return promoted;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.junit.service.mapper;
+
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.Student;
+import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.StudentDto;
+
+public final class BenchmarkMappers {
+
+    private BenchmarkMappers() {
+    }
+
+    public static Mapper<Grade, GradeDto> gradeDtoMapper() {
+        return new GradeDtoMapper();
+    }
+
+    public static Mapper<Student, StudentDto> studentDtoMapper() {
+        return new StudentDtoMapper(new GradeDtoMapper());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.junit.service.mapper;
+
+import com.example.junit.BenchmarkData;
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.Student;
+import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.StudentDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final GradeDtoMapper gradeDtoMapper = new GradeDtoMapper();
+    private final StudentDtoMapper studentDtoMapper = new StudentDtoMapper(gradeDtoMapper);
+
+    @State(Scope.Benchmark)
+    public static class StudentState {
+
+        @Param({"1", "100", "10000"})
+        int gradesPerStudent;
+
+        Student student;
+        List<Grade> grades;
+
+        @Setup
+        public void setup() {
+            student = BenchmarkData.student(gradesPerStudent, new Random(42));
+            grades = student.getGrades();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CohortState {
+
+        @Param({"10000", "1000000"})
+        int students;
+
+        List<Student> cohort;
+
+        @Setup
+        public void setup() {
+            cohort = BenchmarkData.students(students, 1, new Random(42));
+        }
+    }
+
+    @Benchmark
+    public List<GradeDto> mapGradeList(StudentState state) {
+        return gradeDtoMapper.mapList(state.grades);
+    }
+
+    @Benchmark
+    public StudentDto mapStudent(StudentState state) {
+        return studentDtoMapper.map(state.student);
+    }
+
+    @Benchmark
+    public List<StudentDto> mapStudentList(CohortState state) {
+        return studentDtoMapper.mapList(state.cohort);
+    }
+}
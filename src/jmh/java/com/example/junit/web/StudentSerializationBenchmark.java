@@ -0,0 +1,87 @@
+package com.example.junit.web;
+
+import com.example.junit.BenchmarkData;
+import com.example.junit.domain.Student;
+import com.example.junit.service.mapper.BenchmarkMappers;
+import com.example.junit.service.mapper.Mapper;
+import com.example.junit.web.dto.StudentDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of students written to a discarding stream: the DTO mapping plus
+ * data-binding path against {@link StudentJsonWriter} for each format.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StudentSerializationBenchmark {
+
+    @Param({"1000"})
+    int students;
+
+    @Param({"1", "100"})
+    int gradesPerStudent;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory smileFactory = new SmileFactory();
+    private final JsonFactory cborFactory = new CBORFactory();
+    private final Mapper<Student, StudentDto> studentDtoMapper = BenchmarkMappers.studentDtoMapper();
+    private final OutputStream out = StreamUtils.nonClosing(OutputStream.nullOutputStream());
+    private List<Student> page;
+
+    @Setup
+    public void setup() {
+        page = BenchmarkData.students(students, gradesPerStudent, new Random(42));
+    }
+
+    @Benchmark
+    public void dtoJson() throws IOException {
+        objectMapper.writeValue(out, studentDtoMapper.mapList(page));
+    }
+
+    @Benchmark
+    public void slimJson() throws IOException {
+        write(objectMapper.getFactory());
+    }
+
+    @Benchmark
+    public void slimSmile() throws IOException {
+        write(smileFactory);
+    }
+
+    @Benchmark
+    public void slimCbor() throws IOException {
+        write(cborFactory);
+    }
+
+    private void write(JsonFactory factory) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            StudentJsonWriter.writeStudents(generator, page);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.junit.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+/**
+ * Keeps beans with {@code @Scheduled} methods eager under
+ * {@code spring.main.lazy-initialization}: a lazy bean nobody asks for would
+ * never be created, so its jobs would never be scheduled.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+    }
+}
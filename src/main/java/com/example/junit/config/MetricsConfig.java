@@ -0,0 +1,55 @@
+package com.example.junit.config;
+
+import com.example.junit.metrics.EntityLoadCountingIntegrator;
+import com.example.junit.metrics.QueryCountingDataSource;
+import com.example.junit.metrics.QueryMetricsFilter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Counts statements on the connections of the {@code dataSource} bean, the
+     * one Hibernate and every {@code JdbcTemplate} use.
+     */
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? new QueryCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCountingHibernateCustomizer() {
+        return properties -> properties.put("hibernate.integrator_provider",
+                                            (IntegratorProvider) () -> List.of(new EntityLoadCountingIntegrator()));
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryMetricsFilter> queryMetricsFilter(MeterRegistry meterRegistry) {
+        final FilterRegistrationBean<QueryMetricsFilter> registration = new FilterRegistrationBean<>(new QueryMetricsFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.junit.config;
+
+import com.example.junit.datasource.Replica;
+import com.example.junit.datasource.ReplicaRoutingDataSource;
+import com.example.junit.datasource.ReplicaSelection;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to the replicas in {@code datasource.replicas.urls}.
+ * The primary pool is still configured through {@code spring.datasource.*}; the
+ * replicas share its driver and, unless overridden, its credentials.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${datasource.replicas.urls}") List<String> urls,
+                                                             @Value("${datasource.replicas.username:}") String username,
+                                                             @Value("${datasource.replicas.password:}") String password,
+                                                             @Value("${datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+                                                             @Value("${datasource.replicas.connection-timeout:2s}") Duration connectionTimeout,
+                                                             @Value("${datasource.replicas.selection:round-robin}") ReplicaSelection selection,
+                                                             @Value("${datasource.replicas.lag-query:}") String lagQuery,
+                                                             @Value("${datasource.replicas.max-lag:5s}") Duration maxLag) {
+        final List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            final HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(urls.get(i));
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            dataSource.setPassword(username.isEmpty() ? properties.determinePassword() : password);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+            dataSource.setReadOnly(true);
+            final Replica replica = new Replica(dataSource.getPoolName(), dataSource);
+            Gauge.builder("datasource.replica.available", replica, r -> r.isUp() ? 1 : 0)
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.lag", replica, Replica::getLagSeconds)
+                    .tag("replica", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource,
+                                            replicas,
+                                            selection,
+                                            lagQuery,
+                                            maxLag.toMillis() / 1000.0);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.junit.config;
+
+import com.example.junit.domain.Student;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Bounded Caffeine region for the {@code Student} entities in the Hibernate
+ * second-level cache, which serves the student lookups of grade writes. Every
+ * context gets its own cache manager, so contexts sharing a JVM (tests) never
+ * see each other's entries. Grade reads go through {@code StudentGradeCache},
+ * and neither grades nor queries are cached here: the other instances' writes
+ * would not evict them.
+ * <p>
+ * The region is local to the instance and only its own writes evict it.
+ * Entries expire {@code jpa.cache.expire-after-write} after they were put, which
+ * bounds how long a change made by another instance goes unseen.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${jpa.cache.student.maximum-size:100000}") long students,
+                                              @Value("${jpa.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        final CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(Student.class.getName(), bounded(students, expireAfterWrite));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheHibernateCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maximumSize, Duration expireAfterWrite) {
+        final CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return configuration;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.junit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * With {@code startup.training-run=true} the application serves one
+ * {@code GET /api/students} to itself once it is ready and exits, so that a JVM
+ * started with {@code -XX:ArchiveClassesAtExit} dumps a class-data sharing
+ * archive covering startup and the first request. The property is read at
+ * runtime rather than through a condition, which AOT would fix at build time.
+ */
+@Slf4j
+@Component
+public class TrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final boolean enabled;
+
+    public TrainingRun(@Value("${startup.training-run:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getApplicationContext() instanceof WebServerApplicationContext context) {
+            final URI uri = URI.create("http://localhost:" + context.getWebServer().getPort() + "/api/students?limit=1");
+            try {
+                final HttpResponse<Void> response = HttpClient.newHttpClient()
+                        .send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding());
+                log.info("Training run request returned {}", response.statusCode());
+            } catch (IOException e) {
+                log.warn("Training run request failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.junit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * A replica pool and its last known state. A replica is available while its
+ * last health check passed and its replication lag was within bounds.
+ */
+public final class Replica {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private volatile boolean up = true;
+    private volatile double lagSeconds;
+
+    public Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isUp() {
+        return up;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    void update(boolean up, double lagSeconds) {
+        this.up = up;
+        this.lagSeconds = lagSeconds;
+    }
+
+    void markDown() {
+        this.up = false;
+    }
+
+    int getActiveConnections() {
+        final HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
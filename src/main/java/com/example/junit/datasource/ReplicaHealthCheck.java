@@ -0,0 +1,19 @@
+package com.example.junit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReplicaHealthCheck {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval:5000}")
+    public void check() {
+        routingDataSource.checkReplicas();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.junit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Decides when read-only work has to stay on the primary. Reads of a student
+ * written by this instance within {@code datasource.replicas.read-your-writes-window}
+ * go to the primary, so callers see their own writes, and the caches are not
+ * refilled from a replica that has not replayed them yet.
+ */
+@Component
+public class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<Long, Boolean> recentWrites;
+
+    public ReplicaRouting(@Value("${datasource.replicas.enabled:false}") boolean enabled,
+                          @Value("${datasource.replicas.read-your-writes-window:5s}") Duration window) {
+        this.enabled = enabled && !window.isZero();
+        this.recentWrites = Caffeine.newBuilder().expireAfterWrite(window).build();
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (isPrimaryRequired()) {
+            return work.get();
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    public void written(Long studentId) {
+        if (enabled) {
+            recentWrites.put(studentId, Boolean.TRUE);
+        }
+    }
+
+    public <T> T readOwnWrites(Long studentId, Supplier<T> read) {
+        if (enabled && recentWrites.getIfPresent(studentId) != null) {
+            return onPrimary(read);
+        }
+        return read.get();
+    }
+
+    public <T> T readOwnWrites(Collection<Long> studentIds, Supplier<T> read) {
+        if (enabled && !recentWrites.getAllPresent(studentIds).isEmpty()) {
+            return onPrimary(read);
+        }
+        return read.get();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.junit.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to an available replica and
+ * everything else to the primary. When no replica is available, or the chosen
+ * one fails to hand out a connection, the read falls back to the primary and
+ * the replica stays out of rotation until its next successful health check.
+ * Wrap it in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so the connection is only fetched once the transaction is read-only.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReplicaSelection selection,
+                                    String lagQuery, double maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReplicaRouting.isPrimaryRequired()) {
+            return primary.getConnection();
+        }
+        final Replica replica = select();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getDataSource().getConnection();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Replica {} is unavailable, reading from the primary", replica, e);
+            replica.markDown();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            final boolean wasUp = replica.isUp();
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                final double lag = lag(connection);
+                replica.update(lag <= maxLagSeconds, lag);
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown();
+            }
+            if (wasUp != replica.isUp()) {
+                log.info("Replica {} is {} (lag {}s)", replica, replica.isUp() ? "back in rotation" : "out of rotation",
+                         replica.getLagSeconds());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    Replica select() {
+        final List<Replica> available = replicas.stream().filter(Replica::isUp).toList();
+        if (available.isEmpty()) {
+            return null;
+        }
+        if (selection == ReplicaSelection.LEAST_CONNECTIONS) {
+            return available.stream().min(Comparator.comparingInt(Replica::getActiveConnections)).orElseThrow();
+        }
+        return available.get(Math.floorMod(next.getAndIncrement(), available.size()));
+    }
+
+    private double lag(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(lagQuery)) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            return result.next() ? result.getDouble(1) : 0;
+        }
+    }
+}
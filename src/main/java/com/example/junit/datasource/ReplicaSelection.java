@@ -0,0 +1,6 @@
+package com.example.junit.datasource;
+
+public enum ReplicaSelection {
+    ROUND_ROBIN,
+    LEAST_CONNECTIONS
+}
@@ -0,0 +1,147 @@
+package com.example.junit.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class DisciplineStatistic implements Persistable<DisciplineStatisticId> {
+
+    @EmbeddedId
+    private DisciplineStatisticId id;
+
+    @Column(name = "total")
+    private double sum;
+
+    @Column(name = "grade_count")
+    private long count;
+
+    @Column(name = "max_value")
+    private double max;
+
+    @Column(name = "min_value")
+    private double min;
+
+    @Column(name = "quantile_sketch")
+    @Getter(AccessLevel.NONE)
+    private byte[] histogram;
+
+    @Column(name = "recent_grades")
+    @Getter(AccessLevel.NONE)
+    private byte[] recentGrades;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean persisted;
+
+    public DisciplineStatistic(Long studentId, Discipline discipline) {
+        this.id = new DisciplineStatisticId(studentId, discipline);
+        this.histogram = new byte[0];
+        this.recentGrades = new byte[0];
+    }
+
+    /**
+     * Adds grades, oldest first. The histogram and the last grades of a row
+     * written before they existed stay unknown until the row is reset.
+     */
+    public void add(List<Double> values, int window) {
+        for (double value : values) {
+            this.max = this.count == 0 ? value : Math.max(this.max, value);
+            this.min = this.count == 0 ? value : Math.min(this.min, value);
+            this.sum += value;
+            this.count++;
+        }
+        if (histogram != null) {
+            final GradeHistogram updated = GradeHistogram.fromBytes(histogram);
+            values.forEach(updated::add);
+            histogram = updated.toBytes();
+        }
+        if (recentGrades != null) {
+            final GradeWindow updated = GradeWindow.fromBytes(recentGrades, window);
+            values.forEach(updated::add);
+            recentGrades = updated.toBytes();
+        }
+    }
+
+    public boolean isBound(double value) {
+        return value >= max || value <= min;
+    }
+
+    public boolean isRecent(double value) {
+        return getRecentGrades().map(recent -> recent.contains(value)).orElse(true);
+    }
+
+    public void remove(double value) {
+        this.sum -= value;
+        this.count--;
+        if (histogram != null) {
+            final GradeHistogram updated = GradeHistogram.fromBytes(histogram);
+            updated.remove(value);
+            histogram = updated.toBytes();
+        }
+    }
+
+    public void reset(long count, double sum, double max, double min) {
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+        this.min = min;
+    }
+
+    public void reset(GradeHistogram histogram) {
+        this.histogram = histogram.toBytes();
+    }
+
+    public void resetRecent(GradeWindow recent) {
+        this.recentGrades = recent.toBytes();
+    }
+
+    public Optional<GradeHistogram> getHistogram() {
+        return Optional.ofNullable(histogram).map(GradeHistogram::fromBytes);
+    }
+
+    public Optional<GradeWindow> getRecentGrades() {
+        return Optional.ofNullable(recentGrades).map(bytes -> GradeWindow.fromBytes(bytes, bytes.length / Short.BYTES));
+    }
+
+    public double getAverage() {
+        return sum / count;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DisciplineStatistic)) return false;
+        DisciplineStatistic statistic = (DisciplineStatistic) o;
+        return Objects.equals(id, statistic.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
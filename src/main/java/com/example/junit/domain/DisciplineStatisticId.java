@@ -0,0 +1,27 @@
+package com.example.junit.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class DisciplineStatisticId implements Serializable {
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Enumerated(EnumType.STRING)
+    private Discipline discipline;
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -20,8 +21,12 @@ import java.util.Objects;
 @Setter
 public class Grade {
 
+    public static final double MIN_VALUE = 1;
+    public static final double MAX_VALUE = 10;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grade_seq")
+    @SequenceGenerator(name = "grade_seq", sequenceName = "grade_seq", allocationSize = 50)
     @Setter(AccessLevel.NONE)
     private Long id;
 
@@ -0,0 +1,7 @@
+package com.example.junit.domain;
+
+public enum GradeEventType {
+    STUDENT_CREATED,
+    GRADE_ADDED,
+    GRADE_REMOVED
+}
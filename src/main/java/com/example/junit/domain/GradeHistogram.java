@@ -0,0 +1,132 @@
+package com.example.junit.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Counts of grades in buckets {@value #BUCKET_WIDTH} wide, centered on the
+ * multiples of {@value #BUCKET_WIDTH} from {@link Grade#MIN_VALUE} to
+ * {@link Grade#MAX_VALUE}. A grade on that grid is counted exactly, any other
+ * grade in the nearest bucket, so a quantile read back is at most
+ * {@value #MAX_ERROR} from the exact one. Histograms merge by adding counts and,
+ * unlike a t-digest or KLL sketch, a grade can be taken out again when it is
+ * removed. Stored as (bucket, count) pairs of the non-empty buckets.
+ */
+public final class GradeHistogram {
+
+    public static final double BUCKET_WIDTH = 0.05;
+    public static final double MAX_ERROR = BUCKET_WIDTH / 2;
+
+    private static final int MIN_HUNDREDTHS = (int) (Grade.MIN_VALUE * 100);
+    private static final int WIDTH_HUNDREDTHS = (int) (BUCKET_WIDTH * 100);
+    private static final int BUCKETS = (int) ((Grade.MAX_VALUE - Grade.MIN_VALUE) * 100) / WIDTH_HUNDREDTHS + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+
+    public static GradeHistogram fromBytes(byte[] bytes) {
+        final GradeHistogram histogram = new GradeHistogram();
+        int i = 0;
+        while (i < bytes.length) {
+            final int bucket = bytes[i++] & 0xFF;
+            long count = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[i++];
+                count |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            histogram.counts[bucket] = count;
+            histogram.total += count;
+        }
+        return histogram;
+    }
+
+    public byte[] toBytes() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long count = counts[bucket];
+            if (count == 0) {
+                continue;
+            }
+            out.write(bucket);
+            while ((count & ~0x7FL) != 0) {
+                out.write((int) (count & 0x7F) | 0x80);
+                count >>>= 7;
+            }
+            out.write((int) count);
+        }
+        return out.toByteArray();
+    }
+
+    public void add(double value) {
+        counts[bucket(value)]++;
+        total++;
+    }
+
+    public void remove(double value) {
+        final int bucket = bucket(value);
+        if (counts[bucket] > 0) {
+            counts[bucket]--;
+            total--;
+        }
+    }
+
+    public void merge(GradeHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] += other.counts[bucket];
+        }
+        total += other.total;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+
+    /**
+     * The nearest-rank quantile: the grade at rank {@code ceil(q * count)} in
+     * ascending order, rounded to its bucket. The median of an even count is
+     * the lower of the two middle grades.
+     */
+    public double quantile(double q) {
+        if (total == 0) {
+            throw new IllegalStateException("Histogram is empty");
+        }
+        final long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return value(bucket);
+            }
+        }
+        return value(BUCKETS - 1);
+    }
+
+    private static int bucket(double value) {
+        final int bucket = (int) Math.round((value * 100 - MIN_HUNDREDTHS) / WIDTH_HUNDREDTHS);
+        return Math.min(Math.max(bucket, 0), BUCKETS - 1);
+    }
+
+    private static double value(int bucket) {
+        return (MIN_HUNDREDTHS + bucket * WIDTH_HUNDREDTHS) / 100.0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GradeHistogram)) return false;
+        GradeHistogram histogram = (GradeHistogram) o;
+        return Arrays.equals(counts, histogram.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+}
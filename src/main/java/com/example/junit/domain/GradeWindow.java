@@ -0,0 +1,87 @@
+package com.example.junit.domain;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The last {@code capacity} grades of a student in a discipline, oldest
+ * first, kept in a ring buffer. Stored as one short per grade in hundredths,
+ * so a grade with more than two decimals is read back rounded to two.
+ */
+public final class GradeWindow {
+
+    private final double[] values;
+    private int head;
+    private int size;
+
+    public GradeWindow(int capacity) {
+        this.values = new double[Math.max(capacity, 1)];
+    }
+
+    public static GradeWindow of(Collection<Double> oldestFirst, int capacity) {
+        final GradeWindow window = new GradeWindow(capacity);
+        oldestFirst.forEach(window::add);
+        return window;
+    }
+
+    public static GradeWindow fromBytes(byte[] bytes, int capacity) {
+        final GradeWindow window = new GradeWindow(capacity);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.remaining() >= Short.BYTES) {
+            window.add(buffer.getShort() / 100.0);
+        }
+        return window;
+    }
+
+    public byte[] toBytes() {
+        final ByteBuffer buffer = ByteBuffer.allocate(size * Short.BYTES);
+        for (double value : values()) {
+            buffer.putShort((short) Math.round(value * 100));
+        }
+        return buffer.array();
+    }
+
+    public void add(double value) {
+        values[(head + size) % values.length] = value;
+        if (size < values.length) {
+            size++;
+        } else {
+            head = (head + 1) % values.length;
+        }
+    }
+
+    public boolean contains(double value) {
+        for (int i = 0; i < size; i++) {
+            if (Math.round(values[(head + i) % values.length] * 100) == Math.round(value * 100)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Double> values() {
+        final List<Double> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(values[(head + i) % values.length]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double sum() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[(head + i) % values.length];
+        }
+        return sum;
+    }
+
+    public double average() {
+        return sum() / size;
+    }
+}
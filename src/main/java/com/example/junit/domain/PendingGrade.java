@@ -0,0 +1,78 @@
+package com.example.junit.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Objects;
+
+/**
+ * A grade acknowledged by the asynchronous ingestion pipeline. The row is
+ * committed before the caller is answered, so it survives a restart until a
+ * worker applies it to the student.
+ */
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class PendingGrade {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pending_grade_seq")
+    @SequenceGenerator(name = "pending_grade_seq", sequenceName = "pending_grade_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    private Double value;
+
+    @Enumerated(EnumType.STRING)
+    private Discipline discipline;
+
+    @Enumerated(EnumType.STRING)
+    private PendingGradeStatus status;
+
+    private Long gradeId;
+
+    private String error;
+
+    public PendingGrade(Long studentId, Double value, Discipline discipline) {
+        this.studentId = studentId;
+        this.value = value;
+        this.discipline = discipline;
+        this.status = PendingGradeStatus.PENDING;
+    }
+
+    public void applied(Long gradeId) {
+        this.status = PendingGradeStatus.APPLIED;
+        this.gradeId = gradeId;
+    }
+
+    public void rejected(String error) {
+        this.status = PendingGradeStatus.REJECTED;
+        this.error = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PendingGrade)) return false;
+        PendingGrade pendingGrade = (PendingGrade) o;
+        return Objects.equals(id, pendingGrade.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.junit.domain;
+
+public enum PendingGradeStatus {
+    PENDING,
+    APPLIED,
+    REJECTED
+}
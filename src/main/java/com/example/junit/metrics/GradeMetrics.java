@@ -0,0 +1,22 @@
+package com.example.junit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GradeMetrics {
+
+    private final DistributionSummary gradesPerStudent;
+
+    public GradeMetrics(MeterRegistry meterRegistry) {
+        this.gradesPerStudent = DistributionSummary.builder("grades.per.student")
+                .description("Grades loaded per student entity")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void gradesLoaded(int count) {
+        gradesPerStudent.record(count);
+    }
+}
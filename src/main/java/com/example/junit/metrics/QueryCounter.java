@@ -0,0 +1,52 @@
+package com.example.junit.metrics;
+
+/**
+ * Counts SQL statements and hydrated entities on the current thread between
+ * {@link #start()} and {@link #stop()}. Work done outside a started scope,
+ * e.g. on other threads, is not counted.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static Counts start() {
+        final Counts counts = new Counts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        final Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        final Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.entities++;
+        }
+    }
+
+    public static final class Counts {
+
+        private long statements;
+        private long entities;
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getEntities() {
+            return entities;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.junit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the SQL statements and entities loaded by each request, tagged by
+ * method and URI template, so N+1 patterns show up per endpoint.
+ */
+@RequiredArgsConstructor
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS = "http.server.requests.sql.statements";
+    public static final String ENTITIES = "http.server.requests.entities.loaded";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final QueryCounter.Counts counts = QueryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryCounter.stop();
+            final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            final String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            summary(STATEMENTS, request.getMethod(), uri).record(counts.getStatements());
+            summary(ENTITIES, request.getMethod(), uri).record(counts.getEntities());
+        }
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
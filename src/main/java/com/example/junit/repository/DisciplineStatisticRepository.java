@@ -0,0 +1,88 @@
+package com.example.junit.repository;
+
+import com.example.junit.domain.DisciplineStatistic;
+import com.example.junit.domain.DisciplineStatisticId;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface DisciplineStatisticRepository extends JpaRepository<DisciplineStatistic, DisciplineStatisticId> {
+
+    List<DisciplineStatistic> findByIdStudentId(Long studentId);
+
+    List<DisciplineStatistic> findByIdStudentIdIn(Collection<Long> studentIds);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           select new com.example.junit.repository.StudentAverage(st.id, st.group, sum(s.sum) / sum(s.count))
+           from DisciplineStatistic s join Student st on st.id = s.id.studentId
+           where st.id between :from and :to
+           group by st.id, st.group
+           """)
+    Stream<StudentAverage> streamAverages(@Param("from") Long from, @Param("to") Long to);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           select new com.example.junit.repository.StudentAverage(st.id, st.group, sum(s.sum) / sum(s.count))
+           from DisciplineStatistic s join Student st on st.id = s.id.studentId
+           where st.id between :from and :to and st.group = :group
+           group by st.id, st.group
+           """)
+    Stream<StudentAverage> streamAveragesForGroup(@Param("from") Long from, @Param("to") Long to, @Param("group") String group);
+
+    @Query("""
+           select new com.example.junit.repository.DisciplineStats(s.id.studentId, s.id.discipline, s.count, s.sum, s.max, s.min)
+           from DisciplineStatistic s join Student st on st.id = s.id.studentId
+           where st.group = :group
+           """)
+    List<DisciplineStats> findStatsForGroup(@Param("group") String group);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           select new com.example.junit.repository.DisciplineStats(s.id.studentId, s.id.discipline, s.count, s.sum, s.max, s.min)
+           from DisciplineStatistic s join Student st on st.id = s.id.studentId
+           where st.id between :from and :to and st.group = :group
+           order by s.id.studentId
+           """)
+    Stream<DisciplineStats> streamStatsForGroup(@Param("from") Long from, @Param("to") Long to, @Param("group") String group);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           select new com.example.junit.repository.GroupDisciplineStats(st.group, s.id.studentId, s.id.discipline, s.count, s.sum, s.min)
+           from DisciplineStatistic s join Student st on st.id = s.id.studentId
+           where st.id between :from and :to
+           order by s.id.studentId
+           """)
+    Stream<GroupDisciplineStats> streamGroupStats(@Param("from") Long from, @Param("to") Long to);
+
+    @Query("select s from DisciplineStatistic s join Student st on st.id = s.id.studentId where st.group = :group")
+    List<DisciplineStatistic> findForGroup(@Param("group") String group);
+
+    @Query("""
+           select distinct s.id.studentId from DisciplineStatistic s
+           where s.id.studentId > :after and (s.histogram is null or s.recentGrades is null)
+           order by s.id.studentId
+           """)
+    List<Long> findStudentIdsWithUnknownSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from DisciplineStatistic s where s.id = :id")
+    Optional<DisciplineStatistic> findForUpdate(@Param("id") DisciplineStatisticId id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from DisciplineStatistic s where s.id.studentId in :studentIds")
+    List<DisciplineStatistic> findForUpdateByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+}
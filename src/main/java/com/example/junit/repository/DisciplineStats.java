@@ -0,0 +1,20 @@
+package com.example.junit.repository;
+
+import com.example.junit.domain.Discipline;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class DisciplineStats {
+    private Long studentId;
+    private Discipline discipline;
+    private Long count;
+    private Double sum;
+    private Double max;
+    private Double min;
+
+    public Double getAverage() {
+        return sum / count;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.junit.repository;
+
+import com.example.junit.domain.Discipline;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One grade of the grade book with its student, or a student without grades
+ * with null grade fields.
+ */
+@AllArgsConstructor
+@Data
+public class GradeBookRow {
+    private Long studentId;
+    private String firstName;
+    private String lastName;
+    private String group;
+    private Long gradeId;
+    private Double value;
+    private Discipline discipline;
+}
@@ -0,0 +1,14 @@
+package com.example.junit.repository;
+
+import com.example.junit.domain.Discipline;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class GradeBucket {
+    private String group;
+    private Discipline discipline;
+    private Integer bucket;
+    private Long count;
+}
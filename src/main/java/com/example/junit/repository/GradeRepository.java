@@ -1,9 +1,78 @@
 package com.example.junit.repository;
 
+import com.example.junit.domain.Discipline;
 import com.example.junit.domain.Grade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface GradeRepository extends JpaRepository<Grade, Long> {
+
+    @Query("""
+           select new com.example.junit.repository.StudentGrade(s.id, g.id, g.value, g.discipline)
+           from Student s left join s.grades g
+           where s.id in :studentIds
+           order by s.id, g.id
+           """)
+    List<StudentGrade> findGradesByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           select new com.example.junit.repository.StudentGrade(st.id, g.id, g.value, g.discipline)
+           from Grade g join g.student st
+           where st.id between :from and :to and st.group = :group
+           order by st.id
+           """)
+    Stream<StudentGrade> streamGradesForGroup(@Param("from") Long from, @Param("to") Long to, @Param("group") String group);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           select new com.example.junit.repository.GroupStudentGrade(st.group, st.id, g.value, g.discipline)
+           from Grade g join g.student st
+           where st.id between :from and :to
+           order by st.id
+           """)
+    Stream<GroupStudentGrade> streamGroupGrades(@Param("from") Long from, @Param("to") Long to);
+
+    @Query("""
+           select g.value
+           from Grade g
+           where g.student.id = :studentId and g.discipline = :discipline
+           order by g.id desc
+           """)
+    List<Double> findRecentValues(@Param("studentId") Long studentId, @Param("discipline") Discipline discipline, Pageable pageable);
+
+    @Query("""
+           select new com.example.junit.repository.GradeBucket(st.group, g.discipline, cast(floor(g.value) as Integer), count(g))
+           from Grade g join g.student st
+           group by st.group, g.discipline, cast(floor(g.value) as Integer)
+           """)
+    List<GradeBucket> countBucketsPerGroup();
+
+    @Query("""
+           select new com.example.junit.repository.GradeBucket(st.group, g.discipline, cast(floor(g.value) as Integer), count(g))
+           from Grade g join g.student st
+           where st.group = :group
+           group by st.group, g.discipline, cast(floor(g.value) as Integer)
+           """)
+    List<GradeBucket> countBucketsForGroup(@Param("group") String group);
+
+    @Query("""
+           select new com.example.junit.repository.DisciplineStats(g.student.id, g.discipline, count(g), sum(g.value), max(g.value), min(g.value))
+           from Grade g
+           where g.student.id = :studentId and g.discipline = :discipline
+           group by g.student.id, g.discipline
+           """)
+    Optional<DisciplineStats> findStats(@Param("studentId") Long studentId, @Param("discipline") Discipline discipline);
 }
@@ -0,0 +1,11 @@
+package com.example.junit.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class GroupCount {
+    private String group;
+    private Long count;
+}
@@ -0,0 +1,16 @@
+package com.example.junit.repository;
+
+import com.example.junit.domain.Discipline;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class GroupDisciplineStats {
+    private String group;
+    private Long studentId;
+    private Discipline discipline;
+    private Long count;
+    private Double sum;
+    private Double min;
+}
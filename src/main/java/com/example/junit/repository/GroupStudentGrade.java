@@ -0,0 +1,14 @@
+package com.example.junit.repository;
+
+import com.example.junit.domain.Discipline;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class GroupStudentGrade {
+    private String group;
+    private Long studentId;
+    private Double value;
+    private Discipline discipline;
+}
@@ -0,0 +1,32 @@
+package com.example.junit.repository;
+
+import com.example.junit.domain.PendingGrade;
+import com.example.junit.domain.PendingGradeStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PendingGradeRepository extends JpaRepository<PendingGrade, Long> {
+
+    List<PendingGrade> findByStatusAndIdGreaterThanOrderById(PendingGradeStatus status, Long after, Pageable pageable);
+
+    /**
+     * Locks the rows of {@code ids} that are still pending. Rows locked by
+     * another transaction are skipped where the database supports it,
+     * otherwise the query waits and leaves them out once they were applied.
+     * The lock mode is the external form of {@code LockMode.UPGRADE_SKIPLOCKED};
+     * a {@code @Lock} would replace it, since it is applied after the hints.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_LOCK_MODE, value = "upgrade-skiplocked"))
+    @Query("select p from PendingGrade p where p.id in :ids and p.status = com.example.junit.domain.PendingGradeStatus.PENDING order by p.id")
+    List<PendingGrade> claimPending(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,93 @@
+package com.example.junit.repository;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fails startup when an index the repositories rely on is missing, e.g. on a
+ * database whose migrations were skipped. An index matches when its leading
+ * columns are the required ones, in order.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@ConditionalOnProperty(name = "schema.index-check.enabled", havingValue = "true", matchIfMissing = true)
+public class RequiredIndexCheck implements InitializingBean {
+
+    static final List<RequiredIndex> REQUIRED_INDEXES = List.of(
+            new RequiredIndex("grade", List.of("student_id", "discipline")),
+            new RequiredIndex("discipline_statistic", List.of("student_id")),
+            new RequiredIndex("student", List.of("group_number")),
+            new RequiredIndex("student", List.of("last_name", "first_name")),
+            new RequiredIndex("pending_grade", List.of("status", "id")),
+            new RequiredIndex("grade_event", List.of("sequence", "id")),
+            new RequiredIndex("grade_event", List.of("grade_id")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RequiredIndexCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        final List<RequiredIndex> missing = findMissing();
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Missing indexes: " + missing);
+        }
+    }
+
+    List<RequiredIndex> findMissing() {
+        return jdbcTemplate.execute((ConnectionCallback<List<RequiredIndex>>) connection -> {
+            final DatabaseMetaData metaData = connection.getMetaData();
+            final List<RequiredIndex> missing = new ArrayList<>();
+            for (RequiredIndex required : REQUIRED_INDEXES) {
+                final Collection<List<String>> indexes = indexColumns(metaData, connection.getCatalog(), connection.getSchema(), required.table());
+                if (indexes.stream().noneMatch(required::isPrefixOf)) {
+                    missing.add(required);
+                }
+            }
+            return missing;
+        });
+    }
+
+    private static Collection<List<String>> indexColumns(DatabaseMetaData metaData, String catalog, String schema, String table) throws SQLException {
+        final Map<String, Map<Short, String>> columns = new TreeMap<>();
+        try (ResultSet indexInfo = metaData.getIndexInfo(catalog, schema, table, false, true)) {
+            while (indexInfo.next()) {
+                final String index = indexInfo.getString("INDEX_NAME");
+                final String column = indexInfo.getString("COLUMN_NAME");
+                if (index != null && column != null) {
+                    columns.computeIfAbsent(index, i -> new TreeMap<>())
+                            .put(indexInfo.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return columns.values().stream().map(ordered -> List.copyOf(ordered.values())).toList();
+    }
+
+    record RequiredIndex(String table, List<String> columns) {
+
+        boolean isPrefixOf(List<String> indexColumns) {
+            return indexColumns.size() >= columns.size() && indexColumns.subList(0, columns.size()).equals(columns);
+        }
+
+        @Override
+        public String toString() {
+            return table + "(" + String.join(", ", columns) + ")";
+        }
+    }
+}
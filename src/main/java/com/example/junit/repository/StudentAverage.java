@@ -0,0 +1,12 @@
+package com.example.junit.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class StudentAverage {
+    private Long studentId;
+    private String group;
+    private Double average;
+}
@@ -0,0 +1,13 @@
+package com.example.junit.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class StudentKey {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String group;
+}
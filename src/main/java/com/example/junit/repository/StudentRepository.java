@@ -1,9 +1,57 @@
 package com.example.junit.repository;
 
 import com.example.junit.domain.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
+
+    @Query("select s.id from Student s where s.id > :after order by s.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select min(s.id) from Student s")
+    Optional<Long> findMinId();
+
+    @Query("select max(s.id) from Student s")
+    Optional<Long> findMaxId();
+
+    @Query("select new com.example.junit.repository.GroupCount(s.group, count(s)) from Student s group by s.group")
+    List<GroupCount> countPerGroup();
+
+    @Query("select new com.example.junit.repository.GroupCount(s.group, count(s)) from Student s where s.group = :group group by s.group")
+    List<GroupCount> countForGroup(@Param("group") String group);
+
+    @Query("select s.id from Student s where s.group = :group order by s.id")
+    List<Long> findIdsByGroup(@Param("group") String group);
+
+    @Query("select s.id from Student s where s.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.junit.repository.StudentKey(s.id, s.firstName, s.lastName, s.group) from Student s " +
+           "where s.lastName in :lastNames and s.firstName in :firstNames order by s.id")
+    List<StudentKey> findKeysByNames(@Param("lastNames") Collection<String> lastNames,
+                                     @Param("firstNames") Collection<String> firstNames);
+
+    @Query("select distinct s from Student s left join fetch s.grades where s.id in :ids order by s.id")
+    List<Student> findWithGradesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           select new com.example.junit.repository.GradeBookRow(s.id, s.firstName, s.lastName, s.group, g.id, g.value, g.discipline)
+           from Student s left join s.grades g
+           order by s.id, g.id
+           """)
+    Stream<GradeBookRow> streamGradeBook();
 }
@@ -0,0 +1,81 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.web.dto.GradeDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking variants of the {@link GradeService} reads. They run on a
+ * bounded pool, and concurrent requests for the same student and view share
+ * one load. A write evicting the student from the {@link StudentGradeCache}
+ * forgets its loads in flight, so a request made after the write commits does
+ * not get data read before it. When the pool and its queue are full the
+ * returned future fails with a {@link java.util.concurrent.RejectedExecutionException}.
+ */
+@Service
+public class AsyncGradeService {
+
+    private final GradeService gradeService;
+    private final ThreadPoolExecutor executor;
+    private final SingleFlight<Long, List<GradeDto>> grades;
+    private final SingleFlight<Long, Map<Discipline, Double>> averages;
+    private final SingleFlight<Long, Map<Discipline, Double>> maxima;
+    private final SingleFlight<Long, Map<Discipline, Boolean>> promotions;
+
+    public AsyncGradeService(GradeService gradeService,
+                             StudentGradeCache gradeCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${grades.async.threads:16}") int threads,
+                             @Value("${grades.async.queue-capacity:1000}") int queueCapacity) {
+        this.gradeService = gradeService;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(queueCapacity),
+                                               new CustomizableThreadFactory("grades-async-"));
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "grades.async");
+        this.grades = new SingleFlight<>("grades", executor, meterRegistry);
+        this.averages = new SingleFlight<>("average", executor, meterRegistry);
+        this.maxima = new SingleFlight<>("max", executor, meterRegistry);
+        this.promotions = new SingleFlight<>("promotion", executor, meterRegistry);
+        gradeCache.onEvict(this::forget);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<List<GradeDto>> getForStudent(Long studentId) {
+        return grades.execute(studentId, () -> gradeService.getForStudent(studentId));
+    }
+
+    public CompletableFuture<Map<Discipline, Double>> getAveragePerDiscipline(Long studentId) {
+        return averages.execute(studentId, () -> gradeService.getAveragePerDiscipline(studentId));
+    }
+
+    public CompletableFuture<Map<Discipline, Double>> getMaxPerDiscipline(Long studentId) {
+        return maxima.execute(studentId, () -> gradeService.getMaxPerDiscipline(studentId));
+    }
+
+    public CompletableFuture<Map<Discipline, Boolean>> isPromotedPerDiscipline(Long studentId) {
+        return promotions.execute(studentId, () -> gradeService.isPromotedPerDiscipline(studentId));
+    }
+
+    private void forget(Long studentId) {
+        grades.forget(studentId);
+        averages.forget(studentId);
+        maxima.forget(studentId);
+        promotions.forget(studentId);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.junit.service;
+
+import com.example.junit.datasource.ReplicaRouting;
+import com.example.junit.domain.Discipline;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the {@code grade} table in {@link GradeColumns}, reloaded
+ * every {@code grades.columnar.refresh-interval} milliseconds. Grades added
+ * through this instance since the last load are kept per student next to the
+ * columns. A student whose grades were changed any other way, or during a
+ * load, is stale until the next load and its reads go to the database.
+ * Writes made by other instances show up only after the next load.
+ */
+@Slf4j
+@Component
+public class ColumnarGradeStore {
+
+    private static final Discipline[] DISCIPLINES = Discipline.values();
+    private static final String COUNT_SQL = "select count(distinct student_id), count(*) from grade where student_id is not null";
+    private static final String LOAD_SQL = """
+            select g.student_id, s.group_number, g.discipline, g.value
+            from grade g join student s on s.id = g.student_id
+            order by g.student_id
+            """;
+    private static final int FETCH_SIZE = 1000;
+
+    private final boolean enabled;
+    private final boolean offHeap;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Object lock = new Object();
+    private volatile Snapshot snapshot;
+    private Set<Long> writtenDuringLoad;
+
+    public ColumnarGradeStore(@Value("${grades.columnar.enabled:false}") boolean enabled,
+                              @Value("${grades.columnar.off-heap:false}") boolean offHeap,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.offHeap = offHeap;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        Gauge.builder("grades.columnar.grades", this, store -> store.columns().map(GradeColumns::grades).orElse(0))
+                .register(meterRegistry);
+        Gauge.builder("grades.columnar.size", this, store -> store.columns().map(GradeColumns::sizeInBytes).orElse(0L))
+                .baseUnit("bytes")
+                .tag("memory", offHeap ? "off-heap" : "heap")
+                .register(meterRegistry);
+        Gauge.builder("grades.columnar.stale.students", this, store -> store.snapshot == null ? 0 : store.snapshot.stale().size())
+                .register(meterRegistry);
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    Optional<GradeColumns> columns() {
+        return Optional.ofNullable(snapshot).map(Snapshot::columns);
+    }
+
+    /**
+     * Per-discipline aggregates of a student, or empty when they have to be
+     * read from the database: the store is not loaded, the student is stale,
+     * or the student has no grades here (which includes unknown students).
+     */
+    public Optional<DisciplineAggregator> aggregate(Long studentId) {
+        final Snapshot current = snapshot;
+        if (current == null || current.stale().contains(studentId)) {
+            return Optional.empty();
+        }
+        final Added added = current.added().get(studentId);
+        if (added == null && !current.columns().contains(studentId)) {
+            return Optional.empty();
+        }
+        final DisciplineAggregator aggregator = new DisciplineAggregator();
+        current.columns().aggregate(studentId, aggregator);
+        if (added != null) {
+            added.addTo(aggregator);
+        }
+        return Optional.of(aggregator);
+    }
+
+    /**
+     * Per-discipline aggregates of every student with grades in {@code group},
+     * keyed by student id, or empty when a student of the group, or a stale
+     * student of unknown group, has to be read from the database.
+     */
+    public Optional<Map<Long, DisciplineAggregator>> aggregateGroup(String group) {
+        final Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        final GradeColumns columns = current.columns();
+        for (Long studentId : current.stale()) {
+            if (!columns.contains(studentId) || Objects.equals(columns.group(studentId), group)) {
+                return Optional.empty();
+            }
+        }
+        final Map<Long, DisciplineAggregator> result = columns.aggregateGroup(group);
+        current.added().forEach((studentId, added) -> {
+            if (Objects.equals(added.group(), group)) {
+                added.addTo(result.computeIfAbsent(studentId, id -> new DisciplineAggregator()));
+            }
+        });
+        return Optional.of(result);
+    }
+
+    public void addAfterCommit(Long studentId, String group, Discipline discipline, double value) {
+        afterCommit(() -> add(studentId, group, discipline, value));
+    }
+
+    public void invalidateAfterCommit(Long studentId) {
+        afterCommit(() -> invalidate(studentId));
+    }
+
+    void add(Long studentId, String group, Discipline discipline, double value) {
+        synchronized (lock) {
+            if (writtenDuringLoad != null) {
+                writtenDuringLoad.add(studentId);
+            }
+            final Snapshot current = snapshot;
+            if (current != null && !current.stale().contains(studentId)) {
+                current.added().merge(studentId, Added.of(group, discipline, value), Added::plus);
+            }
+        }
+    }
+
+    void invalidate(Long studentId) {
+        synchronized (lock) {
+            if (writtenDuringLoad != null) {
+                writtenDuringLoad.add(studentId);
+            }
+            final Snapshot current = snapshot;
+            if (current != null) {
+                current.stale().add(studentId);
+                current.added().remove(studentId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${grades.columnar.refresh-interval:300000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            writtenDuringLoad = new HashSet<>();
+        }
+        try {
+            final long start = System.nanoTime();
+            final GradeColumns columns = ReplicaRouting.onPrimary(() -> readOnlyTransaction.execute(status -> load()));
+            synchronized (lock) {
+                final Set<Long> stale = ConcurrentHashMap.newKeySet();
+                stale.addAll(writtenDuringLoad);
+                snapshot = new Snapshot(columns, new ConcurrentHashMap<>(), stale);
+            }
+            log.info("Loaded {} grades of {} students into the columnar store ({} bytes) in {} ms",
+                     columns.grades(), columns.students(), columns.sizeInBytes(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Columnar grade store could not be loaded, keeping the previous snapshot", e);
+        } finally {
+            synchronized (lock) {
+                writtenDuringLoad = null;
+            }
+        }
+    }
+
+    private GradeColumns load() {
+        final long[] counts = jdbcTemplate.queryForObject(COUNT_SQL, (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        final GradeColumns.Builder builder = GradeColumns.builder((int) counts[0], (int) counts[1], offHeap);
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(LOAD_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> builder.add(rs.getLong(1), rs.getString(2), Discipline.valueOf(rs.getString(3)), rs.getDouble(4)));
+        return builder.build();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Snapshot(GradeColumns columns, Map<Long, Added> added, Set<Long> stale) {
+    }
+
+    private record Added(String group, byte[] disciplines, double[] values) {
+
+        static Added of(String group, Discipline discipline, double value) {
+            return new Added(group, new byte[]{(byte) discipline.ordinal()}, new double[]{value});
+        }
+
+        Added plus(Added other) {
+            final int length = values.length;
+            final byte[] mergedDisciplines = Arrays.copyOf(disciplines, length + other.values.length);
+            final double[] mergedValues = Arrays.copyOf(values, length + other.values.length);
+            System.arraycopy(other.disciplines, 0, mergedDisciplines, length, other.disciplines.length);
+            System.arraycopy(other.values, 0, mergedValues, length, other.values.length);
+            return new Added(group, mergedDisciplines, mergedValues);
+        }
+
+        void addTo(DisciplineAggregator aggregator) {
+            for (int i = 0; i < values.length; i++) {
+                aggregator.add(DISCIPLINES[disciplines[i]], values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.repository.DisciplineStats;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-discipline count, sum, max and min kept in primitive arrays indexed by
+ * {@link Discipline#ordinal()}. Accumulates grades or pre-aggregated rows in one
+ * pass and exposes the averages and maxima as unmodifiable {@link EnumMap}s;
+ * promotion is decided by {@link PromotionRules}.
+ */
+public final class DisciplineAggregator {
+
+    private static final Discipline[] DISCIPLINES = Discipline.values();
+
+    private final long[] counts = new long[DISCIPLINES.length];
+    private final double[] sums = new double[DISCIPLINES.length];
+    private final double[] maxima = new double[DISCIPLINES.length];
+    private final double[] minima = new double[DISCIPLINES.length];
+
+    public static DisciplineAggregator ofStats(Collection<DisciplineStats> stats) {
+        final DisciplineAggregator aggregator = new DisciplineAggregator();
+        for (DisciplineStats row : stats) {
+            aggregator.merge(row.getDiscipline(), row.getCount(), row.getSum(), row.getMax(), row.getMin());
+        }
+        return aggregator;
+    }
+
+    public void add(Discipline discipline, double value) {
+        merge(discipline, 1, value, value, value);
+    }
+
+    public void merge(Discipline discipline, long count, double sum, double max, double min) {
+        final int i = discipline.ordinal();
+        if (counts[i] == 0) {
+            maxima[i] = max;
+            minima[i] = min;
+        } else {
+            maxima[i] = Math.max(maxima[i], max);
+            minima[i] = Math.min(minima[i], min);
+        }
+        counts[i] += count;
+        sums[i] += sum;
+    }
+
+    public void merge(DisciplineAggregator other) {
+        for (int i = 0; i < DISCIPLINES.length; i++) {
+            if (other.counts[i] > 0) {
+                merge(DISCIPLINES[i], other.counts[i], other.sums[i], other.maxima[i], other.minima[i]);
+            }
+        }
+    }
+
+    public boolean has(Discipline discipline) {
+        return counts[discipline.ordinal()] > 0;
+    }
+
+    public long count(Discipline discipline) {
+        return counts[discipline.ordinal()];
+    }
+
+    public double sum(Discipline discipline) {
+        return sums[discipline.ordinal()];
+    }
+
+    public double average(Discipline discipline) {
+        final int i = discipline.ordinal();
+        return sums[i] / counts[i];
+    }
+
+    public double max(Discipline discipline) {
+        return maxima[discipline.ordinal()];
+    }
+
+    public double min(Discipline discipline) {
+        return minima[discipline.ordinal()];
+    }
+
+    public Map<Discipline, Double> averages() {
+        final EnumMap<Discipline, Double> result = new EnumMap<>(Discipline.class);
+        for (Discipline discipline : DISCIPLINES) {
+            if (has(discipline)) {
+                result.put(discipline, average(discipline));
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    public Map<Discipline, Double> maxima() {
+        final EnumMap<Discipline, Double> result = new EnumMap<>(Discipline.class);
+        for (Discipline discipline : DISCIPLINES) {
+            if (has(discipline)) {
+                result.put(discipline, max(discipline));
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.junit.service;
+
+import com.example.junit.repository.DisciplineStatisticRepository;
+import com.example.junit.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DisciplineStatisticRebuildJob {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final StudentRepository studentRepository;
+    private final DisciplineStatisticRepository statisticRepository;
+    private final DisciplineStatisticService statisticService;
+
+    @Value("${statistics.verify.repair:true}")
+    private boolean repair;
+
+    @Value("${statistics.repair-on-startup:true}")
+    private boolean repairOnStartup;
+
+    /**
+     * Rebuilds the rows without a histogram or last grades, written before
+     * {@code V5} or backfilled by {@code V7}, once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startupRun() {
+        if (repairOnStartup) {
+            final int repaired = repairUnknownSummaries();
+            if (repaired > 0) {
+                log.info("Discipline statistics without summaries rebuilt, {} entries", repaired);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${statistics.verify.cron:-}")
+    public void scheduledRun() {
+        final int drift = run(repair);
+        log.info("Discipline statistics verified, {} drifted entries{}", drift, repair ? " repaired" : "");
+    }
+
+    public int verify() {
+        return run(false);
+    }
+
+    public int rebuild() {
+        return run(true);
+    }
+
+    public int repairUnknownSummaries() {
+        int repaired = 0;
+        List<Long> ids = statisticRepository.findStudentIdsWithUnknownSummariesAfter(0L, PageRequest.ofSize(CHUNK_SIZE));
+        while (!ids.isEmpty()) {
+            repaired += statisticService.verify(ids, true);
+            ids = statisticRepository.findStudentIdsWithUnknownSummariesAfter(ids.get(ids.size() - 1), PageRequest.ofSize(CHUNK_SIZE));
+        }
+        return repaired;
+    }
+
+    private int run(boolean repair) {
+        int drift = 0;
+        List<Long> ids = studentRepository.findIdsAfter(0L, PageRequest.ofSize(CHUNK_SIZE));
+        while (!ids.isEmpty()) {
+            drift += statisticService.verify(ids, repair);
+            ids = studentRepository.findIdsAfter(ids.get(ids.size() - 1), PageRequest.ofSize(CHUNK_SIZE));
+        }
+        return drift;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.DisciplineStatistic;
+import com.example.junit.domain.DisciplineStatisticId;
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.GradeHistogram;
+import com.example.junit.domain.GradeWindow;
+import com.example.junit.repository.DisciplineStatisticRepository;
+import com.example.junit.repository.DisciplineStats;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.StudentGrade;
+import com.example.junit.web.dto.DisciplineQuantilesDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class DisciplineStatisticService {
+
+    private static final double SUM_TOLERANCE = 1e-6;
+    private static final String INSERT_IF_ABSENT_SQL = """
+            insert into discipline_statistic (student_id, discipline, total, grade_count, max_value, min_value, quantile_sketch, recent_grades)
+            values (?, ?, 0, 0, 0, 0, ?, ?)
+            on conflict do nothing
+            """;
+
+    private final DisciplineStatisticRepository statisticRepository;
+    private final GradeRepository gradeRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${statistics.trailing-window:10}")
+    private int window;
+
+    @Transactional(readOnly = true)
+    public List<DisciplineStats> getStats(Long studentId) {
+        return statisticRepository.findByIdStudentId(studentId).stream()
+                .map(DisciplineStatisticService::toStats)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<DisciplineStats> getStats(Collection<Long> studentIds) {
+        return statisticRepository.findByIdStudentIdIn(studentIds).stream()
+                .map(DisciplineStatisticService::toStats)
+                .toList();
+    }
+
+    /**
+     * Per-discipline median, 90th percentile and average of the last
+     * {@code statistics.trailing-window} grades of a student.
+     */
+    @Transactional(readOnly = true)
+    public Map<Discipline, DisciplineQuantilesDto> getQuantiles(Long studentId) {
+        final DisciplineSummaries summaries = new DisciplineSummaries();
+        statisticRepository.findByIdStudentId(studentId).forEach(summaries::merge);
+        return summaries.quantiles();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long studentId, Discipline discipline, double value) {
+        final DisciplineStatisticId id = new DisciplineStatisticId(studentId, discipline);
+        final DisciplineStatistic statistic = statisticRepository.findForUpdate(id).orElseGet(() -> {
+            insertIfAbsent(List.of(id));
+            return statisticRepository.findForUpdate(id).orElseThrow();
+        });
+        statistic.add(List.of(value), window);
+    }
+
+    /**
+     * Records grades of any students in one pass, in the given order. The
+     * students of the grades must be set.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<Grade> grades) {
+        final Map<DisciplineStatisticId, List<Double>> values = new LinkedHashMap<>();
+        for (Grade grade : grades) {
+            values.computeIfAbsent(new DisciplineStatisticId(grade.getStudent().getId(), grade.getDiscipline()), id -> new ArrayList<>())
+                    .add(grade.getValue());
+        }
+        final Set<Long> studentIds = values.keySet().stream().map(DisciplineStatisticId::getStudentId).collect(Collectors.toSet());
+        final Map<DisciplineStatisticId, DisciplineStatistic> statistics = statisticRepository.findForUpdateByStudentIdIn(studentIds).stream()
+                .collect(Collectors.toMap(DisciplineStatistic::getId, Function.identity()));
+        final List<DisciplineStatisticId> missing = values.keySet().stream().filter(id -> !statistics.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            insertIfAbsent(missing);
+            final Set<Long> missingStudentIds = missing.stream().map(DisciplineStatisticId::getStudentId).collect(Collectors.toSet());
+            statisticRepository.findForUpdateByStudentIdIn(missingStudentIds).forEach(statistic -> statistics.put(statistic.getId(), statistic));
+        }
+        values.forEach((id, added) -> statistics.get(id).add(added, window));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void unrecord(Long studentId, Discipline discipline, double value) {
+        statisticRepository.findForUpdate(new DisciplineStatisticId(studentId, discipline)).ifPresent(statistic -> {
+            if (statistic.getCount() <= 1) {
+                statisticRepository.delete(statistic);
+                return;
+            }
+            final boolean bound = statistic.isBound(value);
+            final boolean recent = statistic.isRecent(value);
+            statistic.remove(value);
+            if (bound) {
+                final Optional<DisciplineStats> remaining = gradeRepository.findStats(studentId, discipline);
+                if (remaining.isEmpty()) {
+                    statisticRepository.delete(statistic);
+                    return;
+                }
+                statistic.reset(remaining.get().getCount(), remaining.get().getSum(), remaining.get().getMax(), remaining.get().getMin());
+            }
+            if (recent) {
+                final List<Double> newestFirst = new ArrayList<>(gradeRepository.findRecentValues(studentId, discipline, PageRequest.ofSize(window)));
+                Collections.reverse(newestFirst);
+                statistic.resetRecent(GradeWindow.of(newestFirst, window));
+            }
+        });
+    }
+
+    /**
+     * Compares the statistics of {@code studentIds} with their grades and
+     * returns how many differ, including histograms and last grades that are
+     * unknown. With {@code repair} the statistics are locked and rewritten from
+     * the grades, so grades recorded meanwhile wait and are added afterwards.
+     */
+    @Transactional
+    public int verify(Collection<Long> studentIds, boolean repair) {
+        final List<DisciplineStatistic> stored = repair
+                ? statisticRepository.findForUpdateByStudentIdIn(studentIds)
+                : statisticRepository.findByIdStudentIdIn(studentIds);
+        final Map<DisciplineStatisticId, DisciplineStatistic> actual = stored.stream()
+                .collect(Collectors.toMap(DisciplineStatistic::getId, Function.identity()));
+        final Map<DisciplineStatisticId, Expected> expected = new LinkedHashMap<>();
+        for (StudentGrade grade : gradeRepository.findGradesByStudentIdIn(studentIds)) {
+            if (grade.getId() != null) {
+                expected.computeIfAbsent(new DisciplineStatisticId(grade.getStudentId(), grade.getDiscipline()), id -> new Expected(window))
+                        .add(grade.getValue());
+            }
+        }
+        int drift = 0;
+        for (Map.Entry<DisciplineStatisticId, Expected> entry : expected.entrySet()) {
+            final DisciplineStatisticId id = entry.getKey();
+            final Expected grades = entry.getValue();
+            DisciplineStatistic statistic = actual.remove(id);
+            if (statistic != null && grades.matches(statistic)) {
+                continue;
+            }
+            drift++;
+            if (repair) {
+                if (statistic == null) {
+                    insertIfAbsent(List.of(id));
+                    statistic = statisticRepository.findForUpdate(id).orElseThrow();
+                }
+                grades.resetTo(statistic);
+            }
+        }
+        drift += actual.size();
+        if (repair) {
+            statisticRepository.deleteAll(actual.values());
+        }
+        return drift;
+    }
+
+    /**
+     * Inserts empty rows that do not exist yet. A transaction recording the
+     * first grade of the same student and discipline concurrently makes the
+     * insert wait for it and then do nothing, so the caller locks whichever
+     * row won instead of failing on the primary key.
+     */
+    private void insertIfAbsent(List<DisciplineStatisticId> ids) {
+        jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, ids, ids.size(), (statement, id) -> {
+            statement.setLong(1, id.getStudentId());
+            statement.setString(2, id.getDiscipline().name());
+            statement.setBytes(3, new byte[0]);
+            statement.setBytes(4, new byte[0]);
+        });
+    }
+
+    /**
+     * Statistics recomputed from grades read in id order.
+     */
+    private static final class Expected {
+
+        private final GradeHistogram histogram = new GradeHistogram();
+        private final GradeWindow recent;
+        private long count;
+        private double sum;
+        private double max;
+        private double min;
+
+        Expected(int window) {
+            this.recent = new GradeWindow(window);
+        }
+
+        void add(double value) {
+            max = count == 0 ? value : Math.max(max, value);
+            min = count == 0 ? value : Math.min(min, value);
+            sum += value;
+            count++;
+            histogram.add(value);
+            recent.add(value);
+        }
+
+        boolean matches(DisciplineStatistic statistic) {
+            return statistic.getCount() == count
+                    && statistic.getMax() == max
+                    && statistic.getMin() == min
+                    && Math.abs(statistic.getSum() - sum) < SUM_TOLERANCE
+                    && statistic.getHistogram().filter(histogram::equals).isPresent()
+                    && statistic.getRecentGrades().filter(stored -> Arrays.equals(stored.toBytes(), recent.toBytes())).isPresent();
+        }
+
+        void resetTo(DisciplineStatistic statistic) {
+            statistic.reset(count, sum, max, min);
+            statistic.reset(histogram);
+            statistic.resetRecent(recent);
+        }
+    }
+
+    private static DisciplineStats toStats(DisciplineStatistic statistic) {
+        return new DisciplineStats(statistic.getId().getStudentId(),
+                                   statistic.getId().getDiscipline(),
+                                   statistic.getCount(),
+                                   statistic.getSum(),
+                                   statistic.getMax(),
+                                   statistic.getMin());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.DisciplineStatistic;
+import com.example.junit.domain.GradeHistogram;
+import com.example.junit.web.dto.DisciplineQuantilesDto;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Merges the histograms and last grades of any number of students per
+ * discipline, without reading their grades. The trailing average of several
+ * students is the average of all their last grades. A quantile or trailing
+ * average is left out when one of the merged rows does not know it yet.
+ */
+final class DisciplineSummaries {
+
+    private static final Discipline[] DISCIPLINES = Discipline.values();
+
+    private final long[] counts = new long[DISCIPLINES.length];
+    private final GradeHistogram[] histograms = new GradeHistogram[DISCIPLINES.length];
+    private final boolean[] histogramUnknown = new boolean[DISCIPLINES.length];
+    private final double[] recentSums = new double[DISCIPLINES.length];
+    private final long[] recentCounts = new long[DISCIPLINES.length];
+    private final boolean[] recentUnknown = new boolean[DISCIPLINES.length];
+
+    void merge(DisciplineStatistic statistic) {
+        final int i = statistic.getId().getDiscipline().ordinal();
+        counts[i] += statistic.getCount();
+        statistic.getHistogram().ifPresentOrElse(histogram -> {
+            if (histograms[i] == null) {
+                histograms[i] = histogram;
+            } else {
+                histograms[i].merge(histogram);
+            }
+        }, () -> histogramUnknown[i] = true);
+        statistic.getRecentGrades().ifPresentOrElse(recent -> {
+            recentSums[i] += recent.sum();
+            recentCounts[i] += recent.size();
+        }, () -> recentUnknown[i] = true);
+    }
+
+    Map<Discipline, DisciplineQuantilesDto> quantiles() {
+        final EnumMap<Discipline, DisciplineQuantilesDto> result = new EnumMap<>(Discipline.class);
+        for (Discipline discipline : DISCIPLINES) {
+            final int i = discipline.ordinal();
+            if (counts[i] == 0) {
+                continue;
+            }
+            final GradeHistogram histogram = histogramUnknown[i] || histograms[i] == null || histograms[i].isEmpty() ? null : histograms[i];
+            result.put(discipline, new DisciplineQuantilesDto(
+                    counts[i],
+                    histogram == null ? null : histogram.quantile(0.5),
+                    histogram == null ? null : histogram.quantile(0.9),
+                    recentUnknown[i] || recentCounts[i] == 0 ? null : recentSums[i] / recentCounts[i]));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
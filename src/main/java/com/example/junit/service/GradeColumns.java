@@ -0,0 +1,253 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable column store of all grades, sorted by student id. Students are one
+ * row each in the student id, group and offset columns; the grades of student
+ * {@code i} are rows {@code offsets[i]} to {@code offsets[i + 1]} of the
+ * discipline ordinal and value columns. Groups are dictionary encoded. The
+ * columns are NIO buffers, on the heap or off it.
+ */
+public final class GradeColumns {
+
+    private static final Discipline[] DISCIPLINES = Discipline.values();
+
+    private final int students;
+    private final int grades;
+    private final LongBuffer studentIds;
+    private final IntBuffer groupCodes;
+    private final IntBuffer offsets;
+    private final ByteBuffer disciplines;
+    private final DoubleBuffer values;
+    private final String[] groups;
+    private final Map<String, Integer> groupIndex;
+    private final long sizeInBytes;
+
+    private GradeColumns(Builder builder) {
+        this.students = builder.students;
+        this.grades = builder.grades;
+        this.studentIds = builder.studentIds.asReadOnlyBuffer();
+        this.groupCodes = builder.groupCodes.asReadOnlyBuffer();
+        this.offsets = builder.offsets.asReadOnlyBuffer();
+        this.disciplines = builder.disciplines.asReadOnlyBuffer();
+        this.values = builder.values.asReadOnlyBuffer();
+        this.groups = builder.groups.toArray(String[]::new);
+        this.groupIndex = Map.copyOf(builder.groupIndex);
+        this.sizeInBytes = (long) students * (Long.BYTES + Integer.BYTES + Integer.BYTES)
+                + Integer.BYTES
+                + (long) grades * (Byte.BYTES + Double.BYTES);
+    }
+
+    public static Builder builder(int expectedStudents, int expectedGrades, boolean offHeap) {
+        return new Builder(expectedStudents, expectedGrades, offHeap);
+    }
+
+    public int students() {
+        return students;
+    }
+
+    public int grades() {
+        return grades;
+    }
+
+    /**
+     * Bytes held by the columns, excluding the group dictionary.
+     */
+    public long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public boolean contains(long studentId) {
+        return indexOf(studentId) >= 0;
+    }
+
+    public String group(long studentId) {
+        final int index = indexOf(studentId);
+        return index < 0 ? null : groups[groupCodes.get(index)];
+    }
+
+    /**
+     * Adds the grades of a student to {@code aggregator}; a student without
+     * grades adds nothing.
+     */
+    public void aggregate(long studentId, DisciplineAggregator aggregator) {
+        final int index = indexOf(studentId);
+        if (index >= 0) {
+            aggregateRows(index, aggregator);
+        }
+    }
+
+    /**
+     * Per-discipline aggregates of every student in {@code group} that has
+     * grades, keyed by student id.
+     */
+    public Map<Long, DisciplineAggregator> aggregateGroup(String group) {
+        final Map<Long, DisciplineAggregator> result = new HashMap<>();
+        final Integer groupCode = groupIndex.get(groupKey(group));
+        if (groupCode == null) {
+            return result;
+        }
+        final int code = groupCode;
+        for (int i = 0; i < students; i++) {
+            if (groupCodes.get(i) == code) {
+                final DisciplineAggregator aggregator = new DisciplineAggregator();
+                aggregateRows(i, aggregator);
+                result.put(studentIds.get(i), aggregator);
+            }
+        }
+        return result;
+    }
+
+    private void aggregateRows(int index, DisciplineAggregator aggregator) {
+        final int end = offsets.get(index + 1);
+        for (int row = offsets.get(index); row < end; row++) {
+            aggregator.add(DISCIPLINES[disciplines.get(row)], values.get(row));
+        }
+    }
+
+    private int indexOf(long studentId) {
+        int low = 0;
+        int high = students - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final long id = studentIds.get(mid);
+            if (id < studentId) {
+                low = mid + 1;
+            } else if (id > studentId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static String groupKey(String group) {
+        return group == null ? "" : "=" + group;
+    }
+
+    /**
+     * Appends grades, which must arrive ordered by student id. Columns double
+     * when the expected sizes were too low and are trimmed to size on build.
+     */
+    public static final class Builder {
+
+        private final boolean offHeap;
+        private final List<String> groups = new ArrayList<>();
+        private final Map<String, Integer> groupIndex = new HashMap<>();
+        private LongBuffer studentIds;
+        private IntBuffer groupCodes;
+        private IntBuffer offsets;
+        private ByteBuffer disciplines;
+        private DoubleBuffer values;
+        private int students;
+        private int grades;
+        private boolean built;
+
+        private Builder(int expectedStudents, int expectedGrades, boolean offHeap) {
+            this.offHeap = offHeap;
+            final int studentCapacity = Math.max(expectedStudents, 16);
+            final int gradeCapacity = Math.max(expectedGrades, 16);
+            this.studentIds = longs(null, 0, studentCapacity);
+            this.groupCodes = ints(null, 0, studentCapacity);
+            this.offsets = ints(null, 0, studentCapacity + 1);
+            this.disciplines = bytes(null, 0, gradeCapacity);
+            this.values = doubles(null, 0, gradeCapacity);
+        }
+
+        public Builder add(long studentId, String group, Discipline discipline, double value) {
+            if (built) {
+                throw new IllegalStateException("Already built");
+            }
+            if (students == 0 || studentIds.get(students - 1) != studentId) {
+                if (students > 0 && studentIds.get(students - 1) > studentId) {
+                    throw new IllegalArgumentException("Grades must be ordered by student id");
+                }
+                if (students == studentIds.capacity()) {
+                    studentIds = longs(studentIds, students, students * 2);
+                    groupCodes = ints(groupCodes, students, students * 2);
+                    offsets = ints(offsets, students, students * 2 + 1);
+                }
+                studentIds.put(students, studentId);
+                groupCodes.put(students, groupIndex.computeIfAbsent(groupKey(group), key -> {
+                    groups.add(group);
+                    return groups.size() - 1;
+                }));
+                offsets.put(students, grades);
+                students++;
+            }
+            if (grades == values.capacity()) {
+                disciplines = bytes(disciplines, grades, grades * 2);
+                values = doubles(values, grades, grades * 2);
+            }
+            disciplines.put(grades, (byte) discipline.ordinal());
+            values.put(grades, value);
+            grades++;
+            return this;
+        }
+
+        public GradeColumns build() {
+            if (built) {
+                throw new IllegalStateException("Already built");
+            }
+            built = true;
+            if (studentIds.capacity() > students) {
+                studentIds = longs(studentIds, students, students);
+                groupCodes = ints(groupCodes, students, students);
+            }
+            if (offsets.capacity() > students + 1) {
+                offsets = ints(offsets, students, students + 1);
+            }
+            offsets.put(students, grades);
+            if (values.capacity() > grades) {
+                disciplines = bytes(disciplines, grades, grades);
+                values = doubles(values, grades, grades);
+            }
+            return new GradeColumns(this);
+        }
+
+        private ByteBuffer bytes(ByteBuffer from, int length, int capacity) {
+            final ByteBuffer to = offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+            to.order(ByteOrder.nativeOrder());
+            if (from != null) {
+                to.put(0, from, 0, length);
+            }
+            return to;
+        }
+
+        private LongBuffer longs(LongBuffer from, int length, int capacity) {
+            final LongBuffer to = bytes(null, 0, capacity * Long.BYTES).asLongBuffer();
+            if (from != null) {
+                to.put(0, from, 0, length);
+            }
+            return to;
+        }
+
+        private IntBuffer ints(IntBuffer from, int length, int capacity) {
+            final IntBuffer to = bytes(null, 0, capacity * Integer.BYTES).asIntBuffer();
+            if (from != null) {
+                to.put(0, from, 0, length);
+            }
+            return to;
+        }
+
+        private DoubleBuffer doubles(DoubleBuffer from, int length, int capacity) {
+            final DoubleBuffer to = bytes(null, 0, capacity * Double.BYTES).asDoubleBuffer();
+            if (from != null) {
+                to.put(0, from, 0, length);
+            }
+            return to;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.GradeEventType;
+import com.example.junit.web.dto.GradeEventDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reads numbered {@code grade_event} rows in sequence order. Sequences are
+ * handed out by {@link GradeEventRelay} only to committed rows, one batch per
+ * transaction, so whatever a reader sees after a sequence is a prefix of the
+ * rest of the feed and a consumer resuming from the last sequence it saw gets
+ * every event exactly once.
+ */
+@Component
+public class GradeEventFeed {
+
+    private static final String READ_SQL = """
+            select sequence, type, student_id, grade_id, first_name, last_name, group_number, value, discipline, created_at
+            from grade_event
+            where sequence > ?
+            order by sequence
+            limit ?
+            """;
+    private static final String PURGED_THROUGH_SQL = "select purged_through from grade_event_relay where id = 1";
+    private static final RowMapper<GradeEventDto> ROW_MAPPER = (rs, row) -> new GradeEventDto(
+            rs.getLong("sequence"),
+            GradeEventType.valueOf(rs.getString("type")),
+            rs.getLong("student_id"),
+            rs.getObject("grade_id", Long.class),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("group_number"),
+            rs.getObject("value", Double.class),
+            rs.getString("discipline") == null ? null : Discipline.valueOf(rs.getString("discipline")),
+            rs.getObject("created_at", OffsetDateTime.class).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long pollIntervalNanos;
+    private final Lock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private long lastPublished;
+
+    public GradeEventFeed(@Value("${grades.events.poll-interval:1000}") long pollInterval,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager) {
+        this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollInterval);
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public List<GradeEventDto> read(long after, int limit) {
+        return readOnlyTransaction.execute(status -> jdbcTemplate.query(READ_SQL, ROW_MAPPER, after, limit));
+    }
+
+    /**
+     * The highest sequence deleted by retention. A consumer behind it has
+     * missed events and must re-read the full state.
+     */
+    public long purgedThrough() {
+        return readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(PURGED_THROUGH_SQL, Long.class));
+    }
+
+    /**
+     * Waits until this instance's relay numbers an event after {@code after},
+     * at most {@code timeout} and at most one poll interval, after which the
+     * caller reads again to pick up events numbered by other instances.
+     */
+    public void await(long after, Duration timeout) throws InterruptedException {
+        long remaining = Math.min(timeout.toNanos(), pollIntervalNanos);
+        lock.lock();
+        try {
+            while (lastPublished <= after && remaining > 0) {
+                remaining = published.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void published(long sequence) {
+        lock.lock();
+        try {
+            if (sequence > lastPublished) {
+                lastPublished = sequence;
+                published.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
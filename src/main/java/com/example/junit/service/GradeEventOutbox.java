@@ -0,0 +1,86 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.GradeEventType;
+import com.example.junit.domain.Student;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes {@code grade_event} rows in the caller's transaction, so an event
+ * exists exactly when its change was committed. Entities must have their ids.
+ * <p>
+ * The id is taken from {@code grade_event_seq} by the insert itself, one at a
+ * time: an event written after another one was committed has a higher id,
+ * whichever instance wrote them, and {@link GradeEventRelay} numbers the
+ * events of a batch by id. The inserts of a change are sent as one batch.
+ */
+@Component
+public class GradeEventOutbox {
+
+    private static final String INSERT_SQL = """
+            insert into grade_event (id, type, student_id, grade_id, first_name, last_name, group_number, value, discipline, created_at)
+            values (nextval('grade_event_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final int[] INSERT_TYPES = {Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR,
+                                               Types.VARCHAR, Types.DOUBLE, Types.VARCHAR, Types.TIMESTAMP_WITH_TIMEZONE};
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+
+    public GradeEventOutbox(@Value("${grades.events.enabled:true}") boolean enabled,
+                            JdbcTemplate jdbcTemplate) {
+        this.enabled = enabled;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void studentsCreated(Collection<Student> students) {
+        if (enabled) {
+            insert(students.stream().map(student -> row(GradeEventType.STUDENT_CREATED, student.getId(), null,
+                                                        student.getFirstName(), student.getLastName(), student.getGroup(),
+                                                        null, null)).toList());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void gradesAdded(Collection<Grade> grades) {
+        if (enabled) {
+            insert(grades.stream().map(grade -> ofGrade(GradeEventType.GRADE_ADDED, grade.getStudent().getId(), grade)).toList());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void gradeRemoved(Long studentId, Grade grade) {
+        if (enabled) {
+            insert(Collections.singletonList(ofGrade(GradeEventType.GRADE_REMOVED, studentId, grade)));
+        }
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES);
+        }
+    }
+
+    private static Object[] ofGrade(GradeEventType type, Long studentId, Grade grade) {
+        return row(type, studentId, grade.getId(), null, null, null, grade.getValue(), grade.getDiscipline());
+    }
+
+    private static Object[] row(GradeEventType type, Long studentId, Long gradeId, String firstName, String lastName,
+                                String group, Double value, Discipline discipline) {
+        return new Object[]{type.name(), studentId, gradeId, firstName, lastName, group, value,
+                            discipline == null ? null : discipline.name(), OffsetDateTime.now(ZoneOffset.UTC)};
+    }
+}
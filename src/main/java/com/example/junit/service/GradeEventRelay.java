@@ -0,0 +1,177 @@
+package com.example.junit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Numbers committed {@code grade_event} rows for the feed and deletes old
+ * ones. Every step locks the single {@code grade_event_relay} row, so one
+ * instance at a time hands out sequences: each batch gets the next gap-free
+ * range in one transaction, and a row committed after a batch was read gets
+ * a higher sequence than every row in it. Within a batch rows are numbered
+ * by id; {@code grade_event_seq} is not pooled, so a change made after
+ * another one was committed, on any instance, has the higher id.
+ * <p>
+ * Retention deletes numbered events older than {@code grades.events.retention}
+ * as a prefix of the feed and records the highest deleted sequence. Compaction
+ * deletes, after {@code grades.events.compact-after}, added events of grades
+ * that were removed since; the removal stays, so a consumer reading past the
+ * compacted range may see removals of grades it never saw added.
+ */
+@Slf4j
+@Component
+public class GradeEventRelay {
+
+    private static final String LOCK_SQL = "select last_sequence, purged_through from grade_event_relay where id = 1 for update";
+    private static final String UNSEQUENCED_SQL = "select id from grade_event where sequence is null order by id limit ?";
+    private static final String ASSIGN_SQL = "update grade_event set sequence = ? where id = ?";
+    private static final String ADVANCE_SQL = "update grade_event_relay set last_sequence = ? where id = 1";
+    private static final String PURGE_THROUGH_SQL = "select max(sequence) from grade_event where sequence is not null and created_at < ?";
+    private static final String PURGE_SQL = "delete from grade_event where sequence > ? and sequence <= ?";
+    private static final String PURGED_SQL = "update grade_event_relay set purged_through = ? where id = 1";
+    private static final String COMPACT_SQL = """
+            delete from grade_event
+            where type = 'GRADE_ADDED' and sequence is not null and created_at < ?
+              and grade_id in (select grade_id from grade_event where type = 'GRADE_REMOVED' and sequence is not null)
+            """;
+    private static final int PURGE_CHUNK = 10000;
+
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration compactAfter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GradeEventFeed feed;
+
+    public GradeEventRelay(@Value("${grades.events.relay-batch-size:1000}") int batchSize,
+                           @Value("${grades.events.retention:7d}") Duration retention,
+                           @Value("${grades.events.compact-after:1h}") Duration compactAfter,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           GradeEventFeed feed) {
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.compactAfter = compactAfter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.feed = feed;
+    }
+
+    @Scheduled(fixedDelayString = "${grades.events.relay-interval:200}")
+    public void scheduledRelay() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.error("Grade events could not be relayed, retrying on the next run", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${grades.events.cleanup-interval:60000}")
+    public void scheduledCleanup() {
+        try {
+            final Instant now = Instant.now();
+            final long purged = purge(now.minus(retention));
+            final int compacted = compact(now.minus(compactAfter));
+            if (purged > 0 || compacted > 0) {
+                log.info("Deleted {} grade events past retention and {} compacted grade events", purged, compacted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Grade events could not be cleaned up, retrying on the next run", e);
+        }
+    }
+
+    /**
+     * Numbers every committed event that has no sequence yet and returns how
+     * many were numbered.
+     */
+    public int relay() {
+        int relayed = 0;
+        Batch batch;
+        do {
+            batch = Objects.requireNonNull(transactionTemplate.execute(status -> relayBatch()));
+            relayed += batch.events();
+            if (batch.events() > 0) {
+                feed.published(batch.lastSequence());
+            }
+        } while (batch.events() == batchSize);
+        return relayed;
+    }
+
+    private Batch relayBatch() {
+        final long last = lock().lastSequence();
+        final List<Long> ids = jdbcTemplate.queryForList(UNSEQUENCED_SQL, Long.class, batchSize);
+        if (ids.isEmpty()) {
+            return new Batch(0, last);
+        }
+        jdbcTemplate.batchUpdate(ASSIGN_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setLong(1, last + i + 1);
+                statement.setLong(2, ids.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+        jdbcTemplate.update(ADVANCE_SQL, last + ids.size());
+        return new Batch(ids.size(), last + ids.size());
+    }
+
+    long purge(Instant cutoff) {
+        final Long through = jdbcTemplate.queryForObject(PURGE_THROUGH_SQL, Long.class, utc(cutoff));
+        if (through == null) {
+            return 0;
+        }
+        long purged = 0;
+        Long deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                final long from = lock().purgedThrough();
+                if (from >= through) {
+                    return null;
+                }
+                final long to = Math.min(from + PURGE_CHUNK, through);
+                final long rows = jdbcTemplate.update(PURGE_SQL, from, to);
+                jdbcTemplate.update(PURGED_SQL, to);
+                return rows;
+            });
+            purged += deleted == null ? 0 : deleted;
+        } while (deleted != null);
+        return purged;
+    }
+
+    int compact(Instant cutoff) {
+        return jdbcTemplate.update(COMPACT_SQL, utc(cutoff));
+    }
+
+    private RelayState lock() {
+        return jdbcTemplate.queryForObject(LOCK_SQL, (rs, row) -> new RelayState(rs.getLong(1), rs.getLong(2)));
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private record RelayState(long lastSequence, long purgedThrough) {
+    }
+
+    private record Batch(int events, long lastSequence) {
+    }
+}
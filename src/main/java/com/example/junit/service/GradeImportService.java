@@ -0,0 +1,138 @@
+package com.example.junit.service;
+
+import com.example.junit.datasource.ReplicaRouting;
+import com.example.junit.domain.Grade;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.StudentRepository;
+import com.example.junit.web.dto.GradeImportResult;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.RowError;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(value = "app.service", histogram = true)
+@RequiredArgsConstructor
+public class GradeImportService {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final StudentRepository studentRepository;
+    private final GradeRepository gradeRepository;
+    private final DisciplineStatisticService statisticService;
+    private final StudentGradeCache gradeCache;
+    private final ColumnarGradeStore gradeStore;
+    private final ReplicaRouting replicaRouting;
+    private final GradeEventOutbox eventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public GradeImportResult importGrades(Iterator<GradeRequest> requests) {
+        final GradeImportResult result = new GradeImportResult();
+        final List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        long number = 0;
+        while (requests.hasNext()) {
+            number++;
+            try {
+                chunk.add(new Row(number, requests.next()));
+            } catch (IllegalArgumentException e) {
+                reject(result, new RowError(number, e.getMessage()));
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+        return result;
+    }
+
+    private void importChunk(List<Row> chunk, GradeImportResult result) {
+        final List<RowError> errors = new ArrayList<>();
+        try {
+            final Integer imported = transactionTemplate.execute(status -> insertChunk(chunk, errors));
+            result.setImported(result.getImported() + Objects.requireNonNull(imported));
+            errors.forEach(error -> reject(result, error));
+        } catch (RuntimeException e) {
+            final String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            chunk.forEach(row -> reject(result, new RowError(row.number(), message)));
+        }
+    }
+
+    private int insertChunk(List<Row> chunk, List<RowError> errors) {
+        final Set<Long> requestedIds = chunk.stream()
+                .map(row -> row.request().getStudentId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        final Set<Long> existingIds = new HashSet<>(studentRepository.findExistingIds(requestedIds));
+        final List<Grade> grades = new ArrayList<>(chunk.size());
+        final Set<Long> studentIds = new HashSet<>();
+        for (Row row : chunk) {
+            final GradeRequest request = row.request();
+            final String error = validate(request, existingIds);
+            if (error != null) {
+                errors.add(new RowError(row.number(), error));
+                continue;
+            }
+            final Grade grade = new Grade(request.getValue(), request.getDiscipline());
+            grade.setStudent(studentRepository.getReferenceById(request.getStudentId()));
+            grades.add(grade);
+            studentIds.add(request.getStudentId());
+        }
+        gradeRepository.saveAll(grades);
+        eventOutbox.gradesAdded(grades);
+        statisticService.recordAll(grades);
+        studentIds.forEach(studentId -> {
+            replicaRouting.written(studentId);
+            gradeCache.evictAfterCommit(studentId);
+            gradeStore.invalidateAfterCommit(studentId);
+        });
+        entityManager.flush();
+        entityManager.clear();
+        return grades.size();
+    }
+
+    private static String validate(GradeRequest request, Set<Long> existingIds) {
+        if (request.getStudentId() == null) {
+            return "Student id is required";
+        }
+        if (!existingIds.contains(request.getStudentId())) {
+            return "Student not found";
+        }
+        if (request.getValue() == null) {
+            return "Value is required";
+        }
+        if (request.getValue() < Grade.MIN_VALUE || request.getValue() > Grade.MAX_VALUE) {
+            return "Value must be between 1 and 10";
+        }
+        if (request.getDiscipline() == null) {
+            return "Discipline is required";
+        }
+        return null;
+    }
+
+    private static void reject(GradeImportResult result, RowError error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(error);
+        }
+    }
+
+    private record Row(long number, GradeRequest request) {
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.junit.service;
+
+import com.example.junit.datasource.ReplicaRouting;
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.PendingGrade;
+import com.example.junit.domain.PendingGradeStatus;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.PendingGradeRepository;
+import com.example.junit.repository.StudentRepository;
+import com.example.junit.service.mapper.Mapper;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.PendingGradeDto;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous grade ingestion. An accepted grade is committed to the
+ * pending_grade table before it is acknowledged, then queued on the partition
+ * of its student. One worker per partition applies queued grades in multi-row
+ * transactions, so all writes for a student go through a single worker and
+ * never wait on each other's row locks. Grades still pending after a restart
+ * are queued again on startup. Every instance recovers all pending grades, so
+ * a worker claims the rows with {@code select ... for update skip locked}
+ * before applying them. Grades a worker could neither apply nor reject are
+ * queued again every {@code grades.ingest.requeue-interval} milliseconds.
+ */
+@Slf4j
+@Service
+@Timed(value = "app.service", histogram = true)
+@ConditionalOnProperty(name = "grades.ingest.enabled", havingValue = "true")
+public class GradeIngestService {
+
+    private static final int RECOVERY_PAGE_SIZE = 1000;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 500;
+
+    private final StudentRepository studentRepository;
+    private final GradeRepository gradeRepository;
+    private final PendingGradeRepository pendingGradeRepository;
+    private final DisciplineStatisticService statisticService;
+    private final StudentGradeCache gradeCache;
+    private final ColumnarGradeStore gradeStore;
+    private final ReplicaRouting replicaRouting;
+    private final GradeEventOutbox eventOutbox;
+    private final Mapper<PendingGrade, PendingGradeDto> pendingGradeDtoMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final List<Partition> partitions;
+    private final Queue<PendingGrade> stranded = new ConcurrentLinkedQueue<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public GradeIngestService(StudentRepository studentRepository,
+                              GradeRepository gradeRepository,
+                              PendingGradeRepository pendingGradeRepository,
+                              DisciplineStatisticService statisticService,
+                              StudentGradeCache gradeCache,
+                              ColumnarGradeStore gradeStore,
+                              ReplicaRouting replicaRouting,
+                              GradeEventOutbox eventOutbox,
+                              Mapper<PendingGrade, PendingGradeDto> pendingGradeDtoMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${grades.ingest.partitions:4}") int partitions,
+                              @Value("${grades.ingest.capacity:10000}") int capacity,
+                              @Value("${grades.ingest.batch-size:500}") int batchSize) {
+        this.studentRepository = studentRepository;
+        this.gradeRepository = gradeRepository;
+        this.pendingGradeRepository = pendingGradeRepository;
+        this.statisticService = statisticService;
+        this.gradeCache = gradeCache;
+        this.gradeStore = gradeStore;
+        this.replicaRouting = replicaRouting;
+        this.eventOutbox = eventOutbox;
+        this.pendingGradeDtoMapper = pendingGradeDtoMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.partitions = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            final Partition partition = new Partition(capacity);
+            Gauge.builder("grades.ingest.queue.size", partition.queue, Collection::size)
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+            this.partitions.add(partition);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        running = true;
+        for (int i = 0; i < partitions.size(); i++) {
+            final Partition partition = partitions.get(i);
+            threads.add(Thread.ofPlatform().name("grade-ingest-" + i).start(() -> work(partition)));
+        }
+        threads.add(Thread.ofPlatform().name("grade-ingest-recovery").start(this::recover));
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        threads.clear();
+    }
+
+    /**
+     * Queues again the grades a worker gave up on, as far as their partitions
+     * have room; the others wait for the next run.
+     */
+    @Scheduled(fixedDelayString = "${grades.ingest.requeue-interval:5000}")
+    public void requeue() {
+        for (int i = stranded.size(); i > 0 && running; i--) {
+            final PendingGrade pending = stranded.poll();
+            final Partition partition = partitionOf(pending.getStudentId());
+            if (partition.permits.tryAcquire()) {
+                partition.queue.add(pending);
+            } else {
+                stranded.add(pending);
+            }
+        }
+    }
+
+    /**
+     * Durably records the grade and queues it for the workers. Returns empty
+     * when the partition of the student is full.
+     */
+    public Optional<PendingGradeDto> accept(GradeRequest request) {
+        final String error = validate(request);
+        if (error != null) {
+            throw new RuntimeException(error);
+        }
+        if (!replicaRouting.readOwnWrites(request.getStudentId(), () -> studentRepository.existsById(request.getStudentId()))) {
+            throw new RuntimeException("Student not found");
+        }
+        final Partition partition = partitionOf(request.getStudentId());
+        if (!partition.permits.tryAcquire()) {
+            return Optional.empty();
+        }
+        final PendingGrade pending;
+        try {
+            pending = pendingGradeRepository.save(new PendingGrade(request.getStudentId(), request.getValue(), request.getDiscipline()));
+        } catch (RuntimeException e) {
+            partition.permits.release();
+            throw e;
+        }
+        partition.queue.add(pending);
+        return Optional.of(pendingGradeDtoMapper.map(pending));
+    }
+
+    /**
+     * Whether {@code request} can be accepted once its student exists, so the
+     * caller can answer {@code 400} before anything is written.
+     */
+    public static boolean isValid(GradeRequest request) {
+        return validate(request) == null;
+    }
+
+    public PendingGradeDto getStatus(Long id) {
+        return ReplicaRouting.onPrimary(() -> pendingGradeRepository.findById(id))
+                .map(pendingGradeDtoMapper::map)
+                .orElseThrow(() -> new RuntimeException("Pending grade not found"));
+    }
+
+    private static String validate(GradeRequest request) {
+        if (request.getValue() == null) {
+            return "Value is required";
+        }
+        if (request.getValue() < Grade.MIN_VALUE || request.getValue() > Grade.MAX_VALUE) {
+            return "Value must be between 1 and 10";
+        }
+        if (request.getDiscipline() == null) {
+            return "Discipline is required";
+        }
+        return null;
+    }
+
+    private Partition partitionOf(Long studentId) {
+        return partitions.get(Math.floorMod(Long.hashCode(studentId), partitions.size()));
+    }
+
+    private void recover() {
+        long after = 0L;
+        List<PendingGrade> page;
+        try {
+            do {
+                page = pendingGradeRepository.findByStatusAndIdGreaterThanOrderById(PendingGradeStatus.PENDING, after, PageRequest.ofSize(RECOVERY_PAGE_SIZE));
+                for (PendingGrade pending : page) {
+                    final Partition partition = partitionOf(pending.getStudentId());
+                    partition.permits.acquire();
+                    partition.queue.add(pending);
+                    after = pending.getId();
+                }
+            } while (page.size() == RECOVERY_PAGE_SIZE && running);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work(Partition partition) {
+        final List<PendingGrade> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                final PendingGrade first = partition.queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                partition.queue.drainTo(batch, batchSize - 1);
+                try {
+                    apply(batch);
+                } catch (RuntimeException e) {
+                    log.error("Pending grades {} could not be applied, they are queued again later",
+                              batch.stream().map(PendingGrade::getId).toList(), e);
+                    stranded.addAll(batch);
+                } finally {
+                    partition.permits.release(batch.size());
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void apply(List<PendingGrade> batch) throws InterruptedException {
+        RuntimeException failure = tryApply(batch);
+        if (failure == null) {
+            return;
+        }
+        if (batch.size() > 1) {
+            for (PendingGrade pending : batch) {
+                apply(List.of(pending));
+            }
+            return;
+        }
+        for (int attempt = 1; attempt < MAX_ATTEMPTS && failure != null; attempt++) {
+            Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+            failure = tryApply(batch);
+        }
+        if (failure != null) {
+            reject(batch.get(0), NestedExceptionUtils.getMostSpecificCause(failure).getMessage());
+        }
+    }
+
+    private RuntimeException tryApply(List<PendingGrade> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyBatch(batch));
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private void applyBatch(List<PendingGrade> batch) {
+        // a grade queued twice, by accept and by the recovery of this or another instance,
+        // is claimed by one transaction only: the row lock is held until it is marked applied
+        final List<PendingGrade> rows = pendingGradeRepository.claimPending(batch.stream().map(PendingGrade::getId).toList());
+        final Set<Long> existingIds = new HashSet<>(studentRepository.findExistingIds(rows.stream()
+                .map(PendingGrade::getStudentId)
+                .collect(Collectors.toSet())));
+        final List<PendingGrade> applied = new ArrayList<>(rows.size());
+        final List<Grade> grades = new ArrayList<>(rows.size());
+        final Set<Long> studentIds = new HashSet<>();
+        for (PendingGrade row : rows) {
+            if (!existingIds.contains(row.getStudentId())) {
+                row.rejected("Student not found");
+                continue;
+            }
+            final Grade grade = new Grade(row.getValue(), row.getDiscipline());
+            grade.setStudent(studentRepository.getReferenceById(row.getStudentId()));
+            applied.add(row);
+            grades.add(grade);
+            studentIds.add(row.getStudentId());
+        }
+        gradeRepository.saveAll(grades);
+        eventOutbox.gradesAdded(grades);
+        for (int i = 0; i < applied.size(); i++) {
+            applied.get(i).applied(grades.get(i).getId());
+        }
+        statisticService.recordAll(grades);
+        studentIds.forEach(studentId -> {
+            replicaRouting.written(studentId);
+            gradeCache.evictAfterCommit(studentId);
+            gradeStore.invalidateAfterCommit(studentId);
+        });
+    }
+
+    private void reject(PendingGrade pending, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> pendingGradeRepository.claimPending(List.of(pending.getId()))
+                    .forEach(row -> row.rejected(error)));
+        } catch (RuntimeException e) {
+            log.error("Pending grade {} could not be applied or rejected, it is queued again later", pending.getId(), e);
+            stranded.add(pending);
+        }
+    }
+
+    private static final class Partition {
+
+        private final BlockingQueue<PendingGrade> queue = new LinkedBlockingQueue<>();
+        private final Semaphore permits;
+
+        private Partition(int capacity) {
+            this.permits = new Semaphore(capacity);
+        }
+    }
+}
@@ -1,67 +1,227 @@
 package com.example.junit.service;
 
+import com.example.junit.datasource.ReplicaRouting;
 import com.example.junit.domain.Discipline;
 import com.example.junit.domain.Grade;
 import com.example.junit.domain.Student;
+import com.example.junit.metrics.GradeMetrics;
+import com.example.junit.repository.DisciplineStats;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.StudentGrade;
 import com.example.junit.repository.StudentRepository;
 import com.example.junit.service.mapper.Mapper;
+import com.example.junit.web.dto.DisciplineQuantilesDto;
 import com.example.junit.web.dto.GradeDto;
 import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentGradesResult;
+import com.example.junit.web.dto.StudentStatistic;
+import com.example.junit.web.dto.StudentStatisticsDto;
+import com.example.junit.web.dto.StudentStatisticsResult;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @RequiredArgsConstructor
 public class GradeService {
 
-    private static final double PROMOTE_THRESHOLD = 4.5;
-
     private final StudentRepository studentRepository;
+    private final GradeRepository gradeRepository;
+    private final DisciplineStatisticService statisticService;
+    private final StudentGradeCache gradeCache;
+    private final ColumnarGradeStore gradeStore;
     private final Mapper<Grade, GradeDto> gradeDtoMapper;
+    private final GradeMetrics gradeMetrics;
+    private final ReplicaRouting replicaRouting;
+    private final GradeEventOutbox eventOutbox;
+    private final PromotionRules promotionRules;
 
     @Transactional
     public GradeDto add(GradeRequest request) {
         final Student student = studentRepository.findById(request.getStudentId()).orElseThrow(() -> new RuntimeException("Student not found"));
         Grade grade = new Grade(request.getValue(), request.getDiscipline());
+        replicaRouting.written(request.getStudentId());
         student.addGrade(grade);
         studentRepository.flush();
+        eventOutbox.gradesAdded(List.of(grade));
+        statisticService.record(request.getStudentId(), grade.getDiscipline(), grade.getValue());
+        gradeCache.evictAfterCommit(request.getStudentId());
+        gradeStore.addAfterCommit(request.getStudentId(), student.getGroup(), grade.getDiscipline(), grade.getValue());
         return gradeDtoMapper.map(grade);
     }
 
+    @Transactional
+    public void remove(Long studentId, Long gradeId) {
+        // Not through student.getGrades(): that would load every grade of the student to remove one.
+        final Grade grade = gradeRepository.findById(gradeId)
+                .filter(g -> g.getStudent() != null && studentId.equals(g.getStudent().getId()))
+                .orElseThrow(() -> new RuntimeException("Grade not found"));
+        replicaRouting.written(studentId);
+        gradeRepository.delete(grade);
+        eventOutbox.gradeRemoved(studentId, grade);
+        statisticService.unrecord(studentId, grade.getDiscipline(), grade.getValue());
+        gradeCache.evictAfterCommit(studentId);
+        gradeStore.invalidateAfterCommit(studentId);
+    }
+
     @Transactional(readOnly = true)
     public List<GradeDto> getForStudent(Long studentId) {
-        final Student student = studentRepository.findById(studentId).orElseThrow(() -> new RuntimeException("Student not found"));
-        return gradeDtoMapper.mapList(student.getGrades());
+        // A projection query rather than student.getGrades(): no entities are loaded for a read.
+        return replicaRouting.readOwnWrites(studentId, () -> gradeCache.getGrades(studentId, () -> {
+            final List<GradeDto> grades = loadGrades(Set.of(studentId)).get(studentId);
+            if (grades == null) {
+                throw new RuntimeException("Student not found");
+            }
+            return grades;
+        }));
     }
 
     @Transactional(readOnly = true)
     public Map<Discipline, Double> getAveragePerDiscipline(Long studentId) {
-        final Student student = studentRepository.findById(studentId).orElseThrow(() -> new RuntimeException("Student not found"));
-        return student.getGrades().stream()
-                .collect(Collectors.groupingBy(Grade::getDiscipline, Collectors.averagingDouble(Grade::getValue)));
+        return aggregate(studentId).averages();
     }
 
     @Transactional(readOnly = true)
     public Map<Discipline, Double> getMaxPerDiscipline(Long studentId) {
-        final Student student = studentRepository.findById(studentId).orElseThrow(() -> new RuntimeException("Student not found"));
-        return student.getGrades().stream()
-                      .collect(Collectors.toUnmodifiableMap(Grade::getDiscipline, Grade::getValue, Double::max));
+        return aggregate(studentId).maxima();
     }
 
     @Transactional(readOnly = true)
     public Map<Discipline, Boolean> isPromotedPerDiscipline(Long studentId) {
-        final Map<Discipline, Boolean> map = getAveragePerDiscipline(studentId).entrySet().stream()
-                .map(entry -> Map.entry(entry.getKey(), entry.getValue() > PROMOTE_THRESHOLD))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        Map<Discipline, Boolean> result = Arrays.stream(Discipline.values()).collect(Collectors.toMap(Function.identity(), d -> false));
-        result.putAll(map);
-        return result;
+        if (promotionRules.needsGrades()) {
+            return PromotionRules.disciplines(evaluatePromotion(getForStudent(studentId), promotionRules.newAccumulator()));
+        }
+        return PromotionRules.disciplines(promotionRules.evaluate(aggregate(studentId), promotionRules.newAccumulator()));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Discipline, DisciplineQuantilesDto> getQuantilesPerDiscipline(Long studentId) {
+        return replicaRouting.readOwnWrites(studentId, () -> {
+            final Map<Discipline, DisciplineQuantilesDto> quantiles = statisticService.getQuantiles(studentId);
+            if (quantiles.isEmpty() && !studentRepository.existsById(studentId)) {
+                throw new RuntimeException("Student not found");
+            }
+            return quantiles;
+        });
+    }
+
+    /**
+     * Grades of every student in {@code studentIds}, keyed by student id in
+     * request order, read with one query for the students that are not cached.
+     * Unknown ids are listed as missing.
+     */
+    @Transactional(readOnly = true)
+    public StudentGradesResult getForStudents(Collection<Long> studentIds) {
+        final Set<Long> ids = new LinkedHashSet<>(studentIds);
+        final Map<Long, List<GradeDto>> loaded = replicaRouting.readOwnWrites(ids, () -> gradeCache.getAllGrades(ids, this::loadGrades));
+        final Map<Long, List<GradeDto>> grades = new LinkedHashMap<>();
+        final List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            final List<GradeDto> studentGrades = loaded.get(id);
+            if (studentGrades == null) {
+                missing.add(id);
+            } else {
+                grades.put(id, studentGrades);
+            }
+        }
+        return new StudentGradesResult(grades, missing);
+    }
+
+    /**
+     * The requested statistics of every student in {@code studentIds}, keyed by
+     * student id in request order. Students the columnar store cannot answer
+     * for, and that are not cached, are read with two queries; promotion under
+     * rules that drop several grades reads their grades too. Unknown ids are
+     * listed as missing.
+     */
+    @Transactional(readOnly = true)
+    public StudentStatisticsResult getStatisticsForStudents(Collection<Long> studentIds, Set<StudentStatistic> statistics) {
+        final Set<Long> ids = new LinkedHashSet<>(studentIds);
+        final PromotionAccumulator accumulator = promotionRules.newAccumulator();
+        final Map<Long, List<GradeDto>> grades = statistics.contains(StudentStatistic.PROMOTION) && promotionRules.needsGrades()
+                ? getForStudents(ids).getGrades()
+                : Map.of();
+        final Map<Long, DisciplineAggregator> aggregates = new HashMap<>();
+        final Set<Long> notInStore = new HashSet<>();
+        for (Long id : ids) {
+            gradeStore.aggregate(id).ifPresentOrElse(aggregator -> aggregates.put(id, aggregator), () -> notInStore.add(id));
+        }
+        if (!notInStore.isEmpty()) {
+            replicaRouting.readOwnWrites(notInStore, () -> gradeCache.getAllStats(notInStore, this::loadStats))
+                    .forEach((id, stats) -> aggregates.put(id, DisciplineAggregator.ofStats(stats)));
+        }
+        final Map<Long, StudentStatisticsDto> result = new LinkedHashMap<>();
+        final List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            final DisciplineAggregator aggregator = aggregates.get(id);
+            if (aggregator == null) {
+                missing.add(id);
+            } else {
+                result.put(id, new StudentStatisticsDto(
+                        statistics.contains(StudentStatistic.AVERAGE) ? aggregator.averages() : null,
+                        statistics.contains(StudentStatistic.MAX) ? aggregator.maxima() : null,
+                        statistics.contains(StudentStatistic.PROMOTION) ? PromotionRules.disciplines(promotionRules.needsGrades()
+                                ? evaluatePromotion(grades.getOrDefault(id, List.of()), accumulator)
+                                : promotionRules.evaluate(aggregator, accumulator)) : null));
+            }
+        }
+        return new StudentStatisticsResult(result, missing);
+    }
+
+    private Map<Long, List<GradeDto>> loadGrades(Set<Long> studentIds) {
+        final Map<Long, List<GradeDto>> grades = new HashMap<>();
+        for (StudentGrade row : gradeRepository.findGradesByStudentIdIn(studentIds)) {
+            final List<GradeDto> studentGrades = grades.computeIfAbsent(row.getStudentId(), id -> new ArrayList<>());
+            if (row.getId() != null) {
+                studentGrades.add(new GradeDto(row.getId(), row.getValue(), row.getDiscipline()));
+            }
+        }
+        grades.values().forEach(studentGrades -> gradeMetrics.gradesLoaded(studentGrades.size()));
+        return grades;
+    }
+
+    private Map<Long, List<DisciplineStats>> loadStats(Set<Long> studentIds) {
+        final Map<Long, List<DisciplineStats>> stats = new HashMap<>();
+        for (Long id : studentRepository.findExistingIds(studentIds)) {
+            stats.put(id, new ArrayList<>());
+        }
+        for (DisciplineStats row : statisticService.getStats(studentIds)) {
+            stats.computeIfAbsent(row.getStudentId(), id -> new ArrayList<>()).add(row);
+        }
+        return stats;
+    }
+
+    private int evaluatePromotion(List<GradeDto> grades, PromotionAccumulator accumulator) {
+        accumulator.reset();
+        for (GradeDto grade : grades) {
+            accumulator.add(grade.getDiscipline(), grade.getValue());
+        }
+        return promotionRules.evaluate(accumulator);
+    }
+
+    private DisciplineAggregator aggregate(Long studentId) {
+        return gradeStore.aggregate(studentId).orElseGet(() -> DisciplineAggregator.ofStats(getStats(studentId)));
+    }
+
+    private List<DisciplineStats> getStats(Long studentId) {
+        return replicaRouting.readOwnWrites(studentId, () -> gradeCache.getStats(studentId, () -> {
+            final List<DisciplineStats> stats = statisticService.getStats(studentId);
+            if (stats.isEmpty() && !studentRepository.existsById(studentId)) {
+                throw new RuntimeException("Student not found");
+            }
+            return stats;
+        }));
     }
 }
@@ -0,0 +1,91 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+
+import java.util.Arrays;
+
+/**
+ * Per-discipline count, sum and the {@code keepLowest} lowest grades of one
+ * student, fed one grade at a time and read by {@link PromotionRules}. Reset
+ * and reused from one student to the next, so a promotion run over a cohort
+ * allocates one accumulator per thread.
+ */
+public final class PromotionAccumulator {
+
+    private static final int DISCIPLINES = Discipline.values().length;
+
+    private final int keepLowest;
+    private final long[] counts = new long[DISCIPLINES];
+    private final double[] sums = new double[DISCIPLINES];
+    private final double[] lowest;
+    private final int[] lowestSizes = new int[DISCIPLINES];
+
+    PromotionAccumulator(int keepLowest) {
+        this.keepLowest = keepLowest;
+        this.lowest = new double[DISCIPLINES * keepLowest];
+    }
+
+    public void add(Discipline discipline, double value) {
+        final int i = discipline.ordinal();
+        counts[i]++;
+        sums[i] += value;
+        if (keepLowest == 0) {
+            return;
+        }
+        final int offset = i * keepLowest;
+        int position = lowestSizes[i];
+        if (position == keepLowest) {
+            if (value >= lowest[offset + keepLowest - 1]) {
+                return;
+            }
+            position--;
+        } else {
+            lowestSizes[i]++;
+        }
+        while (position > 0 && lowest[offset + position - 1] > value) {
+            lowest[offset + position] = lowest[offset + position - 1];
+            position--;
+        }
+        lowest[offset + position] = value;
+    }
+
+    /**
+     * Adds pre-aggregated grades of a discipline. Only their minimum is known,
+     * so this works for rules that drop at most one grade.
+     */
+    public void merge(Discipline discipline, long count, double sum, double min) {
+        if (keepLowest > 1) {
+            throw new IllegalStateException("Dropping more than one grade needs the grades themselves");
+        }
+        final int i = discipline.ordinal();
+        if (keepLowest == 1) {
+            lowest[i] = lowestSizes[i] == 0 ? min : Math.min(lowest[i], min);
+            lowestSizes[i] = 1;
+        }
+        counts[i] += count;
+        sums[i] += sum;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(sums, 0);
+        Arrays.fill(lowestSizes, 0);
+    }
+
+    long count(int discipline) {
+        return counts[discipline];
+    }
+
+    double sum(int discipline) {
+        return sums[discipline];
+    }
+
+    double lowestSum(int discipline, int n) {
+        double sum = 0;
+        final int offset = discipline * keepLowest;
+        for (int j = 0; j < Math.min(n, lowestSizes[discipline]); j++) {
+            sum += lowest[offset + j];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Promotion rules read once from {@code promotion.*}. A student is promoted in
+ * a discipline with at least {@code promotion.min-grades} grades whose average,
+ * without the {@code promotion.drop-lowest} lowest ones, is above
+ * {@code promotion.threshold}. Overall, a student is promoted when the average
+ * of those discipline averages, weighted by {@code promotion.weight}, is above
+ * {@code promotion.overall-threshold}. Every key but the last can be set per
+ * discipline, e.g. {@code promotion.threshold.ALGEBRA=5}.
+ * <p>
+ * The rules are compiled into arrays indexed by {@link Discipline#ordinal()};
+ * {@link #evaluate(PromotionAccumulator)} reads a student's accumulated grades
+ * once and returns every decision as a bit mask, without allocating.
+ */
+@Component
+public class PromotionRules {
+
+    private static final Discipline[] DISCIPLINES = Discipline.values();
+    private static final int OVERALL = 1 << DISCIPLINES.length;
+
+    private final double[] thresholds = new double[DISCIPLINES.length];
+    private final int[] minGrades = new int[DISCIPLINES.length];
+    private final int[] dropLowest = new int[DISCIPLINES.length];
+    private final double[] weights = new double[DISCIPLINES.length];
+    private final double overallThreshold;
+    private final int maxDropLowest;
+
+    public PromotionRules(Environment environment) {
+        final double threshold = environment.getProperty("promotion.threshold", Double.class, 4.5);
+        overallThreshold = environment.getProperty("promotion.overall-threshold", Double.class, threshold);
+        final int defaultMinGrades = environment.getProperty("promotion.min-grades", Integer.class, 1);
+        final int defaultDropLowest = environment.getProperty("promotion.drop-lowest", Integer.class, 0);
+        final double defaultWeight = environment.getProperty("promotion.weight", Double.class, 1.0);
+        int max = 0;
+        for (Discipline discipline : DISCIPLINES) {
+            final int i = discipline.ordinal();
+            thresholds[i] = environment.getProperty("promotion.threshold." + discipline, Double.class, threshold);
+            minGrades[i] = Math.max(1, environment.getProperty("promotion.min-grades." + discipline, Integer.class, defaultMinGrades));
+            dropLowest[i] = environment.getProperty("promotion.drop-lowest." + discipline, Integer.class, defaultDropLowest);
+            weights[i] = environment.getProperty("promotion.weight." + discipline, Double.class, defaultWeight);
+            if (dropLowest[i] < 0 || weights[i] < 0) {
+                throw new IllegalStateException("Invalid promotion rule for " + discipline);
+            }
+            max = Math.max(max, dropLowest[i]);
+        }
+        maxDropLowest = max;
+    }
+
+    /**
+     * Whether a rule drops more than the lowest grade, so students have to be
+     * evaluated from their grades rather than from count, sum and minimum.
+     */
+    public boolean needsGrades() {
+        return maxDropLowest > 1;
+    }
+
+    public PromotionAccumulator newAccumulator() {
+        return new PromotionAccumulator(maxDropLowest);
+    }
+
+    public int evaluate(PromotionAccumulator accumulator) {
+        int promoted = 0;
+        double weightedSum = 0;
+        double weightSum = 0;
+        for (int i = 0; i < DISCIPLINES.length; i++) {
+            final long count = accumulator.count(i);
+            if (count < minGrades[i] || count <= dropLowest[i]) {
+                continue;
+            }
+            final double average = (accumulator.sum(i) - accumulator.lowestSum(i, dropLowest[i])) / (count - dropLowest[i]);
+            if (average > thresholds[i]) {
+                promoted |= 1 << i;
+            }
+            weightedSum += weights[i] * average;
+            weightSum += weights[i];
+        }
+        if (weightSum > 0 && weightedSum / weightSum > overallThreshold) {
+            promoted |= OVERALL;
+        }
+        return promoted;
+    }
+
+    /**
+     * Evaluates pre-aggregated grades; only valid when {@link #needsGrades()} is false.
+     */
+    public int evaluate(DisciplineAggregator aggregator, PromotionAccumulator accumulator) {
+        accumulator.reset();
+        for (Discipline discipline : DISCIPLINES) {
+            if (aggregator.has(discipline)) {
+                accumulator.merge(discipline, aggregator.count(discipline), aggregator.sum(discipline), aggregator.min(discipline));
+            }
+        }
+        return evaluate(accumulator);
+    }
+
+    public static boolean isPromoted(int promoted, Discipline discipline) {
+        return (promoted & 1 << discipline.ordinal()) != 0;
+    }
+
+    public static boolean isPromoted(int promoted) {
+        return (promoted & OVERALL) != 0;
+    }
+
+    public static Map<Discipline, Boolean> disciplines(int promoted) {
+        final EnumMap<Discipline, Boolean> result = new EnumMap<>(Discipline.class);
+        for (Discipline discipline : DISCIPLINES) {
+            result.put(discipline, isPromoted(promoted, discipline));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Student;
+import com.example.junit.repository.DisciplineStatisticRepository;
+import com.example.junit.repository.DisciplineStats;
+import com.example.junit.repository.GradeBucket;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.GroupCount;
+import com.example.junit.repository.GroupDisciplineStats;
+import com.example.junit.repository.GroupStudentGrade;
+import com.example.junit.repository.StudentAverage;
+import com.example.junit.repository.StudentGrade;
+import com.example.junit.repository.StudentRepository;
+import com.example.junit.web.dto.DisciplineQuantilesDto;
+import com.example.junit.web.dto.GroupReportDto;
+import com.example.junit.web.dto.PromotionDto;
+import com.example.junit.web.dto.RankedStudentDto;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Per-group rankings, promotion rates and grade histograms. Aggregation runs in
+ * the database; ranking streams per-student averages over disjoint id ranges in
+ * parallel into bounded top-N heaps that are merged at the end. Promotion
+ * runs, including the promotion rates of the reports, stream statistics or
+ * grades over id ranges the same way and apply {@link PromotionRules}.
+ */
+@Service
+@Timed(value = "app.service", histogram = true)
+public class ReportService {
+
+    private static final Comparator<StudentAverage> BY_AVERAGE = Comparator.comparing(StudentAverage::getAverage)
+            .thenComparing(StudentAverage::getStudentId, Comparator.reverseOrder());
+    private static final int RANGES_PER_THREAD = 4;
+    private static final int MAX_TOP = 1000;
+    private static final Discipline[] DISCIPLINES = Discipline.values();
+
+    private final StudentRepository studentRepository;
+    private final DisciplineStatisticRepository statisticRepository;
+    private final GradeRepository gradeRepository;
+    private final ColumnarGradeStore gradeStore;
+    private final PromotionRules promotionRules;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+
+    public ReportService(StudentRepository studentRepository,
+                         DisciplineStatisticRepository statisticRepository,
+                         GradeRepository gradeRepository,
+                         ColumnarGradeStore gradeStore,
+                         PromotionRules promotionRules,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${reports.parallelism:4}") int parallelism) {
+        this.studentRepository = studentRepository;
+        this.statisticRepository = statisticRepository;
+        this.gradeRepository = gradeRepository;
+        this.gradeStore = gradeStore;
+        this.promotionRules = promotionRules;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public GroupReportDto getGroupReport(String group, int top) {
+        return build(group, top).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Group not found"));
+    }
+
+    public List<GroupReportDto> getGroupReports(int top) {
+        return build(null, top);
+    }
+
+    /**
+     * Per-discipline averages of every student with grades in {@code group},
+     * from the columnar store when it can answer, otherwise from the statistics.
+     */
+    public Map<Long, Map<Discipline, Double>> getGroupAverages(String group) {
+        final Map<Long, DisciplineAggregator> aggregates = gradeStore.aggregateGroup(group).orElseGet(() -> {
+            final Map<Long, DisciplineAggregator> result = new HashMap<>();
+            for (DisciplineStats stats : readOnlyTransaction.execute(status -> statisticRepository.findStatsForGroup(group))) {
+                result.computeIfAbsent(stats.getStudentId(), id -> new DisciplineAggregator())
+                        .merge(stats.getDiscipline(), stats.getCount(), stats.getSum(), stats.getMax(), stats.getMin());
+            }
+            return result;
+        });
+        final Map<Long, Map<Discipline, Double>> averages = new TreeMap<>();
+        aggregates.forEach((studentId, aggregator) -> averages.put(studentId, aggregator.averages()));
+        return averages;
+    }
+
+    /**
+     * Per-discipline median, 90th percentile and trailing average of a group,
+     * merged from the statistics of its students.
+     */
+    public Map<Discipline, DisciplineQuantilesDto> getGroupQuantiles(String group) {
+        final DisciplineSummaries summaries = new DisciplineSummaries();
+        readOnlyTransaction.executeWithoutResult(status -> statisticRepository.findForGroup(group).forEach(summaries::merge));
+        return summaries.quantiles();
+    }
+
+    /**
+     * Promotion of every student in {@code group} under {@link PromotionRules},
+     * keyed by student id. Students are evaluated in parallel over disjoint id
+     * ranges, from the columnar store or the statistics unless a rule drops
+     * several grades, in which case their grades are streamed.
+     */
+    public Map<Long, PromotionDto> getGroupPromotion(String group) {
+        final List<Long> ids = readOnlyTransaction.execute(status -> studentRepository.findIdsByGroup(group));
+        if (ids.isEmpty()) {
+            throw new RuntimeException("Group not found");
+        }
+        final Map<Long, Integer> promoted = promoteGroup(group, ids);
+        final Map<Long, PromotionDto> result = new TreeMap<>();
+        for (Long id : ids) {
+            final int decisions = promoted.getOrDefault(id, 0);
+            result.put(id, new PromotionDto(PromotionRules.disciplines(decisions), PromotionRules.isPromoted(decisions)));
+        }
+        return result;
+    }
+
+    private Map<Long, Integer> promoteGroup(String group, List<Long> ids) {
+        final Map<Long, Integer> promoted = new HashMap<>();
+        final Map<Long, DisciplineAggregator> aggregates = promotionRules.needsGrades()
+                ? null
+                : gradeStore.aggregateGroup(group).orElse(null);
+        if (aggregates != null) {
+            final PromotionAccumulator accumulator = promotionRules.newAccumulator();
+            aggregates.forEach((studentId, aggregator) -> promoted.put(studentId, promotionRules.evaluate(aggregator, accumulator)));
+        } else {
+            forEachRange(ids.get(0), ids.get(ids.size() - 1), (from, to) -> promoteRange(group, from, to))
+                    .forEach(promoted::putAll);
+        }
+        return promoted;
+    }
+
+    private List<GroupReportDto> build(String group, int top) {
+        final int limit = Math.min(Math.max(top, 1), MAX_TOP);
+        final Future<List<GroupCount>> sizes = pool.submit(() -> group == null
+                ? studentRepository.countPerGroup()
+                : studentRepository.countForGroup(group));
+        final Future<List<GradeBucket>> buckets = pool.submit(() -> group == null
+                ? gradeRepository.countBucketsPerGroup()
+                : gradeRepository.countBucketsForGroup(group));
+        final Map<String, TopN<StudentAverage>> rankings = rank(group, limit);
+        final Map<String, long[]> promotedPerGroup = countPromoted(group);
+
+        final Map<String, Map<Discipline, Map<Integer, Long>>> histograms = new HashMap<>();
+        for (GradeBucket bucket : join(buckets)) {
+            histograms.computeIfAbsent(bucket.getGroup(), g -> new EnumMap<>(Discipline.class))
+                    .computeIfAbsent(bucket.getDiscipline(), d -> new TreeMap<>())
+                    .put(bucket.getBucket(), bucket.getCount());
+        }
+        final Map<String, List<StudentAverage>> topPerGroup = new HashMap<>();
+        rankings.forEach((g, topN) -> topPerGroup.put(g, topN.toSortedList()));
+        final Map<Long, Student> students = studentRepository.findAllById(topPerGroup.values().stream()
+                        .flatMap(List::stream)
+                        .map(StudentAverage::getStudentId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+
+        final List<GroupReportDto> reports = new ArrayList<>();
+        for (GroupCount size : join(sizes)) {
+            final Map<Discipline, Double> promotionRate = new EnumMap<>(Discipline.class);
+            final long[] promotedCounts = promotedPerGroup.getOrDefault(size.getGroup(), new long[DISCIPLINES.length]);
+            for (Discipline discipline : DISCIPLINES) {
+                promotionRate.put(discipline, promotedCounts[discipline.ordinal()] / (double) size.getCount());
+            }
+            final List<RankedStudentDto> ranked = topPerGroup.getOrDefault(size.getGroup(), List.of()).stream()
+                    .filter(average -> students.containsKey(average.getStudentId()))
+                    .map(average -> toRankedStudent(students.get(average.getStudentId()), average))
+                    .toList();
+            reports.add(new GroupReportDto(size.getGroup(),
+                                           size.getCount(),
+                                           ranked,
+                                           promotionRate,
+                                           histograms.getOrDefault(size.getGroup(), Map.of())));
+        }
+        reports.sort(Comparator.comparing(GroupReportDto::getGroup, Comparator.nullsLast(Comparator.naturalOrder())));
+        return reports;
+    }
+
+    private Map<String, TopN<StudentAverage>> rank(String group, int limit) {
+        final Long minId = studentRepository.findMinId().orElse(null);
+        final Long maxId = studentRepository.findMaxId().orElse(null);
+        if (minId == null || maxId == null) {
+            return Map.of();
+        }
+        final Map<String, TopN<StudentAverage>> result = new HashMap<>();
+        for (Map<String, TopN<StudentAverage>> partial : forEachRange(minId, maxId, (from, to) -> rankRange(group, from, to, limit))) {
+            partial.forEach((g, topN) -> result.merge(g, topN, TopN::merge));
+        }
+        return result;
+    }
+
+    /**
+     * Students promoted per group, indexed by discipline ordinal, under the
+     * same rules as {@link #getGroupPromotion(String)}.
+     */
+    private Map<String, long[]> countPromoted(String group) {
+        final Map<String, long[]> result = new HashMap<>();
+        if (group != null) {
+            final List<Long> ids = readOnlyTransaction.execute(status -> studentRepository.findIdsByGroup(group));
+            if (!ids.isEmpty()) {
+                final long[] counts = result.computeIfAbsent(group, g -> new long[DISCIPLINES.length]);
+                promoteGroup(group, ids).values().forEach(decisions -> count(decisions, counts));
+            }
+            return result;
+        }
+        final Long minId = studentRepository.findMinId().orElse(null);
+        final Long maxId = studentRepository.findMaxId().orElse(null);
+        if (minId == null || maxId == null) {
+            return result;
+        }
+        for (Map<String, long[]> partial : forEachRange(minId, maxId, this::countPromotedRange)) {
+            partial.forEach((g, counts) -> result.merge(g, counts, (left, right) -> {
+                for (int i = 0; i < left.length; i++) {
+                    left[i] += right[i];
+                }
+                return left;
+            }));
+        }
+        return result;
+    }
+
+    private Map<String, long[]> countPromotedRange(long from, long to) {
+        return readOnlyTransaction.execute(status -> {
+            final Map<String, long[]> counts = new HashMap<>();
+            if (promotionRules.needsGrades()) {
+                try (Stream<GroupStudentGrade> grades = gradeRepository.streamGroupGrades(from, to)) {
+                    promote(grades.iterator(), GroupStudentGrade::getStudentId,
+                            (accumulator, grade) -> accumulator.add(grade.getDiscipline(), grade.getValue()),
+                            (grade, decisions) -> count(decisions, counts.computeIfAbsent(grade.getGroup(), g -> new long[DISCIPLINES.length])));
+                }
+                return counts;
+            }
+            try (Stream<GroupDisciplineStats> stats = statisticRepository.streamGroupStats(from, to)) {
+                promote(stats.iterator(), GroupDisciplineStats::getStudentId,
+                        (accumulator, row) -> accumulator.merge(row.getDiscipline(), row.getCount(), row.getSum(), row.getMin()),
+                        (row, decisions) -> count(decisions, counts.computeIfAbsent(row.getGroup(), g -> new long[DISCIPLINES.length])));
+            }
+            return counts;
+        });
+    }
+
+    private static void count(int decisions, long[] counts) {
+        for (Discipline discipline : DISCIPLINES) {
+            if (PromotionRules.isPromoted(decisions, discipline)) {
+                counts[discipline.ordinal()]++;
+            }
+        }
+    }
+
+    private Map<String, TopN<StudentAverage>> rankRange(String group, long from, long to, int limit) {
+        return readOnlyTransaction.execute(status -> {
+            final Map<String, TopN<StudentAverage>> ranking = new HashMap<>();
+            try (Stream<StudentAverage> averages = group == null
+                    ? statisticRepository.streamAverages(from, to)
+                    : statisticRepository.streamAveragesForGroup(from, to, group)) {
+                averages.forEach(average -> ranking.computeIfAbsent(average.getGroup(), g -> new TopN<>(limit, BY_AVERAGE))
+                        .offer(average));
+            }
+            return ranking;
+        });
+    }
+
+    private Map<Long, Integer> promoteRange(String group, long from, long to) {
+        return readOnlyTransaction.execute(status -> {
+            final Map<Long, Integer> promoted = new HashMap<>();
+            if (promotionRules.needsGrades()) {
+                try (Stream<StudentGrade> grades = gradeRepository.streamGradesForGroup(from, to, group)) {
+                    promote(grades.iterator(), StudentGrade::getStudentId,
+                            (accumulator, grade) -> accumulator.add(grade.getDiscipline(), grade.getValue()),
+                            (grade, decisions) -> promoted.put(grade.getStudentId(), decisions));
+                }
+                return promoted;
+            }
+            try (Stream<DisciplineStats> stats = statisticRepository.streamStatsForGroup(from, to, group)) {
+                promote(stats.iterator(), DisciplineStats::getStudentId,
+                        (accumulator, row) -> accumulator.merge(row.getDiscipline(), row.getCount(), row.getSum(), row.getMin()),
+                        (row, decisions) -> promoted.put(row.getStudentId(), decisions));
+            }
+            return promoted;
+        });
+    }
+
+    /**
+     * Evaluates rows ordered by student id, one accumulator reused across
+     * students, and hands the last row of each student to {@code decided}
+     * with its promotion mask.
+     */
+    private <T> void promote(Iterator<T> rows, Function<T, Long> studentId, BiConsumer<PromotionAccumulator, T> add, ObjIntConsumer<T> decided) {
+        final PromotionAccumulator accumulator = promotionRules.newAccumulator();
+        T last = null;
+        while (rows.hasNext()) {
+            final T row = rows.next();
+            if (last != null && !studentId.apply(row).equals(studentId.apply(last))) {
+                decided.accept(last, promotionRules.evaluate(accumulator));
+                accumulator.reset();
+            }
+            add.accept(accumulator, row);
+            last = row;
+        }
+        if (last != null) {
+            decided.accept(last, promotionRules.evaluate(accumulator));
+        }
+    }
+
+    /**
+     * Splits the ids {@code minId..maxId} into {@code RANGES_PER_THREAD} ranges
+     * per pool thread, runs {@code task} on each of them in the pool and
+     * returns the results in range order.
+     */
+    private <T> List<T> forEachRange(long minId, long maxId, RangeTask<T> task) {
+        final int ranges = pool.getParallelism() * RANGES_PER_THREAD;
+        final long step = Math.max(1, (maxId - minId + ranges) / ranges);
+        final List<Callable<T>> tasks = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += step) {
+            final long lower = from;
+            final long upper = Math.min(maxId, from + step - 1);
+            tasks.add(() -> task.run(lower, upper));
+        }
+        final List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> partial : pool.invokeAll(tasks)) {
+            results.add(join(partial));
+        }
+        return results;
+    }
+
+    private static RankedStudentDto toRankedStudent(Student student, StudentAverage average) {
+        return new RankedStudentDto(student.getId(), student.getFirstName(), student.getLastName(), average.getAverage());
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeTask<T> {
+
+        T run(long from, long to);
+    }
+}
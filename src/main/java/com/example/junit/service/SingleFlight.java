@@ -0,0 +1,65 @@
+package com.example.junit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one load per key at a time. Callers asking for a key that is
+ * already being loaded get the result of that load instead of starting their
+ * own. Nothing is kept once the load completes, so a later call loads again.
+ * A load can also be forgotten before it completes, when what it reads has
+ * changed: its callers still get its result, later callers start a new load.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final Counter loads;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, Executor executor, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.loads = Counter.builder("single.flight.calls").tag("name", name).tag("result", "load").register(meterRegistry);
+        this.coalesced = Counter.builder("single.flight.calls").tag("name", name).tag("result", "coalesced").register(meterRegistry);
+        Gauge.builder("single.flight.in.flight", inFlight, Map::size).tag("name", name).register(meterRegistry);
+    }
+
+    public CompletableFuture<V> execute(K key, Supplier<V> loader) {
+        final CompletableFuture<V> created = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+        loads.increment();
+        try {
+            executor.execute(() -> {
+                try {
+                    final V value = loader.get();
+                    inFlight.remove(key, created);
+                    created.complete(value);
+                } catch (Throwable e) {
+                    inFlight.remove(key, created);
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created.copy();
+    }
+
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.junit.service;
+
+import com.example.junit.repository.DisciplineStats;
+import com.example.junit.web.dto.GradeDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the grade views of a student, keyed by student id.
+ * Concurrent reads of a missing student share one load. The load runs on the
+ * calling thread outside of any map lock, so a virtual thread blocked on JDBC
+ * does not pin its carrier, and an eviction issued after a commit discards an
+ * in-flight load instead of letting it populate the cache with stale data.
+ * Only the writes of this instance evict it, so entries also expire
+ * {@code grades.cache.expire-after-write} after they were loaded. Listeners
+ * registered with {@link #onEvict} are told of every eviction, also when the
+ * cache is disabled.
+ */
+@Component
+public class StudentGradeCache {
+
+    private final boolean enabled;
+    private final AsyncCache<Long, List<GradeDto>> grades;
+    private final AsyncCache<Long, List<DisciplineStats>> stats;
+    private final List<Consumer<Long>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    public StudentGradeCache(@Value("${grades.cache.enabled:true}") boolean enabled,
+                             @Value("${grades.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${grades.cache.expire-after-write:1m}") Duration expireAfterWrite,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.grades = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).recordStats().buildAsync();
+        this.stats = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).recordStats().buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, grades, "studentGrades");
+        CaffeineCacheMetrics.monitor(meterRegistry, stats, "studentGradeStats");
+    }
+
+    public List<GradeDto> getGrades(Long studentId, Supplier<List<GradeDto>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return load(grades, studentId, loader);
+    }
+
+    public List<DisciplineStats> getStats(Long studentId, Supplier<List<DisciplineStats>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return load(stats, studentId, loader);
+    }
+
+    /**
+     * Cached grades of {@code studentIds}; the ones not cached are loaded
+     * together with one call of {@code loader}. Students the loader leaves out
+     * are left out of the result and not cached.
+     */
+    public Map<Long, List<GradeDto>> getAllGrades(Collection<Long> studentIds, Function<Set<Long>, Map<Long, List<GradeDto>>> loader) {
+        if (!enabled) {
+            return loader.apply(Set.copyOf(studentIds));
+        }
+        return loadAll(grades, studentIds, loader);
+    }
+
+    public Map<Long, List<DisciplineStats>> getAllStats(Collection<Long> studentIds, Function<Set<Long>, Map<Long, List<DisciplineStats>>> loader) {
+        if (!enabled) {
+            return loader.apply(Set.copyOf(studentIds));
+        }
+        return loadAll(stats, studentIds, loader);
+    }
+
+    public void onEvict(Consumer<Long> listener) {
+        evictionListeners.add(listener);
+    }
+
+    public void evictAfterCommit(Long studentId) {
+        if (!enabled && evictionListeners.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(studentId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(studentId);
+            }
+        });
+    }
+
+    public void evict(Long studentId) {
+        grades.synchronous().invalidate(studentId);
+        stats.synchronous().invalidate(studentId);
+        evictionListeners.forEach(listener -> listener.accept(studentId));
+    }
+
+    private static <T> Map<Long, List<T>> loadAll(AsyncCache<Long, List<T>> cache, Collection<Long> studentIds,
+                                                  Function<Set<Long>, Map<Long, List<T>>> loader) {
+        try {
+            return cache.getAll(studentIds, (missing, executor) -> {
+                final Map<Long, List<T>> loaded = new HashMap<>();
+                loader.apply(Set.copyOf(missing)).forEach((id, values) -> loaded.put(id, List.copyOf(values)));
+                return CompletableFuture.completedFuture(loaded);
+            }).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    private static <T> List<T> load(AsyncCache<Long, List<T>> cache, Long studentId, Supplier<List<T>> loader) {
+        final CompletableFuture<List<T>> created = new CompletableFuture<>();
+        final CompletableFuture<List<T>> future = cache.get(studentId, (id, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(List.copyOf(loader.get()));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+}
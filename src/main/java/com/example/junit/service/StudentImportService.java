@@ -0,0 +1,173 @@
+package com.example.junit.service;
+
+import com.example.junit.datasource.ReplicaRouting;
+import com.example.junit.domain.Student;
+import com.example.junit.repository.StudentKey;
+import com.example.junit.repository.StudentRepository;
+import com.example.junit.web.dto.RowError;
+import com.example.junit.web.dto.StudentBatchResult;
+import com.example.junit.web.dto.StudentRequest;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates students in bulk, keyed on first name, last name and group. A row
+ * whose key matches an existing student, or an earlier row, gets that
+ * student's id instead of a new one. Every chunk is one transaction with
+ * batched inserts. A row the reader cannot parse is reported with a
+ * {@code null} id like an invalid one. Two batches creating the same student
+ * concurrently can still both insert it, as there is no unique constraint on
+ * the key.
+ */
+@Service
+@Timed(value = "app.service", histogram = true)
+@RequiredArgsConstructor
+public class StudentImportService {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final StudentRepository studentRepository;
+    private final ReplicaRouting replicaRouting;
+    private final GradeEventOutbox eventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public StudentBatchResult upsert(Iterator<StudentRequest> requests) {
+        final StudentBatchResult result = new StudentBatchResult();
+        final List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (requests.hasNext()) {
+            try {
+                chunk.add(new Row(requests.next(), null));
+            } catch (IllegalArgumentException e) {
+                chunk.add(new Row(null, e.getMessage()));
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                upsertChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            upsertChunk(chunk, result);
+        }
+        return result;
+    }
+
+    private void upsertChunk(List<Row> chunk, StudentBatchResult result) {
+        final long firstRow = result.getIds().size() + 1;
+        final Long[] ids = new Long[chunk.size()];
+        final List<RowError> errors = new ArrayList<>();
+        try {
+            final long[] counts = transactionTemplate.execute(status -> insertChunk(chunk, firstRow, ids, errors));
+            result.setCreated(result.getCreated() + counts[0]);
+            result.setExisting(result.getExisting() + counts[1]);
+            errors.forEach(error -> reject(result, error));
+        } catch (RuntimeException e) {
+            Arrays.fill(ids, null);
+            final String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (int i = 0; i < chunk.size(); i++) {
+                reject(result, new RowError(firstRow + i, message));
+            }
+        }
+        result.getIds().addAll(Arrays.asList(ids));
+    }
+
+    private long[] insertChunk(List<Row> chunk, long firstRow, Long[] ids, List<RowError> errors) {
+        final Map<Key, Integer> firstRowByKey = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            final Row row = chunk.get(i);
+            final String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) {
+                errors.add(new RowError(firstRow + i, error));
+            } else {
+                firstRowByKey.putIfAbsent(Key.of(row.request()), i);
+            }
+        }
+        if (firstRowByKey.isEmpty()) {
+            return new long[]{0, 0};
+        }
+
+        final Map<Key, Long> idByKey = findExisting(firstRowByKey.keySet());
+        final long existing = idByKey.size();
+        final Map<Key, Student> created = new LinkedHashMap<>();
+        firstRowByKey.forEach((key, row) -> {
+            if (!idByKey.containsKey(key)) {
+                final StudentRequest request = chunk.get(row).request();
+                created.put(key, new Student(request.getFirstName(), request.getLastName(), request.getGroup()));
+            }
+        });
+        studentRepository.saveAll(created.values());
+        eventOutbox.studentsCreated(created.values());
+        entityManager.flush();
+        created.forEach((key, student) -> {
+            idByKey.put(key, student.getId());
+            replicaRouting.written(student.getId());
+        });
+        entityManager.clear();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            final StudentRequest request = chunk.get(i).request();
+            if (chunk.get(i).error() == null && validate(request) == null) {
+                ids[i] = idByKey.get(Key.of(request));
+            }
+        }
+        return new long[]{created.size(), existing};
+    }
+
+    private Map<Key, Long> findExisting(Set<Key> keys) {
+        final Set<String> lastNames = keys.stream().map(Key::lastName).collect(Collectors.toSet());
+        final Set<String> firstNames = keys.stream().map(Key::firstName).collect(Collectors.toSet());
+        final Map<Key, Long> idByKey = new HashMap<>();
+        for (StudentKey student : studentRepository.findKeysByNames(lastNames, firstNames)) {
+            final Key key = new Key(student.getFirstName(), student.getLastName(), student.getGroup());
+            if (keys.contains(key)) {
+                idByKey.putIfAbsent(key, student.getId());
+            }
+        }
+        return idByKey;
+    }
+
+    private static String validate(StudentRequest request) {
+        if (request == null) {
+            return "Student is required";
+        }
+        if (request.getFirstName() == null || request.getFirstName().isBlank()) {
+            return "First name is required";
+        }
+        if (request.getLastName() == null || request.getLastName().isBlank()) {
+            return "Last name is required";
+        }
+        return null;
+    }
+
+    private static void reject(StudentBatchResult result, RowError error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(error);
+        }
+    }
+
+    private record Row(StudentRequest request, String error) {
+    }
+
+    private record Key(String firstName, String lastName, String group) {
+
+        static Key of(StudentRequest request) {
+            return new Key(request.getFirstName(), request.getLastName(), request.getGroup());
+        }
+    }
+}
@@ -1,31 +1,73 @@
 package com.example.junit.service;
 
+import com.example.junit.datasource.ReplicaRouting;
 import com.example.junit.domain.Student;
+import com.example.junit.metrics.GradeMetrics;
+import com.example.junit.repository.GradeBookRow;
 import com.example.junit.repository.StudentRepository;
 import com.example.junit.service.mapper.Mapper;
 import com.example.junit.web.dto.StudentDto;
 import com.example.junit.web.dto.StudentRequest;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 @RequiredArgsConstructor
 public class StudentService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final StudentRepository studentRepository;
     private final Mapper<Student, StudentDto> studentDtoMapper;
+    private final GradeMetrics gradeMetrics;
+    private final ReplicaRouting replicaRouting;
+    private final GradeEventOutbox eventOutbox;
+
+    @Transactional(readOnly = true)
+    public List<StudentDto> get(Long after, int limit) {
+        return studentDtoMapper.mapList(getWithGrades(after, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Student> getWithGrades(Long after, int limit) {
+        final int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        final List<Long> ids = studentRepository.findIdsAfter(after == null ? 0L : after, PageRequest.ofSize(pageSize));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Student> students = studentRepository.findWithGradesByIdIn(ids);
+        students.forEach(student -> gradeMetrics.gradesLoaded(student.getGrades().size()));
+        return students;
+    }
 
+    /**
+     * Passes every student with each of its grades to {@code consumer}, ordered
+     * by student, as the rows come off a database cursor. The rows are
+     * projections rather than entities, so the persistence context stays empty
+     * and memory stays flat whatever the number of grades.
+     */
     @Transactional(readOnly = true)
-    public List<StudentDto> get() {
-        return studentDtoMapper.mapList(studentRepository.findAll());
+    public void exportGradeBook(Consumer<GradeBookRow> consumer) {
+        try (Stream<GradeBookRow> rows = studentRepository.streamGradeBook()) {
+            rows.forEach(consumer);
+        }
     }
 
     @Transactional
     public StudentDto add(StudentRequest request) {
         Student student = new Student(request.getFirstName(), request.getLastName(), request.getGroup());
-        return studentDtoMapper.map(studentRepository.save(student));
+        final Student saved = studentRepository.save(student);
+        replicaRouting.written(saved.getId());
+        eventOutbox.studentsCreated(List.of(saved));
+        return studentDtoMapper.map(saved);
     }
 }
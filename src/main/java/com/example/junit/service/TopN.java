@@ -0,0 +1,43 @@
+package com.example.junit.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the {@code limit} greatest elements seen so far in a min-heap,
+ * so ranking costs O(n log limit) time and O(limit) memory.
+ */
+final class TopN<T> {
+
+    private final int limit;
+    private final Comparator<T> comparator;
+    private final PriorityQueue<T> heap;
+
+    TopN(int limit, Comparator<T> comparator) {
+        this.limit = limit;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(limit + 1, comparator);
+    }
+
+    void offer(T element) {
+        if (heap.size() < limit) {
+            heap.add(element);
+        } else if (comparator.compare(element, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    TopN<T> merge(TopN<T> other) {
+        other.heap.forEach(this::offer);
+        return this;
+    }
+
+    List<T> toSortedList() {
+        final List<T> result = new ArrayList<>(heap);
+        result.sort(comparator.reversed());
+        return result;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.junit.service.mapper;
+
+import com.example.junit.domain.PendingGrade;
+import com.example.junit.web.dto.PendingGradeDto;
+import org.springframework.stereotype.Component;
+
+@Component
+class PendingGradeDtoMapper implements Mapper<PendingGrade, PendingGradeDto> {
+
+    @Override
+    public PendingGradeDto map(PendingGrade entity) {
+        return new PendingGradeDto(entity.getId(),
+                                   entity.getStudentId(),
+                                   entity.getValue(),
+                                   entity.getDiscipline(),
+                                   entity.getStatus(),
+                                   entity.getGradeId(),
+                                   entity.getError());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.service.AsyncGradeService;
+import com.example.junit.web.dto.GradeDto;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@Timed(value = "app.controller", histogram = true)
+@RequestMapping("/api/async/students")
+@RequiredArgsConstructor
+public class AsyncStudentController {
+
+    private final AsyncGradeService asyncGradeService;
+
+    @Value("${grades.async.retry-after:1}")
+    private long retryAfter;
+
+    @GetMapping("/{id}/grades")
+    public CompletableFuture<ResponseEntity<List<GradeDto>>> getGradesForStudent(@PathVariable Long id) {
+        return asyncGradeService.getForStudent(id).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}/average")
+    public CompletableFuture<ResponseEntity<Map<Discipline, Double>>> getAverageGradePerDiscipline(@PathVariable Long id) {
+        return asyncGradeService.getAveragePerDiscipline(id).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}/max")
+    public CompletableFuture<ResponseEntity<Map<Discipline, Double>>> getMaxGradePerDiscipline(@PathVariable Long id) {
+        return asyncGradeService.getMaxPerDiscipline(id).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}/promotion")
+    public CompletableFuture<ResponseEntity<Map<Discipline, Boolean>>> isPromotedPerDiscipline(@PathVariable Long id) {
+        return asyncGradeService.isPromotedPerDiscipline(id).thenApply(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> rejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.junit.web;
+
+import com.example.junit.repository.GradeBookRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Writes grade book rows, ordered by student, as they arrive: as CSV with one
+ * line per grade, or as NDJSON with one {@code StudentDto}-shaped object per
+ * student. Nothing but the current student id is kept between rows.
+ */
+public abstract class GradeBookWriter implements Consumer<GradeBookRow>, Closeable {
+
+    static final String CSV_HEADER = "studentId,firstName,lastName,group,gradeId,value,discipline";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static GradeBookWriter csv(OutputStream out) {
+        return new Csv(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+
+    public static GradeBookWriter ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        final JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        return new Ndjson(generator);
+    }
+
+    @Override
+    public void accept(GradeBookRow row) {
+        try {
+            write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void write(GradeBookRow row) throws IOException;
+
+    private static final class Csv extends GradeBookWriter {
+
+        private final Writer writer;
+        private boolean headerWritten;
+
+        private Csv(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        protected void write(GradeBookRow row) throws IOException {
+            writeHeaderOnce();
+            writer.write(String.valueOf(row.getStudentId()));
+            writer.write(',');
+            writeText(row.getFirstName());
+            writer.write(',');
+            writeText(row.getLastName());
+            writer.write(',');
+            writeText(row.getGroup());
+            writer.write(',');
+            if (row.getGradeId() != null) {
+                writer.write(String.valueOf(row.getGradeId()));
+                writer.write(',');
+                writer.write(row.getValue() == null ? "" : String.valueOf(row.getValue()));
+                writer.write(',');
+                writer.write(row.getDiscipline() == null ? "" : row.getDiscipline().name());
+            } else {
+                writer.write(",,");
+            }
+            writer.write('\n');
+        }
+
+        private void writeHeaderOnce() throws IOException {
+            if (!headerWritten) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                headerWritten = true;
+            }
+        }
+
+        private void writeText(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writeHeaderOnce();
+            writer.close();
+        }
+    }
+
+    private static final class Ndjson extends GradeBookWriter {
+
+        private final JsonGenerator generator;
+        private Long studentId;
+
+        private Ndjson(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        protected void write(GradeBookRow row) throws IOException {
+            if (!Objects.equals(row.getStudentId(), studentId)) {
+                endStudent();
+                StudentJsonWriter.writeStudentStart(generator, row.getStudentId(), row.getFirstName(), row.getLastName(), row.getGroup());
+                studentId = row.getStudentId();
+            }
+            if (row.getGradeId() != null) {
+                StudentJsonWriter.writeGrade(generator, row.getGradeId(), row.getValue(), row.getDiscipline());
+            }
+        }
+
+        private void endStudent() throws IOException {
+            if (studentId != null) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            endStudent();
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.junit.web;
+
+import com.example.junit.service.GradeEventFeed;
+import com.example.junit.web.dto.GradeEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed of student and grade changes as NDJSON, one event per line in sequence
+ * order. A consumer passes the last sequence it processed as {@code after}.
+ * The response ends after {@code limit} events or, once the consumer has
+ * caught up, after waiting up to {@code wait} seconds for more (capped by
+ * {@code grades.events.max-wait}); the consumer then asks again.
+ * <p>
+ * Responses are written on a pool of {@code grades.events.max-consumers}
+ * threads of their own, so waiting consumers do not hold the threads other
+ * streaming responses run on. When every thread is busy the feed answers
+ * {@code 503} with a {@code Retry-After} of {@code grades.events.retry-after}
+ * seconds. The wait is bounded by {@code grades.events.max-wait}, so the
+ * async request timeout does not apply.
+ */
+@RestController
+@Timed(value = "app.controller", histogram = true)
+@RequestMapping("/api/grade-events")
+public class GradeEventController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final long NO_TIMEOUT = -1;
+
+    private final GradeEventFeed feed;
+    private final ObjectWriter writer;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final Duration maxWait;
+    private final long retryAfter;
+
+    public GradeEventController(GradeEventFeed feed,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${grades.events.batch-size:500}") int batchSize,
+                                @Value("${grades.events.max-wait:20s}") Duration maxWait,
+                                @Value("${grades.events.max-consumers:16}") int maxConsumers,
+                                @Value("${grades.events.retry-after:1}") long retryAfter) {
+        this.feed = feed;
+        this.writer = objectMapper.writerFor(GradeEventDto.class);
+        this.executor = new ThreadPoolExecutor(maxConsumers, maxConsumers, 0L, TimeUnit.MILLISECONDS,
+                                               new SynchronousQueue<>(),
+                                               new CustomizableThreadFactory("grade-events-"));
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "grades.events");
+        this.batchSize = batchSize;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @GetMapping
+    public ResponseEntity<ResponseBodyEmitter> events(@RequestParam(defaultValue = "0") long after,
+                                                      @RequestParam(defaultValue = "10000") int limit,
+                                                      @RequestParam(defaultValue = "0") long wait) {
+        if (after < feed.purgedThrough()) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        final long deadline = System.nanoTime() + min(Duration.ofSeconds(Math.max(wait, 0)), maxWait).toNanos();
+        final ResponseBodyEmitter emitter = new ResponseBodyEmitter(NO_TIMEOUT);
+        try {
+            executor.execute(() -> {
+                try {
+                    write(emitter, after, Math.max(limit, 1), deadline);
+                    emitter.complete();
+                } catch (IOException | RuntimeException e) {
+                    emitter.completeWithError(e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                 .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                                 .build();
+        }
+        return ResponseEntity.ok()
+                             .contentType(NDJSON)
+                             .body(emitter);
+    }
+
+    private void write(ResponseBodyEmitter emitter, long after, int limit, long deadline) throws IOException, InterruptedException {
+        long position = after;
+        int remaining = limit;
+        while (remaining > 0) {
+            final List<GradeEventDto> events = feed.read(position, Math.min(remaining, batchSize));
+            if (events.isEmpty()) {
+                final long wakeIn = deadline - System.nanoTime();
+                if (wakeIn <= 0) {
+                    break;
+                }
+                feed.await(position, Duration.ofNanos(wakeIn));
+                continue;
+            }
+            final ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (GradeEventDto event : events) {
+                lines.write(writer.writeValueAsBytes(event));
+                lines.write('\n');
+            }
+            emitter.send(lines.toByteArray(), NDJSON);
+            position = events.get(events.size() - 1).getSequence();
+            remaining -= events.size();
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
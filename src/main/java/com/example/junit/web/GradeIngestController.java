@@ -0,0 +1,61 @@
+package com.example.junit.web;
+
+import com.example.junit.service.GradeIngestService;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.PendingGradeDto;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@RestController
+@Timed(value = "app.controller", histogram = true)
+@RequestMapping("/api/students/{id}/grades/pending")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "grades.ingest.enabled", havingValue = "true")
+public class GradeIngestController {
+
+    private final GradeIngestService gradeIngestService;
+
+    @Value("${grades.ingest.retry-after:1}")
+    private long retryAfter;
+
+    @PostMapping
+    public ResponseEntity<PendingGradeDto> accept(@PathVariable Long id,
+                                                  @RequestBody GradeRequest request) {
+        request.setStudentId(id);
+        if (!GradeIngestService.isValid(request)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return gradeIngestService.accept(request)
+                .map(pending -> ResponseEntity.accepted()
+                        .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                                          .path("/{pendingId}")
+                                          .buildAndExpand(pending.getId())
+                                          .toUri())
+                        .body(pending))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                        .build());
+    }
+
+    @GetMapping("/{pendingId}")
+    public ResponseEntity<PendingGradeDto> getStatus(@PathVariable Long id,
+                                                     @PathVariable Long pendingId) {
+        final PendingGradeDto pending = gradeIngestService.getStatus(pendingId);
+        if (!pending.getStudentId().equals(id)) {
+            throw new RuntimeException("Pending grade not found");
+        }
+        return ResponseEntity.ok(pending);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.web.dto.GradeRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+public class GradeRequestReader implements Iterator<GradeRequest> {
+
+    private static final String CSV_HEADER_PREFIX = "studentid";
+
+    private final BufferedReader reader;
+    private final Function<String, GradeRequest> parser;
+    private final boolean skipHeader;
+    private String nextLine;
+    private boolean firstLine = true;
+
+    private GradeRequestReader(InputStream in, Function<String, GradeRequest> parser, boolean skipHeader) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.parser = parser;
+        this.skipHeader = skipHeader;
+    }
+
+    public static GradeRequestReader ndjson(InputStream in, ObjectMapper objectMapper) {
+        return new GradeRequestReader(in, line -> {
+            try {
+                return objectMapper.readValue(line, GradeRequest.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed row: " + e.getOriginalMessage());
+            }
+        }, false);
+    }
+
+    public static GradeRequestReader csv(InputStream in) {
+        return new GradeRequestReader(in, line -> {
+            final String[] columns = line.split(",", -1);
+            if (columns.length != 3) {
+                throw new IllegalArgumentException("Expected 3 columns (studentId,value,discipline) but got " + columns.length);
+            }
+            return new GradeRequest(Long.parseLong(columns[0].trim()),
+                                    Double.parseDouble(columns[1].trim()),
+                                    Discipline.valueOf(columns[2].trim()));
+        }, true);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                final String line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                final boolean header = firstLine && skipHeader && line.trim().toLowerCase().startsWith(CSV_HEADER_PREFIX);
+                firstLine = false;
+                if (!header) {
+                    nextLine = line;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public GradeRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final String line = nextLine;
+        nextLine = null;
+        return parser.apply(line);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.service.ReportService;
+import com.example.junit.web.dto.DisciplineQuantilesDto;
+import com.example.junit.web.dto.GroupReportDto;
+import com.example.junit.web.dto.PromotionDto;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@Timed(value = "app.controller", histogram = true)
+@RequestMapping("/api/reports/groups")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final ReportService reportService;
+
+    @GetMapping
+    public ResponseEntity<List<GroupReportDto>> getGroupReports(@RequestParam(defaultValue = "10") int top) {
+        return ResponseEntity.ok(reportService.getGroupReports(top));
+    }
+
+    @GetMapping("/{group}")
+    public ResponseEntity<GroupReportDto> getGroupReport(@PathVariable String group,
+                                                         @RequestParam(defaultValue = "10") int top) {
+        return ResponseEntity.ok(reportService.getGroupReport(group, top));
+    }
+
+    @GetMapping("/{group}/averages")
+    public ResponseEntity<Map<Long, Map<Discipline, Double>>> getGroupAverages(@PathVariable String group) {
+        return ResponseEntity.ok(reportService.getGroupAverages(group));
+    }
+
+    @GetMapping("/{group}/quantiles")
+    public ResponseEntity<Map<Discipline, DisciplineQuantilesDto>> getGroupQuantiles(@PathVariable String group) {
+        return ResponseEntity.ok(reportService.getGroupQuantiles(group));
+    }
+
+    @GetMapping("/{group}/promotion")
+    public ResponseEntity<Map<Long, PromotionDto>> getGroupPromotion(@PathVariable String group) {
+        return ResponseEntity.ok(reportService.getGroupPromotion(group));
+    }
+}
@@ -1,36 +1,136 @@
 package com.example.junit.web;
 
 import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Student;
+import com.example.junit.service.GradeImportService;
 import com.example.junit.service.GradeService;
+import com.example.junit.service.StudentImportService;
 import com.example.junit.service.StudentService;
+import com.example.junit.web.dto.DisciplineQuantilesDto;
 import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.GradeImportResult;
 import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentBatchResult;
 import com.example.junit.web.dto.StudentDto;
+import com.example.junit.web.dto.StudentGradesResult;
+import com.example.junit.web.dto.StudentStatistic;
+import com.example.junit.web.dto.StudentStatisticsResult;
 import com.example.junit.web.dto.StudentRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@Timed(value = "app.controller", histogram = true)
 @RequestMapping("/api/students")
 @RequiredArgsConstructor
 public class StudentController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final StudentService studentService;
     private final GradeService gradeService;
+    private final GradeImportService gradeImportService;
+    private final StudentImportService studentImportService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${students.batch-read.max-ids:500}")
+    private int maxBatchIds;
 
     @GetMapping
-    public ResponseEntity<List<StudentDto>> get() {
-        return ResponseEntity.ok(studentService.get());
+    public ResponseEntity<StudentList> get(@RequestParam(required = false) Long after,
+                                           @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(new StudentList(studentService.getWithGrades(after, limit)));
+    }
+
+    /**
+     * Every student as one JSON array, read and written a page at a time.
+     * Written on the request thread like {@link #export}, so a large table
+     * is not cut off by the async request timeout.
+     */
+    @GetMapping("/stream")
+    public void stream(@RequestParam(defaultValue = "500") int pageSize, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            List<Student> page = studentService.getWithGrades(null, pageSize);
+            while (!page.isEmpty()) {
+                for (Student student : page) {
+                    StudentJsonWriter.writeStudent(generator, student);
+                }
+                generator.flush();
+                page = studentService.getWithGrades(page.get(page.size() - 1).getId(), pageSize);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * The whole grade book as CSV (one line per grade) or NDJSON (one student
+     * per line), optionally gzipped. Written on the request thread rather than
+     * as a {@link StreamingResponseBody}, so a long export is not cut off by
+     * the async request timeout.
+     */
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "csv") String format,
+                       @RequestParam(defaultValue = "false") boolean gzip,
+                       HttpServletResponse response) throws IOException {
+        final boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        final String fileName = "grade-book." + (csv ? "csv" : "ndjson") + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : new MediaType(csv ? TEXT_CSV : NDJSON, StandardCharsets.UTF_8).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        final OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 64 * 1024) : response.getOutputStream();
+        try (GradeBookWriter writer = csv ? GradeBookWriter.csv(out) : GradeBookWriter.ndjson(out, objectMapper)) {
+            studentService.exportGradeBook(writer);
+        }
+    }
+
+    @GetMapping("/grades")
+    public ResponseEntity<StudentGradesResult> getGradesForStudents(@RequestParam List<Long> ids) {
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(gradeService.getForStudents(ids));
+    }
+
+    @GetMapping("/statistics")
+    public ResponseEntity<StudentStatisticsResult> getStatisticsForStudents(@RequestParam List<Long> ids,
+                                                                            @RequestParam(defaultValue = "AVERAGE,MAX,PROMOTION") Set<StudentStatistic> stats) {
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(gradeService.getStatisticsForStudents(ids, stats));
     }
 
     @GetMapping("/{id}/grades")
@@ -53,15 +153,41 @@ public class StudentController {
         return ResponseEntity.ok(gradeService.isPromotedPerDiscipline(id));
     }
 
+    @GetMapping("/{id}/quantiles")
+    public ResponseEntity<Map<Discipline, DisciplineQuantilesDto>> getQuantilesPerDiscipline(@PathVariable Long id) {
+        return ResponseEntity.ok(gradeService.getQuantilesPerDiscipline(id));
+    }
+
     @PostMapping
     public ResponseEntity<StudentDto> add(@RequestBody StudentRequest request) {
         return new ResponseEntity<>(studentService.add(request), HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<StudentBatchResult> upsert(InputStream body) throws IOException {
+        return ResponseEntity.ok(studentImportService.upsert(StudentRequestReader.of(body, objectMapper)));
+    }
+
     @PostMapping("/{id}/grades")
     public ResponseEntity<GradeDto> addGrade(@PathVariable Long id,
                                              @RequestBody GradeRequest request) {
         request.setStudentId(id);
         return new ResponseEntity<>(gradeService.add(request), HttpStatus.CREATED);
     }
+
+    @PostMapping(value = "/grades", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<GradeImportResult> importGrades(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          InputStream body) {
+        final GradeRequestReader reader = TEXT_CSV.includes(MediaType.parseMediaType(contentType))
+                ? GradeRequestReader.csv(body)
+                : GradeRequestReader.ndjson(body, objectMapper);
+        return ResponseEntity.ok(gradeImportService.importGrades(reader));
+    }
+
+    @DeleteMapping("/{id}/grades/{gradeId}")
+    public ResponseEntity<Void> removeGrade(@PathVariable Long id,
+                                            @PathVariable Long gradeId) {
+        gradeService.remove(id, gradeId);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.Student;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes students and their grades straight from the entities, producing the
+ * same output as serializing {@code StudentDto} with the application's
+ * {@code ObjectMapper}. Field names and discipline values are encoded once.
+ * Array sizes are passed along so binary formats write definite lengths the
+ * way data binding does.
+ */
+public final class StudentJsonWriter {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString GROUP = new SerializedString("group");
+    private static final SerializableString GRADES = new SerializedString("grades");
+    private static final SerializableString VALUE = new SerializedString("value");
+    private static final SerializableString DISCIPLINE = new SerializedString("discipline");
+    private static final Map<Discipline, SerializableString> DISCIPLINES = new EnumMap<>(Discipline.class);
+
+    static {
+        for (Discipline discipline : Discipline.values()) {
+            DISCIPLINES.put(discipline, new SerializedString(discipline.name()));
+        }
+    }
+
+    private StudentJsonWriter() {
+    }
+
+    public static void writeStudents(JsonGenerator generator, List<Student> students) throws IOException {
+        generator.writeStartArray(students, students.size());
+        for (Student student : students) {
+            writeStudent(generator, student);
+        }
+        generator.writeEndArray();
+    }
+
+    public static void writeStudent(JsonGenerator generator, Student student) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        writeNumber(generator, student.getId());
+        generator.writeFieldName(FIRST_NAME);
+        generator.writeString(student.getFirstName());
+        generator.writeFieldName(LAST_NAME);
+        generator.writeString(student.getLastName());
+        generator.writeFieldName(GROUP);
+        generator.writeString(student.getGroup());
+        generator.writeFieldName(GRADES);
+        final List<Grade> grades = student.getGrades();
+        generator.writeStartArray(grades, grades.size());
+        for (Grade grade : grades) {
+            writeGrade(generator, grade);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Opens a student and its grades array when the grades are written one at
+     * a time with {@link #writeGrade(JsonGenerator, Long, Double, Discipline)};
+     * the caller closes both.
+     */
+    public static void writeStudentStart(JsonGenerator generator, Long id, String firstName, String lastName, String group) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        writeNumber(generator, id);
+        generator.writeFieldName(FIRST_NAME);
+        generator.writeString(firstName);
+        generator.writeFieldName(LAST_NAME);
+        generator.writeString(lastName);
+        generator.writeFieldName(GROUP);
+        generator.writeString(group);
+        generator.writeFieldName(GRADES);
+        generator.writeStartArray();
+    }
+
+    public static void writeGrade(JsonGenerator generator, Long id, Double value, Discipline discipline) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        writeNumber(generator, id);
+        generator.writeFieldName(VALUE);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+        generator.writeFieldName(DISCIPLINE);
+        if (discipline == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(DISCIPLINES.get(discipline));
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeGrade(JsonGenerator generator, Grade grade) throws IOException {
+        writeGrade(generator, grade.getId(), grade.getValue(), grade.getDiscipline());
+    }
+
+    private static void writeNumber(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Student;
+
+import java.util.List;
+
+/**
+ * Response body written by {@link StudentListHttpMessageConverter} instead of
+ * a list of {@code StudentDto}s.
+ */
+public record StudentList(List<Student> students) {
+}
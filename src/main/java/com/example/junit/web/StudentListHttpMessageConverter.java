@@ -0,0 +1,67 @@
+package com.example.junit.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link StudentList} as JSON, Smile or CBOR depending on the
+ * negotiated content type, without going through DTOs or data binding.
+ */
+@Component
+public class StudentListHttpMessageConverter extends AbstractHttpMessageConverter<StudentList> {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final JsonFactory jsonFactory;
+    private final JsonFactory smileFactory = new SmileFactory();
+    private final JsonFactory cborFactory = new CBORFactory();
+
+    public StudentListHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, APPLICATION_SMILE, MediaType.APPLICATION_CBOR);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StudentList.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected StudentList readInternal(Class<? extends StudentList> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("StudentList is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(StudentList studentList, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = factoryFor(outputMessage.getHeaders().getContentType()).createGenerator(StreamUtils.nonClosing(outputMessage.getBody()))) {
+            StudentJsonWriter.writeStudents(generator, studentList.students());
+        }
+    }
+
+    private JsonFactory factoryFor(MediaType contentType) {
+        if (APPLICATION_SMILE.isCompatibleWith(contentType)) {
+            return smileFactory;
+        }
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)) {
+            return cborFactory;
+        }
+        return jsonFactory;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.junit.web;
+
+import com.example.junit.web.dto.StudentRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a JSON array or NDJSON of students one row at a time. A row that does
+ * not map to a student fails with {@link IllegalArgumentException} and reading
+ * goes on with the next one. Malformed JSON also fails its row, but ends the
+ * body, as the rows after it cannot be told apart.
+ */
+public class StudentRequestReader implements Iterator<StudentRequest> {
+
+    private final MappingIterator<StudentRequest> values;
+    private JsonProcessingException malformed;
+    private boolean closed;
+
+    private StudentRequestReader(MappingIterator<StudentRequest> values, JsonProcessingException malformed) {
+        this.values = values;
+        this.malformed = malformed;
+    }
+
+    public static StudentRequestReader of(InputStream in, ObjectMapper objectMapper) throws IOException {
+        try {
+            return new StudentRequestReader(objectMapper.readerFor(StudentRequest.class).readValues(in), null);
+        } catch (JsonProcessingException e) {
+            return new StudentRequestReader(null, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (malformed != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            return values.hasNextValue();
+        } catch (JsonProcessingException e) {
+            malformed = e;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public StudentRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (malformed != null) {
+            final JsonProcessingException e = malformed;
+            malformed = null;
+            closed = true;
+            throw malformedRow(e);
+        }
+        try {
+            return values.nextValue();
+        } catch (JsonMappingException e) {
+            throw malformedRow(e);
+        } catch (JsonProcessingException e) {
+            closed = true;
+            throw malformedRow(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static IllegalArgumentException malformedRow(JsonProcessingException e) {
+        return new IllegalArgumentException("Malformed row: " + e.getOriginalMessage());
+    }
+}
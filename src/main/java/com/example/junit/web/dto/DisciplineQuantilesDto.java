@@ -0,0 +1,15 @@
+package com.example.junit.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DisciplineQuantilesDto {
+    private long count;
+    private Double median;
+    private Double p90;
+    private Double trailingAverage;
+}
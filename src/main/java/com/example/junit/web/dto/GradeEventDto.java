@@ -0,0 +1,25 @@
+package com.example.junit.web.dto;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.GradeEventType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GradeEventDto {
+    private long sequence;
+    private GradeEventType type;
+    private Long studentId;
+    private Long gradeId;
+    private String firstName;
+    private String lastName;
+    private String group;
+    private Double value;
+    private Discipline discipline;
+    private Instant createdAt;
+}
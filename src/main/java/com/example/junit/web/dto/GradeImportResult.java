@@ -0,0 +1,17 @@
+package com.example.junit.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class GradeImportResult {
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+}
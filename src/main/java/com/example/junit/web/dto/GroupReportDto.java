@@ -0,0 +1,18 @@
+package com.example.junit.web.dto;
+
+import com.example.junit.domain.Discipline;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@Data
+public class GroupReportDto {
+    private String group;
+    private Long students;
+    private List<RankedStudentDto> top;
+    private Map<Discipline, Double> promotionRate;
+    private Map<Discipline, Map<Integer, Long>> histogram;
+}
@@ -0,0 +1,18 @@
+package com.example.junit.web.dto;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.PendingGradeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class PendingGradeDto {
+    private Long id;
+    private Long studentId;
+    private Double value;
+    private Discipline discipline;
+    private PendingGradeStatus status;
+    private Long gradeId;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.example.junit.web.dto;
+
+import com.example.junit.domain.Discipline;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@AllArgsConstructor
+@Data
+public class PromotionDto {
+    private Map<Discipline, Boolean> disciplines;
+    private boolean promoted;
+}
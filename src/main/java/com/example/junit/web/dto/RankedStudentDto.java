@@ -0,0 +1,13 @@
+package com.example.junit.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+public class RankedStudentDto {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private Double average;
+}
@@ -0,0 +1,13 @@
+package com.example.junit.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RowError {
+    private long row;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.example.junit.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class StudentBatchResult {
+    private List<Long> ids = new ArrayList<>();
+    private long created;
+    private long existing;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package com.example.junit.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@Data
+public class StudentGradesResult {
+    private Map<Long, List<GradeDto>> grades;
+    private List<Long> missing;
+}
@@ -0,0 +1,7 @@
+package com.example.junit.web.dto;
+
+public enum StudentStatistic {
+    AVERAGE,
+    MAX,
+    PROMOTION
+}
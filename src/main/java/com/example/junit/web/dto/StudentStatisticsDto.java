@@ -0,0 +1,17 @@
+package com.example.junit.web.dto;
+
+import com.example.junit.domain.Discipline;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@AllArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StudentStatisticsDto {
+    private Map<Discipline, Double> average;
+    private Map<Discipline, Double> max;
+    private Map<Discipline, Boolean> promotion;
+}
@@ -0,0 +1,14 @@
+package com.example.junit.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@Data
+public class StudentStatisticsResult {
+    private Map<Long, StudentStatisticsDto> statistics;
+    private List<Long> missing;
+}
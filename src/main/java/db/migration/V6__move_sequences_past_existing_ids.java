@@ -0,0 +1,47 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Moves the id sequences past the ids already in their tables. A database
+ * created by the former {@code ddl-auto=update} has identity ids while
+ * {@code V1} starts the sequences at 1, so the first inserts would reuse
+ * existing primary keys.
+ * <p>
+ * Hibernate's pooled optimizer hands out the {@code allocationSize} (50) ids
+ * up to the value it reads, so each sequence restarts 50 past the highest id
+ * or the value it had reached, whichever is larger, and never moves back.
+ * {@code setval} does not exist on H2 and {@code restart with} takes no
+ * subquery on PostgreSQL, hence a Java migration with literal values.
+ */
+public class V6__move_sequences_past_existing_ids extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> SEQUENCES = Map.of("student_seq", "student",
+                                                                "grade_seq", "grade",
+                                                                "pending_grade_seq", "pending_grade");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (Map.Entry<String, String> sequence : SEQUENCES.entrySet()) {
+                final long next = queryForLong(statement, "select nextval('" + sequence.getKey() + "')");
+                final long maxId = queryForLong(statement, "select coalesce(max(id), 0) from " + sequence.getValue());
+                statement.execute("alter sequence " + sequence.getKey() + " restart with " + (Math.max(next, maxId) + ALLOCATION_SIZE));
+            }
+        }
+    }
+
+    private static long queryForLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+-- Idempotent: a database created by the former ddl-auto=update is baselined at
+-- V0, so this runs on it too and only adds what is missing.
+create sequence if not exists student_seq start with 1 increment by 50;
+create sequence if not exists grade_seq start with 1 increment by 50;
+create sequence if not exists pending_grade_seq start with 1 increment by 50;
+
+create table if not exists student (
+    id           bigint not null,
+    first_name   varchar(255),
+    last_name    varchar(255),
+    group_number varchar(255),
+    constraint student_pkey primary key (id)
+);
+
+create table if not exists grade (
+    id         bigint not null,
+    value      double precision,
+    discipline varchar(255) check (discipline in ('PROGRAMMING_FUNDAMENTALS','ARTIFICIAL_INTELLIGENCE','GEOMETRY','ALGEBRA','WEB_DEVELOPMENT')),
+    student_id bigint,
+    constraint grade_pkey primary key (id),
+    constraint grade_student_fk foreign key (student_id) references student (id)
+);
+
+create table if not exists discipline_statistic (
+    student_id  bigint not null,
+    discipline  varchar(255) not null check (discipline in ('PROGRAMMING_FUNDAMENTALS','ARTIFICIAL_INTELLIGENCE','GEOMETRY','ALGEBRA','WEB_DEVELOPMENT')),
+    total       double precision,
+    grade_count bigint,
+    max_value   double precision,
+    min_value   double precision,
+    constraint discipline_statistic_pkey primary key (student_id, discipline)
+);
+
+create table if not exists pending_grade (
+    id         bigint not null,
+    student_id bigint not null,
+    value      double precision,
+    discipline varchar(255) check (discipline in ('PROGRAMMING_FUNDAMENTALS','ARTIFICIAL_INTELLIGENCE','GEOMETRY','ALGEBRA','WEB_DEVELOPMENT')),
+    status     varchar(255) check (status in ('PENDING','APPLIED','REJECTED')),
+    grade_id   bigint,
+    error      varchar(255),
+    constraint pending_grade_pkey primary key (id)
+);
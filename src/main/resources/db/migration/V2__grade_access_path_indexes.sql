@@ -0,0 +1,15 @@
+-- Student.grades loads and the per-discipline statistics queries
+create index grade_student_id_discipline_idx on grade (student_id, discipline);
+
+-- Per-group reports
+create index student_group_number_idx on student (group_number);
+
+-- Pending grade recovery scan
+create index pending_grade_status_id_idx on pending_grade (status, id);
+
+-- ddl-auto=update databases accepted any value. Grades outside 1..10 are moved
+-- to grade_out_of_range, where they can be reviewed, before the check is added.
+create table grade_out_of_range as select * from grade where value not between 1 and 10;
+delete from grade where value not between 1 and 10;
+
+alter table grade add constraint grade_value_check check (value between 1 and 10);
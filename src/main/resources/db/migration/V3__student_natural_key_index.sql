@@ -0,0 +1,3 @@
+-- Natural key lookups of the batch student upsert. Not unique: single student
+-- creation has always allowed students with the same name in the same group.
+create index student_name_group_idx on student (last_name, first_name, group_number);
@@ -0,0 +1,35 @@
+create sequence grade_event_seq start with 1 increment by 50;
+
+-- Outbox of student and grade changes, inserted in the transaction that makes
+-- the change. sequence is null until the relay numbers the committed row.
+create table grade_event (
+    id           bigint not null,
+    sequence     bigint,
+    type         varchar(255) not null check (type in ('STUDENT_CREATED','GRADE_ADDED','GRADE_REMOVED')),
+    student_id   bigint not null,
+    grade_id     bigint,
+    first_name   varchar(255),
+    last_name    varchar(255),
+    group_number varchar(255),
+    value        double precision,
+    discipline   varchar(255) check (discipline in ('PROGRAMMING_FUNDAMENTALS','ARTIFICIAL_INTELLIGENCE','GEOMETRY','ALGEBRA','WEB_DEVELOPMENT')),
+    created_at   timestamp with time zone not null,
+    constraint grade_event_pkey primary key (id)
+);
+
+-- Relay scan (sequence is null, by id) and feed reads (by sequence)
+create index grade_event_sequence_id_idx on grade_event (sequence, id);
+
+-- Compaction of grades that were added and later removed
+create index grade_event_grade_id_idx on grade_event (grade_id);
+
+-- Single row locked by the relay: the last sequence handed out and the
+-- highest sequence deleted by retention
+create table grade_event_relay (
+    id             int not null,
+    last_sequence  bigint not null,
+    purged_through bigint not null,
+    constraint grade_event_relay_pkey primary key (id)
+);
+
+insert into grade_event_relay (id, last_sequence, purged_through) values (1, 0, 0);
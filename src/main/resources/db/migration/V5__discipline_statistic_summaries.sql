@@ -0,0 +1,4 @@
+-- Per-discipline grade histogram and last grades (GradeHistogram, GradeWindow).
+-- Left null on existing rows until DisciplineStatisticRebuildJob repairs them.
+alter table discipline_statistic add column quantile_sketch bytea;
+alter table discipline_statistic add column recent_grades bytea;
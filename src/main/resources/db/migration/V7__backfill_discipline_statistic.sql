@@ -0,0 +1,13 @@
+-- Statistics of grades written before discipline_statistic was maintained
+-- (databases created by the former ddl-auto=update). The histogram and window
+-- are left null, like on the rows written before V5.
+insert into discipline_statistic (student_id, discipline, total, grade_count, max_value, min_value)
+select g.student_id, g.discipline, sum(g.value), count(*), max(g.value), min(g.value)
+from grade g
+where g.student_id is not null
+  and g.discipline is not null
+  and not exists (select 1
+                  from discipline_statistic s
+                  where s.student_id = g.student_id
+                    and s.discipline = g.discipline)
+group by g.student_id, g.discipline;
@@ -0,0 +1,6 @@
+-- Event ids are taken one at a time, so an event written after another one
+-- was committed always has a higher id. With pooled blocks an instance could
+-- still hand out ids from a block fetched before the other instance's. The
+-- pooled optimizer has handed out ids up to the current value at most, so
+-- the next value is free.
+alter sequence grade_event_seq increment by 1;
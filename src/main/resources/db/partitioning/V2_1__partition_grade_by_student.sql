@@ -0,0 +1,31 @@
+-- PostgreSQL only. Rebuilds grade as a table hash partitioned by student_id.
+-- The primary key has to include the partition key, so student_id becomes not null.
+create table grade_partitioned (
+    id         bigint not null,
+    value      double precision,
+    discipline varchar(255) check (discipline in ('PROGRAMMING_FUNDAMENTALS','ARTIFICIAL_INTELLIGENCE','GEOMETRY','ALGEBRA','WEB_DEVELOPMENT')),
+    student_id bigint not null,
+    constraint grade_value_check check (value between 1 and 10),
+    constraint grade_partitioned_pkey primary key (id, student_id),
+    constraint grade_partitioned_student_fk foreign key (student_id) references student (id)
+) partition by hash (student_id);
+
+do $$
+begin
+    for i in 0..${grade_partitions} - 1 loop
+        execute format('create table grade_p%s partition of grade_partitioned for values with (modulus %s, remainder %s)',
+                       i, ${grade_partitions}, i);
+    end loop;
+end
+$$;
+
+insert into grade_partitioned (id, value, discipline, student_id)
+select id, value, discipline, student_id from grade;
+
+drop table grade;
+
+alter table grade_partitioned rename to grade;
+alter table grade rename constraint grade_partitioned_pkey to grade_pkey;
+alter table grade rename constraint grade_partitioned_student_fk to grade_student_fk;
+
+create index grade_student_id_discipline_idx on grade (student_id, discipline);
@@ -0,0 +1,119 @@
+package com.example.junit.config;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Student;
+import com.example.junit.metrics.QueryCounter;
+import com.example.junit.repository.StudentRepository;
+import com.example.junit.service.GradeService;
+import com.example.junit.service.StudentGradeCache;
+import com.example.junit.service.StudentService;
+import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentDto;
+import com.example.junit.web.dto.StudentRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private StudentGradeCache gradeCache;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private StudentRepository studentRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long studentId;
+
+    @BeforeEach
+    public void setup() {
+        studentId = studentService.add(new StudentRequest("John", "White", "G11")).getId();
+        gradeService.add(new GradeRequest(studentId, 9.0, Discipline.ALGEBRA));
+        gradeService.add(new GradeRequest(studentId, 7.0, Discipline.GEOMETRY));
+        readEntity();
+    }
+
+    @Test
+    public void findById_whenRegionWarm_noStatementsRun() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final long hits = statistics.getSecondLevelCacheHitCount();
+        final QueryCounter.Counts counts = QueryCounter.start();
+        try {
+            assertThat(readEntity()).isEqualTo("John");
+        } finally {
+            QueryCounter.stop();
+        }
+
+        assertThat(counts.getStatements()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount() - hits).isEqualTo(1);
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", Student.class.getName())
+                .tag("result", "hit")
+                .functionCounter()).isNotNull();
+    }
+
+    @Test
+    public void add_whenStudentCached_studentReadFromRegion() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final long hits = statistics.getEntityStatistics(Student.class.getName()).getCacheHitCount();
+        final long loads = statistics.getEntityStatistics(Student.class.getName()).getLoadCount();
+
+        gradeService.add(new GradeRequest(studentId, 6.0, Discipline.ALGEBRA));
+
+        assertThat(statistics.getEntityStatistics(Student.class.getName()).getCacheHitCount() - hits).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(Student.class.getName()).getLoadCount() - loads).isZero();
+        assertThat(read()).extracting(GradeDto::getValue).containsExactlyInAnyOrder(9.0, 7.0, 6.0);
+    }
+
+    @Test
+    public void getForStudent_whenGradeWrittenBehindCache_includesGrade() {
+        jdbcTemplate.update("insert into grade (id, value, discipline, student_id) values (nextval('grade_seq'), 5.0, 'ALGEBRA', ?)", studentId);
+
+        assertThat(read()).extracting(GradeDto::getValue).containsExactlyInAnyOrder(9.0, 7.0, 5.0);
+    }
+
+    @Test
+    public void get_whenStudentWrittenBehindCache_includesStudent() {
+        assertThat(studentService.get(studentId - 1, 10)).extracting(StudentDto::getId).containsExactly(studentId);
+        assertThat(studentRepository.findMaxId()).contains(studentId);
+        jdbcTemplate.update("insert into student (id, first_name, last_name, group_number) values (nextval('student_seq') + 1000, 'Ann', 'Black', 'G11')");
+        final Long written = jdbcTemplate.queryForObject("select max(id) from student", Long.class);
+
+        assertThat(studentService.get(studentId - 1, 10)).extracting(StudentDto::getId).containsExactly(studentId, written);
+        assertThat(studentRepository.findMaxId()).contains(written);
+    }
+
+    private String readEntity() {
+        return new TransactionTemplate(transactionManager).execute(status -> studentRepository.findById(studentId).orElseThrow()
+                .getFirstName());
+    }
+
+    private List<GradeDto> read() {
+        gradeCache.evict(studentId);
+        return gradeService.getForStudent(studentId);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.junit.config;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "web.virtual-threads.enabled=true")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    public void requestExecutor_whenEnabled_runsOnVirtualThreads() {
+        final Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+
+        assertThat(runsOnVirtualThread(connector.getProtocolHandler().getExecutor())).isTrue();
+    }
+
+    @Test
+    public void applicationTaskExecutor_whenEnabled_runsOnVirtualThreads() {
+        assertThat(runsOnVirtualThread(applicationTaskExecutor)).isTrue();
+    }
+
+    private static boolean runsOnVirtualThread(Executor executor) {
+        return CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor).join();
+    }
+}
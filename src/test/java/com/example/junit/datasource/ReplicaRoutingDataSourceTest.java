@@ -0,0 +1,132 @@
+package com.example.junit.datasource;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.service.GradeService;
+import com.example.junit.service.StudentService;
+import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentRequest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against three local H2 databases: the primary, one replica and a
+ * replica URL that points to no database.
+ */
+@SpringBootTest(properties = {
+        "datasource.replicas.enabled=true",
+        "datasource.replicas.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL + ";IFEXISTS=TRUE,"
+                + ReplicaRoutingDataSourceTest.MISSING_REPLICA_URL,
+        "datasource.replicas.lag-query=select seconds from replica_lag",
+        "datasource.replicas.max-lag=1s",
+        "datasource.replicas.connection-timeout=250ms",
+        "datasource.replicas.health-check-interval=3600000"
+})
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1";
+    static final String MISSING_REPLICA_URL = "jdbc:h2:mem:missing;IFEXISTS=TRUE";
+    private static final long REPLICA_STUDENT_ID = 1_000_000;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeAll
+    public static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("create table replica_lag (seconds double precision)");
+        replica.update("insert into replica_lag values (0)");
+        replica.update("insert into student (id, first_name, last_name, group_number) values (?, 'Jane', 'Replica', 'G11')", REPLICA_STUDENT_ID);
+        replica.update("insert into grade (id, value, discipline, student_id) values (1000000, 8.0, 'ALGEBRA', ?)", REPLICA_STUDENT_ID);
+    }
+
+    @BeforeEach
+    public void setup() {
+        replica.update("update replica_lag set seconds = 0");
+        routingDataSource.checkReplicas();
+    }
+
+    @Test
+    public void checkReplicas_whenReplicaMissing_takesItOutOfRotation() {
+        assertThat(routingDataSource.getReplicas()).extracting(Replica::isUp).containsExactly(true, false);
+    }
+
+    @Test
+    public void getConnection_whenReadOnly_readsFromReplica() {
+        assertThat(lastNames(true)).containsExactly("Replica");
+        assertThat(lastNames(false)).isEmpty();
+    }
+
+    @Test
+    public void getForStudent_whenNotWrittenRecently_readsFromReplica() {
+        assertThat(gradeService.getForStudent(REPLICA_STUDENT_ID)).extracting(GradeDto::getValue).containsExactly(8.0);
+    }
+
+    @Test
+    public void getForStudent_afterAdd_readsOwnWritesFromPrimary() {
+        final Long studentId = studentService.add(new StudentRequest("John", "White", "G11")).getId();
+        gradeService.add(new GradeRequest(studentId, 9.0, Discipline.ALGEBRA));
+
+        assertThat(gradeService.getForStudent(studentId)).extracting(GradeDto::getValue).containsExactly(9.0);
+        assertThat(gradeService.getAveragePerDiscipline(studentId)).containsEntry(Discipline.ALGEBRA, 9.0);
+    }
+
+    @Test
+    public void checkReplicas_whenLagAboveMax_readsFromPrimaryUntilCaughtUp() {
+        replica.update("update replica_lag set seconds = 30");
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getReplicas().get(0).getLagSeconds()).isEqualTo(30);
+        assertThat(lastNames(true)).isEmpty();
+
+        replica.update("update replica_lag set seconds = 0.5");
+        routingDataSource.checkReplicas();
+
+        assertThat(lastNames(true)).containsExactly("Replica");
+    }
+
+    @Test
+    public void getConnection_whenReplicaFails_failsOverToPrimary() {
+        final Replica missing = routingDataSource.getReplicas().get(1);
+        missing.update(true, 0);
+
+        final List<String> reads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reads.addAll(lastNames(true));
+        }
+
+        assertThat(missing.isUp()).isFalse();
+        assertThat(reads).hasSize(3).containsOnly("Replica");
+    }
+
+    private List<String> lastNames(boolean readOnly) {
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForList("select last_name from student where id = ?",
+                                                                        String.class, REPLICA_STUDENT_ID));
+    }
+}
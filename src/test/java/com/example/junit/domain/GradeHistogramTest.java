@@ -0,0 +1,99 @@
+package com.example.junit.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GradeHistogramTest {
+
+    private static final double[] QUANTILES = {0.0, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1.0};
+
+    @Test
+    public void quantile_whenGradesOnBucketGrid_exact() {
+        Random random = new Random(7);
+        List<Double> values = new ArrayList<>();
+        GradeHistogram histogram = new GradeHistogram();
+        for (int i = 0; i < 5_000; i++) {
+            double value = 1 + random.nextInt(181) * 0.05;
+            values.add(value);
+            histogram.add(value);
+        }
+
+        for (double q : QUANTILES) {
+            assertThat(histogram.quantile(q)).isCloseTo(exact(values, q), within(1e-9));
+        }
+    }
+
+    @Test
+    public void quantile_whenArbitraryGrades_withinHalfBucket() {
+        Random random = new Random(11);
+        List<Double> values = new ArrayList<>();
+        GradeHistogram histogram = new GradeHistogram();
+        for (int i = 0; i < 5_000; i++) {
+            double value = Math.min(Grade.MAX_VALUE, Math.max(Grade.MIN_VALUE, 7 + random.nextGaussian() * 1.5));
+            values.add(value);
+            histogram.add(value);
+        }
+
+        for (double q : QUANTILES) {
+            assertThat(histogram.quantile(q)).isCloseTo(exact(values, q), within(GradeHistogram.MAX_ERROR + 1e-9));
+        }
+    }
+
+    @Test
+    public void merge_whenInvoked_equalsHistogramOfAllGrades() {
+        Random random = new Random(13);
+        GradeHistogram left = new GradeHistogram();
+        GradeHistogram right = new GradeHistogram();
+        GradeHistogram all = new GradeHistogram();
+        for (int i = 0; i < 1_000; i++) {
+            double value = 1 + random.nextDouble() * 9;
+            (i % 3 == 0 ? left : right).add(value);
+            all.add(value);
+        }
+
+        left.merge(right);
+
+        assertThat(left).isEqualTo(all);
+        assertThat(left.count()).isEqualTo(1_000);
+    }
+
+    @Test
+    public void remove_whenGradeAddedBefore_undoesTheAdd() {
+        GradeHistogram histogram = new GradeHistogram();
+        histogram.add(9.5);
+        histogram.add(4.0);
+        histogram.add(7.25);
+
+        histogram.remove(9.5);
+
+        assertThat(histogram.count()).isEqualTo(2);
+        assertThat(histogram.quantile(1.0)).isEqualTo(7.25);
+    }
+
+    @Test
+    public void fromBytes_whenWrittenByToBytes_sameHistogram() {
+        GradeHistogram histogram = new GradeHistogram();
+        for (int i = 0; i < 300; i++) {
+            histogram.add(10.0);
+        }
+        histogram.add(1.0);
+        histogram.add(5.55);
+
+        byte[] bytes = histogram.toBytes();
+
+        assertThat(GradeHistogram.fromBytes(bytes)).isEqualTo(histogram);
+        assertThat(bytes).hasSize(7);
+    }
+
+    private static double exact(List<Double> values, double q) {
+        List<Double> sorted = values.stream().sorted().toList();
+        int rank = Math.max(1, (int) Math.ceil(q * sorted.size()));
+        return sorted.get(rank - 1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.junit.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GradeWindowTest {
+
+    @Test
+    public void add_whenFull_dropsOldestGrade() {
+        GradeWindow window = GradeWindow.of(List.of(5.0, 6.0, 7.0, 8.0), 3);
+
+        window.add(9.5);
+
+        assertThat(window.values()).containsExactly(7.0, 8.0, 9.5);
+        assertThat(window.average()).isCloseTo(24.5 / 3, within(1e-9));
+        assertThat(window.contains(6.0)).isFalse();
+    }
+
+    @Test
+    public void fromBytes_whenWrittenByToBytes_sameGradesInOrder() {
+        GradeWindow window = GradeWindow.of(List.of(9.0, 4.5, 7.25, 10.0), 3);
+
+        GradeWindow read = GradeWindow.fromBytes(window.toBytes(), 3);
+
+        assertThat(read.values()).containsExactly(4.5, 7.25, 10.0);
+        assertThat(window.toBytes()).hasSize(6);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.junit.perf;
+
+import com.example.junit.JunitApplication;
+import org.flywaydb.core.Flyway;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports {@code perf.export.grades} grades (5M) through
+ * {@code GET /api/students/export} from the application running in its own
+ * JVM with {@code perf.export.xmx} of heap (128m), and checks every row
+ * arrives in each format. The database stand-in is an H2 file database served
+ * over TCP from the test JVM, so its memory does not count against the
+ * application's heap. It is seeded once and reused by later runs.
+ */
+@Tag("perf")
+class GradeBookExportLoadTest {
+
+    private static final int GRADES = Integer.getInteger("perf.export.grades", 5_000_000);
+    private static final int GRADES_PER_STUDENT = Integer.getInteger("perf.export.grades-per-student", 10);
+    private static final int STUDENTS = GRADES / GRADES_PER_STUDENT;
+    private static final String XMX = System.getProperty("perf.export.xmx", "128m");
+    private static final Duration TIMEOUT = Duration.ofSeconds(Integer.getInteger("perf.export.timeout-seconds", 600));
+    private static final Path WORK_DIR = Path.of("target", "export");
+    private static final String OPTIONS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=VALUE";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    public void export_whenMillionsOfGrades_streamsWithinSmallHeap() throws Exception {
+        Files.createDirectories(WORK_DIR);
+        seed("jdbc:h2:file:" + WORK_DIR.toAbsolutePath().resolve("db") + OPTIONS);
+        final Server database = Server.createTcpServer("-tcpPort", String.valueOf(freePort()), "-baseDir", WORK_DIR.toAbsolutePath().toString()).start();
+        final int port = freePort();
+        final Process process = start(database.getPort(), port);
+        try {
+            assertThat(awaitFirstResponse(process, port)).as("application started, see %s", WORK_DIR.resolve("app.log")).isTrue();
+
+            final long csvLines = export(port, "csv", false);
+            final long ndjsonLines = export(port, "ndjson", false);
+            final long gzipLines = export(port, "csv", true);
+
+            assertThat(csvLines).isEqualTo(GRADES + 1L);
+            assertThat(ndjsonLines).isEqualTo(STUDENTS);
+            assertThat(gzipLines).isEqualTo(GRADES + 1L);
+            assertThat(process.isAlive()).isTrue();
+            System.out.printf("RSS after the exports: %d MB with -Xmx%s%n", rss(process.pid()) / 1024, XMX);
+        } finally {
+            process.destroy();
+            process.waitFor();
+            database.stop();
+        }
+        assertThat(Files.readString(WORK_DIR.resolve("app.log"))).doesNotContain("OutOfMemoryError");
+    }
+
+    private long export(int port, String format, boolean gzip) throws IOException, InterruptedException {
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/students/export?format=" + format + "&gzip=" + gzip))
+                .timeout(TIMEOUT)
+                .build();
+        final long start = System.nanoTime();
+        final HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        long lines = 0;
+        long bytes = 0;
+        try (InputStream body = gzip ? new GZIPInputStream(response.body(), 64 * 1024) : response.body()) {
+            final byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = body.read(buffer)) > 0) {
+                bytes += read;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+        final long millis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+        System.out.printf("%-6s gzip=%-5s %,d lines, %,d MB in %,d ms (%,d rows/s)%n",
+                          format, gzip, lines, bytes >> 20, millis, lines * 1000 / millis);
+        return lines;
+    }
+
+    /**
+     * Migrates and fills the database unless a previous run already did.
+     */
+    private static void seed(String url) throws SQLException {
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            try (ResultSet count = statement.executeQuery("select count(*) from grade")) {
+                count.next();
+                if (count.getLong(1) == GRADES) {
+                    return;
+                }
+            }
+            statement.execute("delete from grade");
+            statement.execute("delete from discipline_statistic");
+            statement.execute("delete from student");
+            statement.execute("insert into student (id, first_name, last_name, group_number) "
+                              + "select x, 'First' || x, 'Last' || x, 'G' || mod(x, 100) from system_range(1, " + STUDENTS + ") r(x)");
+            statement.execute("insert into grade (id, value, discipline, student_id) "
+                              + "select x, 1 + mod(x, 19) * 0.5, "
+                              + "case mod(x, 5) when 0 then 'PROGRAMMING_FUNDAMENTALS' when 1 then 'ARTIFICIAL_INTELLIGENCE' "
+                              + "when 2 then 'GEOMETRY' when 3 then 'ALGEBRA' else 'WEB_DEVELOPMENT' end, "
+                              + "1 + (x - 1) / " + GRADES_PER_STUDENT + " from system_range(1, " + GRADES + ") r(x)");
+            statement.execute("alter sequence student_seq restart with " + (STUDENTS + 1));
+            statement.execute("alter sequence grade_seq restart with " + (GRADES + 1));
+        }
+    }
+
+    private static Process start(int databasePort, int port) throws IOException {
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(List.of("-Xmx" + XMX,
+                               "-XX:+ExitOnOutOfMemoryError",
+                               "-Dspring.datasource.url=jdbc:h2:tcp://localhost:" + databasePort + "/./db" + OPTIONS,
+                               "-Dserver.port=" + port,
+                               "-Dlogging.level.root=warn",
+                               "-cp", System.getProperty("surefire.test.class.path", System.getProperty("java.class.path")),
+                               JunitApplication.class.getName()));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(WORK_DIR.resolve("app.log").toFile())
+                .start();
+    }
+
+    private boolean awaitFirstResponse(Process process, int port) throws InterruptedException {
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/students?limit=1"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return true;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private static long rss(long pid) throws IOException {
+        final Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1L);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
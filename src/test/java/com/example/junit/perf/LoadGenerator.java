@@ -0,0 +1,145 @@
+package com.example.junit.perf;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop HTTP load: {@code concurrency} clients on virtual threads issue
+ * requests until {@code requests} are done. Operations are interleaved in
+ * proportion to their weights, and each one is handed the number of times it
+ * ran before, over all runs of this generator, so it can walk its own targets. Latencies are recorded per
+ * operation in HdrHistograms; any status other than 2xx counts as an error.
+ */
+final class LoadGenerator {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient client;
+    private final List<Operation> operations;
+    private final int[] schedule;
+    private final AtomicInteger[] invocations;
+
+    LoadGenerator(List<URI> targets) {
+        this(List.of(new Operation("get", 1, i -> HttpRequest.newBuilder(targets.get(i % targets.size())).GET().build())), 0);
+    }
+
+    LoadGenerator(List<Operation> operations, long seed) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.operations = operations;
+        final List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            for (int j = 0; j < operations.get(i).weight(); j++) {
+                slots.add(i);
+            }
+        }
+        Collections.shuffle(slots, new Random(seed));
+        this.schedule = slots.stream().mapToInt(Integer::intValue).toArray();
+        this.invocations = new AtomicInteger[operations.size()];
+        for (int i = 0; i < operations.size(); i++) {
+            invocations[i] = new AtomicInteger();
+        }
+    }
+
+    Result run(int concurrency, int requests) {
+        final Map<String, Histogram> latencies = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            latencies.put(operation.name(), new ConcurrentHistogram(MAX_LATENCY_NANOS, 3));
+        }
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        final long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    for (int request = next.getAndIncrement(); request < requests; request = next.getAndIncrement()) {
+                        final int index = schedule[request % schedule.length];
+                        final Operation operation = operations.get(index);
+                        final long latency = send(operation.request().apply(invocations[index].getAndIncrement()), errors);
+                        latencies.get(operation.name()).recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+                    }
+                });
+            }
+        }
+        return new Result(requests, errors.get(), Duration.ofNanos(System.nanoTime() - start), latencies);
+    }
+
+    private long send(HttpRequest request, AtomicInteger errors) {
+        final long start = System.nanoTime();
+        try {
+            final HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                errors.incrementAndGet();
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.incrementAndGet();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * A kind of request and its share of the load. {@code request} maps the
+     * number of earlier invocations of this operation to the next request.
+     */
+    record Operation(String name, int weight, IntFunction<HttpRequest> request) {
+    }
+
+    record Result(int requests, int errors, Duration elapsed, Map<String, Histogram> latencies) {
+
+        double throughput() {
+            return requests / seconds();
+        }
+
+        double throughput(String operation) {
+            return latencies.get(operation).getTotalCount() / seconds();
+        }
+
+        double percentileMillis(double percentile) {
+            final Histogram total = new Histogram(MAX_LATENCY_NANOS, 3);
+            latencies.values().forEach(total::add);
+            return total.getValueAtPercentile(percentile) / 1e6;
+        }
+
+        double percentileMillis(String operation, double percentile) {
+            return latencies.get(operation).getValueAtPercentile(percentile) / 1e6;
+        }
+
+        private double seconds() {
+            return elapsed.toNanos() / 1e9;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%8.1f req/s  p50 %7.2f ms  p90 %7.2f ms  p99 %7.2f ms  max %8.2f ms  errors %d",
+                                 throughput(),
+                                 percentileMillis(50),
+                                 percentileMillis(90),
+                                 percentileMillis(99),
+                                 percentileMillis(100),
+                                 errors);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.junit.perf;
+
+import com.example.junit.JunitApplication;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application in a fresh JVM per run and measures the time from
+ * process start to the first successful {@code GET /api/students}, and the
+ * resident set size after {@code perf.startup.idle-seconds} of idling.
+ * Compares the default configuration with the {@code fast-start} profile,
+ * with AOT and with a class-data sharing archive dumped by a training run.
+ * The last two need {@code -Pfast-start package} first: AOT needs the
+ * processed classes, and the archive needs the application and its
+ * dependencies as jars, which it runs from instead of the test class path.
+ * Runs against an H2 file database migrated up front unless the datasource
+ * is overridden through {@code -Dspring.datasource.*}.
+ */
+@Tag("perf")
+class StartupBenchmarkTest {
+
+    private static final int RUNS = Integer.getInteger("perf.startup.runs", 5);
+    private static final int IDLE_SECONDS = Integer.getInteger("perf.startup.idle-seconds", 5);
+    private static final Duration TIMEOUT = Duration.ofSeconds(Integer.getInteger("perf.startup.timeout-seconds", 120));
+    private static final Path WORK_DIR = Path.of("target", "startup");
+    private static final String AOT_INITIALIZER = JunitApplication.class.getName() + "__ApplicationContextInitializer";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    public void compareStartupConfigurations() throws Exception {
+        Files.createDirectories(WORK_DIR);
+        final Optional<Path> packaged = packagedJar();
+        final List<String> launch = new ArrayList<>(database(packaged.isPresent()));
+        launch.addAll(List.of("-cp", classPath(packaged), JunitApplication.class.getName()));
+        final List<String> fastStart = List.of("-Dspring.profiles.active=fast-start");
+        final List<String> optimized = new ArrayList<>(fastStart);
+        if (aotProcessed()) {
+            optimized.add("-Dspring.aot.enabled=true");
+        }
+
+        final Map<String, List<String>> configurations = new LinkedHashMap<>();
+        configurations.put("default", List.of());
+        configurations.put("fast-start", fastStart);
+        if (aotProcessed()) {
+            configurations.put("fast-start+aot", optimized);
+        }
+        if (packaged.isPresent()) {
+            final Path archive = WORK_DIR.resolve("app.jsa");
+            Files.deleteIfExists(archive);
+            final List<String> training = new ArrayList<>(optimized);
+            training.addAll(List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dstartup.training-run=true"));
+            train(training, launch);
+            assertThat(archive).exists();
+            final List<String> withArchive = new ArrayList<>(optimized);
+            withArchive.add("-XX:SharedArchiveFile=" + archive);
+            configurations.put(aotProcessed() ? "fast-start+aot+cds" : "fast-start+cds", withArchive);
+        } else {
+            System.out.println("No packaged jar in target, skipping class-data sharing (run -Pfast-start package first)");
+        }
+
+        final Map<String, Stats> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+            results.put(configuration.getKey(), measure(configuration.getValue(), launch));
+        }
+
+        System.out.printf("%d runs per configuration, RSS after %d s idle%n", RUNS, IDLE_SECONDS);
+        results.forEach((name, stats) -> System.out.printf("%-20s %s%n", name, stats));
+        assertThat(results.values()).allSatisfy(stats -> assertThat(stats.failures()).isZero());
+    }
+
+    private Stats measure(List<String> jvmArgs, List<String> launch) throws Exception {
+        final List<Long> startupMillis = new ArrayList<>();
+        final List<Long> rssKilobytes = new ArrayList<>();
+        int failures = 0;
+        for (int i = 0; i < RUNS; i++) {
+            final int port = freePort();
+            final long start = System.nanoTime();
+            final Process process = start(jvmArgs, launch, port);
+            try {
+                if (awaitFirstResponse(process, port, start)) {
+                    startupMillis.add((System.nanoTime() - start) / 1_000_000);
+                    Thread.sleep(IDLE_SECONDS * 1000L);
+                    rssKilobytes.add(rss(process.pid()));
+                } else {
+                    failures++;
+                }
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+        return new Stats(startupMillis, rssKilobytes, failures);
+    }
+
+    private void train(List<String> jvmArgs, List<String> launch) throws Exception {
+        final Process process = start(jvmArgs, launch, freePort());
+        if (!process.waitFor(TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Training run did not exit");
+        }
+    }
+
+    private boolean awaitFirstResponse(Process process, int port, long start) throws InterruptedException {
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/students?limit=1"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        while (System.nanoTime() - start < TIMEOUT.toNanos() && process.isAlive()) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return true;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    private static Process start(List<String> jvmArgs, List<String> launch, int port) throws IOException {
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-Dserver.port=" + port, "-Dlogging.level.root=warn"));
+        command.addAll(launch);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(WORK_DIR.resolve("app.log").toFile())
+                .start();
+    }
+
+    /**
+     * The jar built by {@code -Pfast-start package}, which lists its
+     * dependencies in {@code target/lib} in its manifest.
+     */
+    private static Optional<Path> packagedJar() throws IOException {
+        if (!Files.isDirectory(Path.of("target", "lib"))) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(Path.of("target"))) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .filter(file -> !file.getFileName().toString().endsWith("-exec.jar"))
+                    .findFirst();
+        }
+    }
+
+    /**
+     * The packaged jar plus the H2 driver, which is test scoped, or the test
+     * class path when nothing was packaged. A class-data sharing archive
+     * can only be dumped when every class path entry is a jar.
+     */
+    private static String classPath(Optional<Path> packaged) {
+        final String testClassPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        return packaged.map(jar -> Stream.concat(
+                        Stream.of(jar.toString()),
+                        Arrays.stream(testClassPath.split(File.pathSeparator))
+                                .filter(entry -> new File(entry).getName().startsWith("h2-")))
+                        .collect(Collectors.joining(File.pathSeparator)))
+                .orElse(testClassPath);
+    }
+
+    private static List<String> database(boolean packaged) {
+        final List<String> overrides = System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("spring.datasource.") || name.equals("spring.jpa.database-platform"))
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toList();
+        if (!overrides.isEmpty()) {
+            return overrides;
+        }
+        final String url = "jdbc:h2:file:" + WORK_DIR.toAbsolutePath().resolve("db")
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=VALUE";
+        new File(WORK_DIR.toFile(), "db.mv.db").delete();
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        if (!packaged) {
+            return List.of("-Dspring.datasource.url=" + url);
+        }
+        return List.of("-Dspring.datasource.url=" + url,
+                       "-Dspring.datasource.driver-class-name=org.h2.Driver",
+                       "-Dspring.datasource.username=sa",
+                       "-Dspring.datasource.password=",
+                       "-Dspring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+    }
+
+    private static boolean aotProcessed() {
+        try {
+            Class.forName(AOT_INITIALIZER, false, StartupBenchmarkTest.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static long rss(long pid) throws IOException {
+        final Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1L);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    record Stats(List<Long> startupMillis, List<Long> rssKilobytes, int failures) {
+
+        @Override
+        public String toString() {
+            return "first response p50 %d ms max %d ms, RSS p50 %d MB max %d MB, %d failed"
+                    .formatted(median(startupMillis), max(startupMillis),
+                               median(rssKilobytes) / 1024, max(rssKilobytes) / 1024, failures);
+        }
+
+        private static long median(List<Long> values) {
+            if (values.isEmpty()) {
+                return -1;
+            }
+            final List<Long> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            return sorted.get(sorted.size() / 2);
+        }
+
+        private static long max(List<Long> values) {
+            return values.stream().mapToLong(Long::longValue).max().orElse(-1);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.junit.perf;
+
+import com.example.junit.JunitApplication;
+import com.example.junit.domain.Discipline;
+import com.example.junit.service.GradeImportService;
+import com.example.junit.service.StudentImportService;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed read/write load over every {@code StudentController} endpoint against
+ * a seeded database, compared with a stored baseline. A run fails when the
+ * throughput drops, or the p50, p99 or p99.9 latency of an operation grows,
+ * by more than {@code perf.regression.threshold}; latencies must also grow by
+ * more than {@code perf.regression.min-delta-ms} so sub-millisecond jitter
+ * does not count. A percentile is only recorded when at least
+ * {@value #MIN_TAIL_SAMPLES} samples lie above it, so the p99.9 of a rare
+ * operation, which is just its slowest request, is left out. Without a
+ * baseline file, or with
+ * {@code -Dperf.baseline.update=true}, the run is written as the new baseline.
+ * Runs against the test database unless the datasource is overridden.
+ */
+@Tag("perf")
+class StudentEndpointsLoadTest {
+
+    private static final int STUDENTS = Integer.getInteger("perf.students", 2000);
+    private static final int GRADES_PER_STUDENT = Integer.getInteger("perf.grades-per-student", 10);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 32);
+    private static final int REQUESTS = Integer.getInteger("perf.requests", 10000);
+    private static final int POOL_SIZE = Integer.getInteger("perf.pool-size", 20);
+    private static final Path BASELINE = Path.of(System.getProperty("perf.baseline",
+                                                                    "src/test/resources/perf/student-endpoints-baseline.properties"));
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("perf.baseline.update");
+    private static final double THRESHOLD = Double.parseDouble(System.getProperty("perf.regression.threshold", "0.25"));
+    private static final double MIN_DELTA_MILLIS = Double.parseDouble(System.getProperty("perf.regression.min-delta-ms", "2"));
+    private static final Path LATEST = Path.of("target", "perf", "student-endpoints.properties");
+    private static final int BATCH_SIZE = 20;
+    private static final int MIN_TAIL_SAMPLES = 10;
+
+    @Test
+    public void studentEndpoints_underMixedLoad_doNotRegress() throws IOException {
+        final LoadGenerator.Result result;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JunitApplication.class)
+                .properties("server.port=0",
+                            "logging.level.root=warn",
+                            "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE)
+                .run()) {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final LoadGenerator generator = new LoadGenerator(operations("http://localhost:" + port + "/api/students", seed(context)), 42);
+            generator.run(CONCURRENCY, REQUESTS / 10);
+            result = generator.run(CONCURRENCY, REQUESTS);
+        }
+
+        System.out.printf("%d students, %d grades each, %d clients, %d requests, %d connections%n",
+                          STUDENTS, GRADES_PER_STUDENT, CONCURRENCY, REQUESTS, POOL_SIZE);
+        System.out.printf("%-14s %s%n", "all", result);
+        result.latencies().keySet().forEach(operation -> System.out.printf("%-14s %8.1f req/s  p50 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms%n",
+                                                                           operation,
+                                                                           result.throughput(operation),
+                                                                           result.percentileMillis(operation, 50),
+                                                                           result.percentileMillis(operation, 99),
+                                                                           result.percentileMillis(operation, 99.9)));
+        assertThat(result.errors()).isZero();
+
+        final Map<String, Double> measured = metrics(result);
+        write(LATEST, measured);
+        if (UPDATE_BASELINE || !Files.exists(BASELINE)) {
+            write(BASELINE, measured);
+            System.out.println("Baseline written to " + BASELINE);
+            return;
+        }
+        assertThat(regressions(read(BASELINE), measured)).as("regressions against %s", BASELINE).isEmpty();
+    }
+
+    private static Seed seed(ConfigurableApplicationContext context) {
+        final List<StudentRequest> students = IntStream.range(0, STUDENTS)
+                .mapToObj(i -> new StudentRequest("Student" + i, "Load", "G" + i % 100))
+                .toList();
+        final List<Long> ids = context.getBean(StudentImportService.class).upsert(students.iterator()).getIds();
+        final Random random = new Random(42);
+        final Discipline[] disciplines = Discipline.values();
+        final List<GradeRequest> grades = new ArrayList<>(STUDENTS * GRADES_PER_STUDENT);
+        for (Long id : ids) {
+            for (int j = 0; j < GRADES_PER_STUDENT; j++) {
+                grades.add(new GradeRequest(id, 1.0 + random.nextInt(10), disciplines[random.nextInt(disciplines.length)]));
+            }
+        }
+        context.getBean(GradeImportService.class).importGrades(grades.iterator());
+        final List<long[]> removable = context.getBean(JdbcTemplate.class)
+                .query("select id, student_id from grade order by id desc", (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        return new Seed(ids, removable);
+    }
+
+    private static List<LoadGenerator.Operation> operations(String base, Seed seed) {
+        final List<Long> ids = seed.studentIds();
+        final Discipline[] disciplines = Discipline.values();
+        return List.of(
+                new LoadGenerator.Operation("list", 100, i -> get(base + "?after=" + ids.get(i % ids.size()) + "&limit=50")),
+                new LoadGenerator.Operation("stream", 1, i -> get(base + "/stream")),
+                new LoadGenerator.Operation("grades", 200, i -> get(base + "/" + ids.get(i % ids.size()) + "/grades")),
+                new LoadGenerator.Operation("average", 200, i -> get(base + "/" + ids.get(i % ids.size()) + "/average")),
+                new LoadGenerator.Operation("max", 100, i -> get(base + "/" + ids.get(i % ids.size()) + "/max")),
+                new LoadGenerator.Operation("promotion", 100, i -> get(base + "/" + ids.get(i % ids.size()) + "/promotion")),
+                new LoadGenerator.Operation("add-student", 50, i -> post(base, "application/json",
+                        "{\"firstName\":\"Added" + i + "\",\"lastName\":\"Load\",\"group\":\"G" + i % 100 + "\"}")),
+                new LoadGenerator.Operation("batch", 10, i -> post(base + "/batch", "application/x-ndjson", IntStream.range(0, BATCH_SIZE)
+                        .mapToObj(j -> "{\"firstName\":\"Batch" + (i * BATCH_SIZE + j) + "\",\"lastName\":\"Load\",\"group\":\"G" + j + "\"}\n")
+                        .collect(Collectors.joining()))),
+                new LoadGenerator.Operation("add-grade", 150, i -> post(base + "/" + ids.get(i % ids.size()) + "/grades", "application/json",
+                        "{\"value\":" + (1 + i % 10) + ",\"discipline\":\"" + disciplines[i % disciplines.length] + "\"}")),
+                new LoadGenerator.Operation("import-grades", 10, i -> post(base + "/grades", "text/csv", IntStream.range(0, BATCH_SIZE)
+                        .mapToObj(j -> ids.get((i * BATCH_SIZE + j) % ids.size()) + "," + (1 + j % 10) + "," + disciplines[j % disciplines.length] + "\n")
+                        .collect(Collectors.joining()))),
+                new LoadGenerator.Operation("remove-grade", 50, i -> {
+                    final long[] grade = seed.removableGrades().get(i);
+                    return HttpRequest.newBuilder(URI.create(base + "/" + grade[1] + "/grades/" + grade[0])).DELETE().build();
+                }));
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static HttpRequest post(String uri, String contentType, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static Map<String, Double> metrics(LoadGenerator.Result result) {
+        final Map<String, Double> metrics = new LinkedHashMap<>();
+        metrics.put("throughput", result.throughput());
+        percentiles(metrics, "all", result.requests(), result::percentileMillis);
+        result.latencies().forEach((operation, latencies) -> percentiles(metrics, operation, latencies.getTotalCount(),
+                                                                         percentile -> result.percentileMillis(operation, percentile)));
+        return metrics;
+    }
+
+    private static void percentiles(Map<String, Double> metrics, String name, long samples, DoubleUnaryOperator millisAt) {
+        final Map<String, Double> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", 50.0);
+        percentiles.put("p99", 99.0);
+        percentiles.put("p999", 99.9);
+        percentiles.forEach((label, percentile) -> {
+            if (Math.round(samples * (100 - percentile) / 100) >= MIN_TAIL_SAMPLES) {
+                metrics.put(name + "." + label, millisAt.applyAsDouble(percentile));
+            }
+        });
+    }
+
+    private static List<String> regressions(Map<String, Double> baseline, Map<String, Double> measured) {
+        final List<String> regressions = new ArrayList<>();
+        baseline.forEach((metric, expected) -> {
+            final Double actual = measured.get(metric);
+            if (actual == null) {
+                return;
+            }
+            final boolean regressed = metric.equals("throughput")
+                    ? actual < expected * (1 - THRESHOLD)
+                    : actual > expected * (1 + THRESHOLD) && actual - expected > MIN_DELTA_MILLIS;
+            if (regressed) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.2f, baseline %.2f", metric, actual, expected));
+            }
+        });
+        return regressions;
+    }
+
+    private static Map<String, Double> read(Path file) throws IOException {
+        final Properties properties = new Properties();
+        try (BufferedReader in = Files.newBufferedReader(file)) {
+            properties.load(in);
+        }
+        final Map<String, Double> metrics = new LinkedHashMap<>();
+        properties.stringPropertyNames().forEach(name -> metrics.put(name, Double.parseDouble(properties.getProperty(name))));
+        return metrics;
+    }
+
+    private static void write(Path file, Map<String, Double> metrics) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, metrics.entrySet().stream()
+                .map(metric -> String.format(Locale.ROOT, "%s=%.2f", metric.getKey(), metric.getValue()))
+                .toList());
+    }
+
+    private record Seed(List<Long> studentIds, List<long[]> removableGrades) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.junit.perf;
+
+import com.example.junit.JunitApplication;
+import com.example.junit.domain.Discipline;
+import com.example.junit.service.GradeImportService;
+import com.example.junit.service.StudentService;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform and virtual request threads under the same closed-loop
+ * load. Runs against the test database unless the datasource is overridden,
+ * e.g. {@code -Dspring.datasource.url=jdbc:postgresql://localhost:5432/junit}.
+ */
+@Tag("perf")
+class ThreadModelLoadTest {
+
+    private static final int STUDENTS = Integer.getInteger("perf.students", 1000);
+    private static final int GRADES_PER_STUDENT = Integer.getInteger("perf.grades-per-student", 20);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 400);
+    private static final int REQUESTS = Integer.getInteger("perf.requests", 20000);
+    private static final int POOL_SIZE = Integer.getInteger("perf.pool-size", 50);
+
+    @Test
+    public void compareThreadModels() {
+        final Map<String, LoadGenerator.Result> results = new LinkedHashMap<>();
+        results.put("platform", run(false));
+        results.put("virtual", run(true));
+
+        System.out.printf("%d clients, %d requests, %d connections%n", CONCURRENCY, REQUESTS, POOL_SIZE);
+        results.forEach((mode, result) -> System.out.printf("%-8s %s%n", mode, result));
+        assertThat(results.values()).allSatisfy(result -> assertThat(result.errors()).isZero());
+    }
+
+    private LoadGenerator.Result run(boolean virtualThreads) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JunitApplication.class)
+                .properties("server.port=0",
+                            "logging.level.root=warn",
+                            "grades.cache.enabled=false",
+                            "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                            "web.virtual-threads.enabled=" + virtualThreads)
+                .run()) {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final LoadGenerator generator = new LoadGenerator(targets(port, seed(context)));
+            generator.run(CONCURRENCY, REQUESTS / 10);
+            return generator.run(CONCURRENCY, REQUESTS);
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext context) {
+        final StudentService studentService = context.getBean(StudentService.class);
+        final Random random = new Random(42);
+        final List<Long> ids = new ArrayList<>(STUDENTS);
+        final List<GradeRequest> grades = new ArrayList<>(STUDENTS * GRADES_PER_STUDENT);
+        final Discipline[] disciplines = Discipline.values();
+        for (int i = 0; i < STUDENTS; i++) {
+            final Long id = studentService.add(new StudentRequest("John", "White", "G" + i % 100)).getId();
+            ids.add(id);
+            for (int j = 0; j < GRADES_PER_STUDENT; j++) {
+                grades.add(new GradeRequest(id, 1.0 + random.nextInt(10), disciplines[random.nextInt(disciplines.length)]));
+            }
+        }
+        context.getBean(GradeImportService.class).importGrades(grades.iterator());
+        return ids;
+    }
+
+    private static List<URI> targets(int port, List<Long> ids) {
+        final List<URI> targets = new ArrayList<>(ids.size() * 2);
+        for (Long id : ids) {
+            targets.add(URI.create("http://localhost:" + port + "/api/students/" + id + "/grades"));
+            targets.add(URI.create("http://localhost:" + port + "/api/students/" + id + "/average"));
+        }
+        return targets;
+    }
+}
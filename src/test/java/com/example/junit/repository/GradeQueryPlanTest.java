@@ -0,0 +1,40 @@
+package com.example.junit.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GradeQueryPlanTest {
+
+    static final String STUDENT_GRADES = "select id, value, discipline, student_id from grade where student_id = 1";
+    static final String DISCIPLINE_STATS = """
+            select count(value), sum(value), max(value), min(value) from grade
+            where student_id = 1 and discipline = 'ALGEBRA'""";
+    static final String GROUP_SIZE = "select count(*) from student where group_number = 'G11'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void explain_whenGradesOfStudentLoaded_usesStudentIndex() {
+        assertThat(explain(STUDENT_GRADES)).containsPattern("/\\* public\\.grade_\\w+: student_id = ").doesNotContain("tableScan");
+    }
+
+    @Test
+    public void explain_whenDisciplineStatsComputed_usesStudentDisciplineIndex() {
+        assertThat(explain(DISCIPLINE_STATS)).contains("grade_student_id_discipline_idx").doesNotContain("tableScan");
+    }
+
+    @Test
+    public void explain_whenGroupCounted_usesGroupIndex() {
+        assertThat(explain(GROUP_SIZE)).contains("student_group_number_idx").doesNotContain("tableScan");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.junit.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations, including grade partitioning, against PostgreSQL and
+ * checks that the planner can serve the grade access paths from the indexes.
+ * Sequential scans are disabled because the planner prefers them on tables
+ * this small. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/partitioning",
+        "spring.flyway.placeholders.grade_partitions=4"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresGradeQueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private RequiredIndexCheck requiredIndexCheck;
+
+    @Test
+    public void findMissing_whenPartitioned_isEmpty() {
+        assertThat(requiredIndexCheck.findMissing()).isEmpty();
+    }
+
+    @Test
+    public void explain_whenGradesOfStudentLoaded_scansOnePartitionByIndex() {
+        final String plan = explain(GradeQueryPlanTest.STUDENT_GRADES);
+
+        assertThat(plan).contains("student_id_discipline_idx").doesNotContain("Seq Scan");
+        assertThat(plan.split(" on grade_p", -1)).hasSize(2);
+    }
+
+    @Test
+    public void explain_whenDisciplineStatsComputed_scansOnePartitionByIndex() {
+        final String plan = explain(GradeQueryPlanTest.DISCIPLINE_STATS);
+
+        assertThat(plan).contains("student_id_discipline_idx").doesNotContain("Seq Scan");
+        assertThat(plan.split(" on grade_p", -1)).hasSize(2);
+    }
+
+    @Test
+    public void explain_whenGroupCounted_usesGroupIndex() {
+        assertThat(explain(GradeQueryPlanTest.GROUP_SIZE)).contains("student_group_number_idx");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off");
+                final StringJoiner plan = new StringJoiner("\n");
+                try (ResultSet rows = statement.executeQuery("explain (costs off) " + sql)) {
+                    while (rows.next()) {
+                        plan.add(rows.getString(1));
+                    }
+                }
+                statement.execute("reset enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
+}
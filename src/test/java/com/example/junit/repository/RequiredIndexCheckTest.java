@@ -0,0 +1,34 @@
+package com.example.junit.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RequiredIndexCheckTest {
+
+    @Autowired
+    private RequiredIndexCheck requiredIndexCheck;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void findMissing_whenMigrated_isEmpty() {
+        assertThat(requiredIndexCheck.findMissing()).isEmpty();
+    }
+
+    @Test
+    public void afterPropertiesSet_whenIndexDropped_fails() {
+        jdbcTemplate.execute("drop index grade_student_id_discipline_idx");
+        try {
+            assertThatThrownBy(requiredIndexCheck::afterPropertiesSet)
+                    .hasMessage("Missing indexes: [grade(student_id, discipline)]");
+        } finally {
+            jdbcTemplate.execute("create index grade_student_id_discipline_idx on grade (student_id, discipline)");
+        }
+    }
+}
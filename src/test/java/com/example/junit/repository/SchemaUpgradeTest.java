@@ -0,0 +1,104 @@
+package com.example.junit.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates a database holding the schema and rows the application created
+ * with {@code ddl-auto=update} before it moved to Flyway, with the baseline
+ * settings of {@code application.properties}.
+ */
+class SchemaUpgradeTest {
+
+    private String url;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        url = "jdbc:h2:mem:upgrade-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1";
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbcTemplate.execute("""
+                             create table student (
+                                 id bigint generated by default as identity,
+                                 first_name varchar(255),
+                                 group_number varchar(255),
+                                 last_name varchar(255),
+                                 primary key (id))
+                             """);
+        jdbcTemplate.execute("""
+                             create table grade (
+                                 id bigint generated by default as identity,
+                                 discipline varchar(255) check (discipline in ('PROGRAMMING_FUNDAMENTALS','ARTIFICIAL_INTELLIGENCE','GEOMETRY','ALGEBRA','WEB_DEVELOPMENT')),
+                                 value float(53),
+                                 student_id bigint,
+                                 primary key (id))
+                             """);
+        jdbcTemplate.execute("alter table if exists grade add constraint fk_grade_student foreign key (student_id) references student");
+        jdbcTemplate.update("insert into student (first_name, last_name, group_number) values ('John', 'White', 'G11'), ('Ann', 'Black', 'G12')");
+        jdbcTemplate.update("insert into grade (discipline, value, student_id) values ('ALGEBRA', 9.0, 1), ('ALGEBRA', 7.0, 1), ('GEOMETRY', 4.0, 2)");
+    }
+
+    @Test
+    public void migrate_whenSchemaFromDdlAuto_appliesEveryMigration() {
+        MigrateResult result = migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrations).extracting(migration -> migration.version).contains("1");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from pending_grade", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from grade", Long.class)).isEqualTo(3);
+    }
+
+    @Test
+    public void migrate_whenIdentityIds_sequencesAllocatePastThem() {
+        jdbcTemplate.update("insert into student (id, first_name, last_name, group_number) values (120, 'Kate', 'Brown', 'G11')");
+
+        migrate();
+
+        // the pooled optimizer hands out the 50 ids up to the value it reads
+        assertThat(jdbcTemplate.queryForObject("select nextval('student_seq')", Long.class) - 49).isGreaterThan(120);
+        assertThat(jdbcTemplate.queryForObject("select nextval('grade_seq')", Long.class) - 49).isGreaterThan(3);
+        assertThat(jdbcTemplate.queryForObject("select nextval('pending_grade_seq')", Long.class) - 49).isGreaterThan(0);
+    }
+
+    @Test
+    public void migrate_whenGradesWithoutStatistics_statisticsBackfilled() {
+        migrate();
+
+        assertThat(jdbcTemplate.queryForList("select student_id, discipline, total, grade_count, max_value, min_value "
+                                             + "from discipline_statistic order by student_id, discipline"))
+                .containsExactly(Map.of("student_id", 1L, "discipline", "ALGEBRA", "total", 16.0, "grade_count", 2L, "max_value", 9.0, "min_value", 7.0),
+                                 Map.of("student_id", 2L, "discipline", "GEOMETRY", "total", 4.0, "grade_count", 1L, "max_value", 4.0, "min_value", 4.0));
+    }
+
+    @Test
+    public void migrate_whenGradeOutOfRange_movedAsideAndLeftOutOfStatistics() {
+        jdbcTemplate.update("insert into grade (discipline, value, student_id) values ('GEOMETRY', 12.0, 2)");
+
+        MigrateResult result = migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(jdbcTemplate.queryForList("select id, value from grade_out_of_range"))
+                .containsExactly(Map.of("id", 4L, "value", 12.0));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from grade", Long.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("select max_value from discipline_statistic where student_id = 2", Double.class))
+                .isEqualTo(4.0);
+    }
+
+    private MigrateResult migrate() {
+        return Flyway.configure()
+                .dataSource(url, "sa", "")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "grades.columnar.enabled=true",
+        "grades.columnar.off-heap=true",
+        "grades.columnar.refresh-interval=3600000"
+})
+class ColumnarGradeStoreTest {
+
+    @Autowired
+    private ColumnarGradeStore gradeStore;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private GradeImportService gradeImportService;
+    @Autowired
+    private ReportService reportService;
+
+    private String group;
+    private Long first;
+    private Long second;
+
+    @BeforeEach
+    public void setup() {
+        group = UUID.randomUUID().toString().substring(0, 8);
+        first = studentService.add(new StudentRequest("Ann", "Columnar", group)).getId();
+        second = studentService.add(new StudentRequest("Bob", "Columnar", group)).getId();
+        gradeService.add(new GradeRequest(first, 9.0, Discipline.ALGEBRA));
+        gradeService.add(new GradeRequest(first, 6.0, Discipline.ALGEBRA));
+        gradeService.add(new GradeRequest(second, 7.5, Discipline.GEOMETRY));
+        gradeStore.refresh();
+    }
+
+    @Test
+    public void aggregate_whenLoaded_matchesStatistics() {
+        assertThat(gradeStore.aggregate(first)).hasValueSatisfying(aggregator ->
+                assertThat(aggregator.averages()).containsOnly(Map.entry(Discipline.ALGEBRA, 7.5)));
+        assertThat(gradeService.getMaxPerDiscipline(first)).containsOnly(Map.entry(Discipline.ALGEBRA, 9.0));
+        assertThat(reportService.getGroupAverages(group)).containsOnly(
+                Map.entry(first, Map.of(Discipline.ALGEBRA, 7.5)),
+                Map.entry(second, Map.of(Discipline.GEOMETRY, 7.5)));
+    }
+
+    @Test
+    public void add_whenLoaded_isVisibleWithoutReload() {
+        Long third = studentService.add(new StudentRequest("Cid", "Columnar", group)).getId();
+        gradeService.add(new GradeRequest(first, 10.0, Discipline.WEB_DEVELOPMENT));
+        gradeService.add(new GradeRequest(third, 4.0, Discipline.ALGEBRA));
+
+        assertThat(gradeStore.aggregate(first)).isPresent();
+        assertThat(gradeStore.aggregate(third)).isPresent();
+        assertThat(gradeService.getAveragePerDiscipline(first))
+                .containsOnly(Map.entry(Discipline.ALGEBRA, 7.5), Map.entry(Discipline.WEB_DEVELOPMENT, 10.0));
+        assertThat(gradeStore.aggregateGroup(group)).hasValueSatisfying(averages ->
+                assertThat(averages).containsOnlyKeys(first, second, third));
+    }
+
+    @Test
+    public void remove_whenLoaded_readsStudentFromDatabaseUntilReload() {
+        GradeDto removed = gradeService.getForStudent(first).stream()
+                .filter(grade -> grade.getValue() == 9.0)
+                .findFirst()
+                .orElseThrow();
+
+        gradeService.remove(first, removed.getId());
+
+        assertThat(gradeStore.aggregate(first)).isEmpty();
+        assertThat(gradeStore.aggregateGroup(group)).isEmpty();
+        assertThat(gradeService.getAveragePerDiscipline(first)).containsOnly(Map.entry(Discipline.ALGEBRA, 6.0));
+        assertThat(reportService.getGroupAverages(group)).containsEntry(first, Map.of(Discipline.ALGEBRA, 6.0));
+
+        gradeStore.refresh();
+
+        assertThat(gradeStore.aggregate(first)).hasValueSatisfying(aggregator ->
+                assertThat(aggregator.averages()).containsOnly(Map.entry(Discipline.ALGEBRA, 6.0)));
+    }
+
+    @Test
+    public void importGrades_whenLoaded_marksStudentsStale() {
+        gradeImportService.importGrades(List.of(new GradeRequest(second, 9.5, Discipline.GEOMETRY)).iterator());
+
+        assertThat(gradeStore.aggregate(second)).isEmpty();
+        assertThat(gradeStore.aggregate(first)).isPresent();
+        assertThat(gradeService.getAveragePerDiscipline(second)).containsOnly(Map.entry(Discipline.GEOMETRY, 8.5));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Grade;
+import com.example.junit.repository.DisciplineStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DisciplineAggregatorTest {
+
+    @Test
+    public void add_whenInvoked_matchesCollectors() {
+        List<Grade> grades = randomGrades(1000);
+
+        DisciplineAggregator aggregator = aggregate(grades);
+
+        Map<Discipline, Double> averages = grades.stream()
+                .collect(Collectors.groupingBy(Grade::getDiscipline, Collectors.averagingDouble(Grade::getValue)));
+        Map<Discipline, Double> maxima = grades.stream()
+                .collect(Collectors.toMap(Grade::getDiscipline, Grade::getValue, Double::max));
+        Map<Discipline, Double> minima = grades.stream()
+                .collect(Collectors.toMap(Grade::getDiscipline, Grade::getValue, Double::min));
+        assertThat(aggregator.averages()).containsOnlyKeys(averages.keySet());
+        averages.forEach((discipline, average) -> assertThat(aggregator.average(discipline)).isCloseTo(average, within(1e-9)));
+        assertThat(aggregator.maxima()).isEqualTo(maxima);
+        minima.forEach((discipline, min) -> assertThat(aggregator.min(discipline)).isEqualTo(min));
+    }
+
+    @Test
+    public void merge_whenSplitInTwo_equalsSinglePass() {
+        List<Grade> grades = randomGrades(500);
+        DisciplineAggregator whole = aggregate(grades);
+
+        DisciplineAggregator merged = aggregate(grades.subList(0, 200));
+        merged.merge(aggregate(grades.subList(200, grades.size())));
+
+        for (Discipline discipline : Discipline.values()) {
+            assertThat(merged.count(discipline)).isEqualTo(whole.count(discipline));
+            assertThat(merged.min(discipline)).isEqualTo(whole.min(discipline));
+        }
+        assertThat(merged.maxima()).isEqualTo(whole.maxima());
+    }
+
+    @Test
+    public void ofStats_whenInvoked_usesPreAggregatedRows() {
+        DisciplineAggregator aggregator = DisciplineAggregator.ofStats(List.of(
+                new DisciplineStats(1L, Discipline.ALGEBRA, 4L, 30.0, 9.0, 6.0)));
+
+        assertThat(aggregator.averages()).containsOnly(Map.entry(Discipline.ALGEBRA, 7.5));
+        assertThat(aggregator.maxima()).containsOnly(Map.entry(Discipline.ALGEBRA, 9.0));
+        assertThat(aggregator.min(Discipline.ALGEBRA)).isEqualTo(6.0);
+        assertThat(aggregator.has(Discipline.GEOMETRY)).isFalse();
+    }
+
+    private static DisciplineAggregator aggregate(List<Grade> grades) {
+        DisciplineAggregator aggregator = new DisciplineAggregator();
+        grades.forEach(grade -> aggregator.add(grade.getDiscipline(), grade.getValue()));
+        return aggregator;
+    }
+
+    private static List<Grade> randomGrades(int count) {
+        Random random = new Random(7);
+        Discipline[] disciplines = Discipline.values();
+        List<Grade> grades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            grades.add(new Grade(1 + random.nextInt(19) * 0.5, disciplines[random.nextInt(disciplines.length)]));
+        }
+        return grades;
+    }
+}
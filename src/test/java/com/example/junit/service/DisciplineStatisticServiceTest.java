@@ -0,0 +1,227 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.GradeHistogram;
+import com.example.junit.repository.DisciplineStatisticRepository;
+import com.example.junit.repository.DisciplineStats;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.StudentGrade;
+import com.example.junit.web.dto.DisciplineQuantilesDto;
+import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+class DisciplineStatisticServiceTest {
+
+    private static final int TRAILING_WINDOW = 10;
+    private static final Comparator<DisciplineStats> BY_DISCIPLINE = Comparator.comparing(DisciplineStats::getDiscipline);
+
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private DisciplineStatisticService statisticService;
+    @Autowired
+    private DisciplineStatisticRepository statisticRepository;
+    @Autowired
+    private GradeRepository gradeRepository;
+    @Autowired
+    private ReportService reportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DisciplineStatisticRebuildJob rebuildJob;
+
+    @Test
+    public void store_afterRandomAddsAndRemoves_matchesRecomputedValues() {
+        Random random = new Random(42);
+        Discipline[] disciplines = Discipline.values();
+        List<Long> studentIds = new ArrayList<>();
+        List<List<GradeDto>> studentGrades = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            studentIds.add(studentService.add(new StudentRequest("John" + i, "White", "G11")).getId());
+            studentGrades.add(new ArrayList<>());
+        }
+
+        for (int step = 0; step < 300; step++) {
+            int student = random.nextInt(studentIds.size());
+            List<GradeDto> grades = studentGrades.get(student);
+            if (!grades.isEmpty() && random.nextInt(3) == 0) {
+                gradeService.remove(studentIds.get(student), grades.remove(random.nextInt(grades.size())).getId());
+            } else {
+                double value = 1 + random.nextInt(19) * 0.5;
+                Discipline discipline = disciplines[random.nextInt(disciplines.length)];
+                grades.add(gradeService.add(new GradeRequest(studentIds.get(student), value, discipline)));
+            }
+        }
+
+        for (int student = 0; student < studentIds.size(); student++) {
+            DisciplineAggregator recomputed = new DisciplineAggregator();
+            studentGrades.get(student).forEach(grade -> recomputed.add(grade.getDiscipline(), grade.getValue()));
+            List<DisciplineStats> stored = statisticService.getStats(studentIds.get(student)).stream().sorted(BY_DISCIPLINE).toList();
+            assertThat(stored).extracting(DisciplineStats::getDiscipline)
+                    .containsExactlyElementsOf(Arrays.stream(disciplines).filter(recomputed::has).toList());
+            for (DisciplineStats stats : stored) {
+                assertThat(stats.getCount()).isEqualTo(recomputed.count(stats.getDiscipline()));
+                assertThat(stats.getMax()).isEqualTo(recomputed.max(stats.getDiscipline()));
+                assertThat(stats.getMin()).isEqualTo(recomputed.min(stats.getDiscipline()));
+                assertThat(stats.getSum()).isCloseTo(recomputed.sum(stats.getDiscipline()), within(1e-9));
+            }
+        }
+        assertThat(statisticService.verify(studentIds, false)).isZero();
+    }
+
+    @Test
+    public void verify_whenStoreDrifted_repairsFromGrades() {
+        Long studentId = studentService.add(new StudentRequest("Jane", "Black", "G12")).getId();
+        gradeService.add(new GradeRequest(studentId, 9.0, Discipline.ALGEBRA));
+        gradeService.add(new GradeRequest(studentId, 7.0, Discipline.GEOMETRY));
+        statisticRepository.deleteAll(statisticRepository.findByIdStudentId(studentId));
+
+        assertThat(statisticService.verify(List.of(studentId), false)).isEqualTo(2);
+        assertThat(statisticService.verify(List.of(studentId), true)).isEqualTo(2);
+        assertThat(statisticService.verify(List.of(studentId), false)).isZero();
+        assertThat(gradeService.getAveragePerDiscipline(studentId))
+                .containsOnly(Map.entry(Discipline.ALGEBRA, 9.0), Map.entry(Discipline.GEOMETRY, 7.0));
+    }
+
+    @Test
+    public void quantiles_afterRandomAddsAndRemoves_withinBoundsOfExactValues() {
+        Random random = new Random(17);
+        Discipline[] disciplines = Discipline.values();
+        String group = "Q" + random.nextInt(1_000_000);
+        List<Long> studentIds = new ArrayList<>();
+        List<List<Long>> gradeIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            studentIds.add(studentService.add(new StudentRequest("Ann" + i, "Green", group)).getId());
+            gradeIds.add(new ArrayList<>());
+        }
+
+        for (int step = 0; step < 400; step++) {
+            int student = random.nextInt(studentIds.size());
+            List<Long> grades = gradeIds.get(student);
+            if (!grades.isEmpty() && random.nextInt(4) == 0) {
+                gradeService.remove(studentIds.get(student), grades.remove(random.nextInt(grades.size())));
+            } else {
+                double value = Math.round((1 + random.nextDouble() * 9) * 100) / 100.0;
+                Discipline discipline = disciplines[random.nextInt(2)];
+                grades.add(gradeService.add(new GradeRequest(studentIds.get(student), value, discipline)).getId());
+            }
+        }
+
+        Map<Discipline, List<Double>> groupGrades = new EnumMap<>(Discipline.class);
+        Map<Discipline, List<Double>> groupRecent = new EnumMap<>(Discipline.class);
+        for (Long studentId : studentIds) {
+            Map<Discipline, List<Double>> exact = new EnumMap<>(Discipline.class);
+            for (StudentGrade grade : gradeRepository.findGradesByStudentIdIn(List.of(studentId))) {
+                if (grade.getId() != null) {
+                    exact.computeIfAbsent(grade.getDiscipline(), d -> new ArrayList<>()).add(grade.getValue());
+                }
+            }
+            Map<Discipline, DisciplineQuantilesDto> quantiles = gradeService.getQuantilesPerDiscipline(studentId);
+            assertThat(quantiles).containsOnlyKeys(exact.keySet());
+            exact.forEach((discipline, values) -> {
+                List<Double> recent = values.subList(Math.max(0, values.size() - TRAILING_WINDOW), values.size());
+                assertQuantiles(quantiles.get(discipline), values, recent);
+                groupGrades.computeIfAbsent(discipline, d -> new ArrayList<>()).addAll(values);
+                groupRecent.computeIfAbsent(discipline, d -> new ArrayList<>()).addAll(recent);
+            });
+        }
+        Map<Discipline, DisciplineQuantilesDto> groupQuantiles = reportService.getGroupQuantiles(group);
+        assertThat(groupQuantiles).containsOnlyKeys(groupGrades.keySet());
+        groupGrades.forEach((discipline, values) -> assertQuantiles(groupQuantiles.get(discipline), values, groupRecent.get(discipline)));
+        assertThat(statisticService.verify(studentIds, false)).isZero();
+    }
+
+    @Test
+    public void verify_whenSummariesUnknown_repairsThemFromGrades() {
+        Long studentId = studentService.add(new StudentRequest("Jane", "Grey", "G12")).getId();
+        gradeService.add(new GradeRequest(studentId, 9.0, Discipline.ALGEBRA));
+        gradeService.add(new GradeRequest(studentId, 6.0, Discipline.ALGEBRA));
+        jdbcTemplate.update("update discipline_statistic set quantile_sketch = null, recent_grades = null where student_id = ?", studentId);
+
+        assertThat(gradeService.getQuantilesPerDiscipline(studentId))
+                .containsOnly(Map.entry(Discipline.ALGEBRA, new DisciplineQuantilesDto(2, null, null, null)));
+        assertThat(statisticService.verify(List.of(studentId), true)).isEqualTo(1);
+        assertThat(gradeService.getQuantilesPerDiscipline(studentId))
+                .containsOnly(Map.entry(Discipline.ALGEBRA, new DisciplineQuantilesDto(2, 6.0, 9.0, 7.5)));
+    }
+
+    @Test
+    public void repairUnknownSummaries_whenRowsWithoutSummaries_rebuildsOnlyThem() {
+        Long unknown = studentService.add(new StudentRequest("Joan", "Grey", "G12")).getId();
+        Long known = studentService.add(new StudentRequest("Jim", "Grey", "G12")).getId();
+        gradeService.add(new GradeRequest(unknown, 8.0, Discipline.GEOMETRY));
+        gradeService.add(new GradeRequest(known, 5.0, Discipline.GEOMETRY));
+        jdbcTemplate.update("update discipline_statistic set quantile_sketch = null, recent_grades = null where student_id = ?", unknown);
+
+        assertThat(rebuildJob.repairUnknownSummaries()).isEqualTo(1);
+        assertThat(gradeService.getQuantilesPerDiscipline(unknown))
+                .containsOnly(Map.entry(Discipline.GEOMETRY, new DisciplineQuantilesDto(1, 8.0, 8.0, 8.0)));
+        assertThat(rebuildJob.repairUnknownSummaries()).isZero();
+    }
+
+    @Test
+    public void record_whenFirstGradesAddedConcurrently_allCounted() throws Exception {
+        Long studentId = studentService.add(new StudentRequest("Jack", "Grey", "G12")).getId();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<GradeDto>> added = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                double value = 1 + i;
+                added.add(executor.submit(() -> {
+                    start.await();
+                    return gradeService.add(new GradeRequest(studentId, value, Discipline.ALGEBRA));
+                }));
+            }
+            start.countDown();
+            for (Future<GradeDto> grade : added) {
+                grade.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statisticService.getStats(studentId)).singleElement().satisfies(stats -> {
+            assertThat(stats.getCount()).isEqualTo(threads);
+            assertThat(stats.getSum()).isEqualTo(threads * (threads + 1) / 2.0);
+        });
+    }
+
+    private static void assertQuantiles(DisciplineQuantilesDto quantiles, List<Double> values, List<Double> recent) {
+        List<Double> sorted = values.stream().sorted().toList();
+        assertThat(quantiles.getCount()).isEqualTo(values.size());
+        assertThat(quantiles.getMedian()).isCloseTo(nearestRank(sorted, 0.5), within(GradeHistogram.MAX_ERROR + 1e-9));
+        assertThat(quantiles.getP90()).isCloseTo(nearestRank(sorted, 0.9), within(GradeHistogram.MAX_ERROR + 1e-9));
+        assertThat(quantiles.getTrailingAverage())
+                .isCloseTo(recent.stream().mapToDouble(Double::doubleValue).average().orElseThrow(), within(1e-9));
+    }
+
+    private static double nearestRank(List<Double> sorted, double q) {
+        return sorted.get(Math.max(1, (int) Math.ceil(q * sorted.size())) - 1);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GradeColumnsTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void aggregate_whenBuiltPastExpectedSize_readsEveryStudent(boolean offHeap) {
+        GradeColumns.Builder builder = GradeColumns.builder(0, 0, offHeap);
+        for (long studentId = 1; studentId <= 100; studentId++) {
+            builder.add(studentId, "G" + studentId % 3, Discipline.ALGEBRA, studentId % 10 + 1);
+            builder.add(studentId, "G" + studentId % 3, Discipline.GEOMETRY, 5.5);
+        }
+        GradeColumns columns = builder.build();
+
+        assertThat(columns.students()).isEqualTo(100);
+        assertThat(columns.grades()).isEqualTo(200);
+        assertThat(columns.sizeInBytes()).isEqualTo(100 * 16 + 4 + 200 * 9);
+        DisciplineAggregator aggregator = new DisciplineAggregator();
+        columns.aggregate(42, aggregator);
+        assertThat(aggregator.averages()).containsOnly(Map.entry(Discipline.ALGEBRA, 3.0), Map.entry(Discipline.GEOMETRY, 5.5));
+        assertThat(columns.group(42)).isEqualTo("G0");
+        assertThat(columns.contains(101)).isFalse();
+    }
+
+    @Test
+    public void aggregateGroup_whenInvoked_returnsOnlyThatGroup() {
+        GradeColumns columns = GradeColumns.builder(3, 4, false)
+                .add(1, "G1", Discipline.ALGEBRA, 8.0)
+                .add(1, "G1", Discipline.ALGEBRA, 10.0)
+                .add(2, null, Discipline.ALGEBRA, 6.0)
+                .add(3, "G1", Discipline.WEB_DEVELOPMENT, 7.0)
+                .build();
+
+        Map<Long, DisciplineAggregator> group = columns.aggregateGroup("G1");
+
+        assertThat(group).containsOnlyKeys(1L, 3L);
+        assertThat(group.get(1L).averages()).containsOnly(Map.entry(Discipline.ALGEBRA, 9.0));
+        assertThat(columns.aggregateGroup(null)).containsOnlyKeys(2L);
+        assertThat(columns.aggregateGroup("G2")).isEmpty();
+    }
+
+    @Test
+    public void add_whenStudentsOutOfOrder_exceptionThrown() {
+        GradeColumns.Builder builder = GradeColumns.builder(2, 2, false).add(2, "G1", Discipline.ALGEBRA, 8.0);
+
+        assertThatThrownBy(() -> builder.add(1, "G1", Discipline.ALGEBRA, 8.0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Grades must be ordered by student id");
+    }
+}
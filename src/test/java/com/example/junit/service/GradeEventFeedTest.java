@@ -0,0 +1,194 @@
+package com.example.junit.service;
+
+import com.example.junit.JunitApplication;
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.GradeEventType;
+import com.example.junit.web.dto.GradeEventDto;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class GradeEventFeedTest {
+
+    private static final int WRITERS = 8;
+    private static final int GRADES_PER_WRITER = 40;
+
+    @Autowired
+    private GradeEventFeed feed;
+    @Autowired
+    private GradeEventRelay relay;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void read_whenWritersRunConcurrently_deliversEveryCommittedEventOnceInCommitOrder() throws Exception {
+        final long start = lastSequence();
+        final String lastName = UUID.randomUUID().toString();
+        final List<GradeEventDto> consumed = new ArrayList<>();
+        final Map<Long, List<Long>> committed = new HashMap<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(WRITERS)) {
+            final List<Future<Map.Entry<Long, List<Long>>>> writers = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                final int writer = i;
+                writers.add(executor.submit(() -> write("Writer" + writer, lastName)));
+            }
+            long position = start;
+            while (!writers.stream().allMatch(Future::isDone)) {
+                relay.relay();
+                position = consume(position, consumed);
+                Thread.sleep(20);
+            }
+            for (Future<Map.Entry<Long, List<Long>>> writer : writers) {
+                final Map.Entry<Long, List<Long>> grades = writer.get();
+                committed.put(grades.getKey(), grades.getValue());
+            }
+            relay.relay();
+            consume(position, consumed);
+        }
+
+        assertThat(consumed).extracting(GradeEventDto::getSequence)
+                .containsExactlyElementsOf(LongStream.rangeClosed(start + 1, start + consumed.size()).boxed().toList());
+        final List<GradeEventDto> ours = consumed.stream()
+                .filter(event -> committed.containsKey(event.getStudentId()))
+                .toList();
+        assertThat(ours).filteredOn(event -> event.getType() == GradeEventType.STUDENT_CREATED)
+                .extracting(GradeEventDto::getStudentId)
+                .containsExactlyInAnyOrderElementsOf(committed.keySet());
+        committed.forEach((studentId, gradeIds) -> assertThat(ours)
+                .filteredOn(event -> event.getType() == GradeEventType.GRADE_ADDED && event.getStudentId().equals(studentId))
+                .extracting(GradeEventDto::getGradeId)
+                .containsExactlyElementsOf(gradeIds));
+        committed.forEach((studentId, gradeIds) -> assertThat(ours)
+                .filteredOn(event -> event.getStudentId().equals(studentId))
+                .first()
+                .extracting(GradeEventDto::getType)
+                .isEqualTo(GradeEventType.STUDENT_CREATED));
+    }
+
+    @Test
+    public void compact_whenGradeRemoved_dropsItsAddedEventAndKeepsTheRemoval() {
+        final long start = lastSequence();
+        final Long studentId = studentService.add(new StudentRequest("Ann", "Compacted", "G11")).getId();
+        final Long kept = gradeService.add(new GradeRequest(studentId, 9.0, Discipline.ALGEBRA)).getId();
+        final Long removed = gradeService.add(new GradeRequest(studentId, 5.0, Discipline.ALGEBRA)).getId();
+        gradeService.remove(studentId, removed);
+        relay.relay();
+
+        relay.compact(Instant.now().plusSeconds(1));
+
+        assertThat(feed.read(start, 100))
+                .filteredOn(event -> event.getStudentId().equals(studentId))
+                .extracting(GradeEventDto::getType, GradeEventDto::getGradeId)
+                .containsExactly(tuple(GradeEventType.STUDENT_CREATED, null),
+                                 tuple(GradeEventType.GRADE_ADDED, kept),
+                                 tuple(GradeEventType.GRADE_REMOVED, removed));
+    }
+
+    @Test
+    public void purge_whenPastRetention_deletesPrefixAndRecordsIt() throws InterruptedException {
+        studentService.add(new StudentRequest("Ann", "Purged", "G11"));
+        final long last = lastSequence();
+
+        relay.purge(Instant.now().plusSeconds(1));
+
+        assertThat(feed.purgedThrough()).isEqualTo(last);
+        assertThat(feed.read(0, 10)).isEmpty();
+
+        final Long studentId = studentService.add(new StudentRequest("Bob", "Purged", "G11")).getId();
+        relay.relay();
+        feed.await(last, Duration.ofSeconds(5));
+        assertThat(feed.read(last, 10)).extracting(GradeEventDto::getSequence, GradeEventDto::getStudentId)
+                .containsExactly(tuple(last + 1, studentId));
+    }
+
+    @Test
+    public void read_whenInstancesInterleaveIds_removalFollowsTheAddition() {
+        final String database = "events-" + UUID.randomUUID();
+        // each instance takes event ids from the shared sequence; pooled, the first would write from a block below the second's
+        try (ConfigurableApplicationContext first = start(database); ConfigurableApplicationContext second = start(database)) {
+            final Long studentId = first.getBean(StudentService.class).add(new StudentRequest("Ann", "Interleaved", "G11")).getId();
+            final Long kept = first.getBean(GradeService.class).add(new GradeRequest(studentId, 7.0, Discipline.ALGEBRA)).getId();
+            final Long removed = second.getBean(GradeService.class).add(new GradeRequest(studentId, 9.0, Discipline.ALGEBRA)).getId();
+            first.getBean(GradeService.class).remove(studentId, removed);
+            first.getBean(GradeEventRelay.class).relay();
+
+            assertThat(first.getBean(GradeEventFeed.class).read(0, 10))
+                    .extracting(GradeEventDto::getType, GradeEventDto::getGradeId)
+                    .containsExactly(tuple(GradeEventType.STUDENT_CREATED, null),
+                                     tuple(GradeEventType.GRADE_ADDED, kept),
+                                     tuple(GradeEventType.GRADE_ADDED, removed),
+                                     tuple(GradeEventType.GRADE_REMOVED, removed));
+        }
+    }
+
+    /**
+     * Creates a student and adds grades to it one transaction at a time;
+     * every fifth grade is rolled back after it was written.
+     */
+    private Map.Entry<Long, List<Long>> write(String firstName, String lastName) {
+        final Long studentId = studentService.add(new StudentRequest(firstName, lastName, "G11")).getId();
+        final List<Long> gradeIds = new ArrayList<>();
+        for (int i = 0; i < GRADES_PER_WRITER; i++) {
+            final GradeRequest request = new GradeRequest(studentId, 1.0 + i % 10, Discipline.values()[i % Discipline.values().length]);
+            if (i % 5 == 4) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    gradeService.add(request);
+                    status.setRollbackOnly();
+                });
+            } else {
+                gradeIds.add(gradeService.add(request).getId());
+            }
+        }
+        return Map.entry(studentId, gradeIds);
+    }
+
+    private long consume(long position, List<GradeEventDto> consumed) {
+        List<GradeEventDto> events = feed.read(position, 100);
+        while (!events.isEmpty()) {
+            consumed.addAll(events);
+            position = events.get(events.size() - 1).getSequence();
+            events = feed.read(position, 100);
+        }
+        return position;
+    }
+
+    private static ConfigurableApplicationContext start(String database) {
+        return new SpringApplicationBuilder(JunitApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                     "--grades.events.relay-interval=3600000",
+                     "--logging.level.root=warn");
+    }
+
+    private long lastSequence() {
+        relay.relay();
+        return consume(feed.purgedThrough(), new ArrayList<>());
+    }
+}
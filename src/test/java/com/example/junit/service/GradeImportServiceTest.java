@@ -0,0 +1,117 @@
+package com.example.junit.service;
+
+import com.example.junit.datasource.ReplicaRouting;
+import com.example.junit.domain.Discipline;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.StudentRepository;
+import com.example.junit.web.GradeRequestReader;
+import com.example.junit.web.dto.GradeImportResult;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.RowError;
+import com.example.junit.web.dto.StudentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class GradeImportServiceTest {
+
+    @Autowired
+    private GradeImportService gradeImportService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private DisciplineStatisticService statisticService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void importGrades_whenCsvSpansChunks_importsValidRowsAndReportsErrors() {
+        Long first = studentService.add(new StudentRequest("John", "White", "G11")).getId();
+        Long second = studentService.add(new StudentRequest("Jane", "Black", "G11")).getId();
+        StringBuilder csv = new StringBuilder("studentId,value,discipline\n");
+        int rows = GradeImportService.CHUNK_SIZE * 2 + 500;
+        for (int i = 0; i < rows; i++) {
+            csv.append(i % 2 == 0 ? first : second).append(',').append(i % 2 == 0 ? "9.0" : "7.0").append(",ALGEBRA\n");
+        }
+        csv.append(first).append(",8.0,CHEMISTRY\n");
+        csv.append("-1,8.0,GEOMETRY\n");
+
+        GradeImportResult result = gradeImportService.importGrades(GradeRequestReader.csv(toStream(csv.toString())));
+
+        assertThat(result.getImported()).isEqualTo(rows);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(RowError::getRow).containsExactly(rows + 1L, rows + 2L);
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("Student not found");
+        assertThat(gradeService.getAveragePerDiscipline(first)).containsOnly(Map.entry(Discipline.ALGEBRA, 9.0));
+        assertThat(gradeService.getForStudent(second)).hasSize(rows / 2);
+        assertThat(statisticService.verify(List.of(first, second), false)).isZero();
+    }
+
+    @Test
+    public void importGrades_whenNdjson_importsRows() {
+        Long studentId = studentService.add(new StudentRequest("John", "Green", "G12")).getId();
+        String ndjson = """
+                {"studentId": %d, "value": 6.0, "discipline": "GEOMETRY"}
+                {"studentId": %d, "value": 10.0, "discipline": "GEOMETRY"}
+                not json
+                {"studentId": %d, "discipline": "GEOMETRY"}
+                {"studentId": %d, "value": 11.0, "discipline": "GEOMETRY"}
+                """.formatted(studentId, studentId, studentId, studentId);
+
+        GradeImportResult result = gradeImportService.importGrades(GradeRequestReader.ndjson(toStream(ndjson), objectMapper));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(RowError::getRow).containsExactly(3L, 4L, 5L);
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("Value is required");
+        assertThat(result.getErrors().get(2).getMessage()).isEqualTo("Value must be between 1 and 10");
+        assertThat(gradeService.getMaxPerDiscipline(studentId)).containsOnly(Map.entry(Discipline.GEOMETRY, 10.0));
+    }
+
+    @Test
+    public void importGrades_whenChunkFailsUnexpectedly_reportsItsRowsAndImportsTheRest() {
+        StudentRepository studentRepository = mock(StudentRepository.class);
+        DisciplineStatisticService statisticService = mock(DisciplineStatisticService.class);
+        when(studentRepository.findExistingIds(any())).thenReturn(List.of(1L));
+        doThrow(new IllegalStateException("Unexpected")).doNothing().when(statisticService).recordAll(any());
+        GradeImportService importService = new GradeImportService(studentRepository, mock(GradeRepository.class), statisticService,
+                                                                        mock(StudentGradeCache.class), mock(ColumnarGradeStore.class),
+                                                                        mock(ReplicaRouting.class), mock(GradeEventOutbox.class),
+                                                                        new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                                                                        mock(EntityManager.class));
+        int rows = GradeImportService.CHUNK_SIZE + 1;
+
+        GradeImportResult result = importService.importGrades(Stream.generate(() -> new GradeRequest(1L, 9.0, Discipline.ALGEBRA))
+                                                                      .limit(rows)
+                                                                      .iterator());
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(GradeImportService.CHUNK_SIZE);
+        assertThat(result.getErrors()).extracting(RowError::getRow)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, GradeImportService.CHUNK_SIZE).boxed().toList());
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Chunk rolled back: Unexpected");
+    }
+
+    private static ByteArrayInputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
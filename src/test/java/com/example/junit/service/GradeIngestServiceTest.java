@@ -0,0 +1,225 @@
+package com.example.junit.service;
+
+import com.example.junit.JunitApplication;
+import com.example.junit.datasource.ReplicaRouting;
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.PendingGrade;
+import com.example.junit.domain.PendingGradeStatus;
+import com.example.junit.repository.DisciplineStats;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.PendingGradeRepository;
+import com.example.junit.repository.StudentRepository;
+import com.example.junit.service.mapper.Mapper;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.PendingGradeDto;
+import com.example.junit.web.dto.StudentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Acknowledged grades must survive losing the in-memory queue. The first
+ * application instance stops its workers and is shut down with grades still
+ * queued; a second instance on the same database has to apply all of them,
+ * and two instances recovering them together must apply each of them once.
+ * A worker failing unexpectedly must still give its queue slots back, and a
+ * grade that could neither be applied nor rejected must be queued again.
+ */
+class GradeIngestServiceTest {
+
+    private static final int GRADES = 200;
+    private static final long TIMEOUT_MILLIS = 60_000;
+
+    @Test
+    public void accept_whenRestartedWithQueuedGrades_everyAcknowledgedGradeApplied() throws Exception {
+        final List<Long> acknowledged = new ArrayList<>();
+        final List<Long> students = new ArrayList<>();
+        try (ConfigurableApplicationContext context = start("ingest")) {
+            final GradeIngestService ingestService = context.getBean(GradeIngestService.class);
+            final StudentService studentService = context.getBean(StudentService.class);
+            for (int i = 0; i < 3; i++) {
+                students.add(studentService.add(new StudentRequest("John", "White", "G11")).getId());
+            }
+            accept(ingestService, students, GRADES / 2, acknowledged);
+            awaitApplied(ingestService, acknowledged);
+
+            ingestService.stop();
+            accept(ingestService, students, GRADES / 2, acknowledged);
+        }
+
+        try (ConfigurableApplicationContext context = start("ingest")) {
+            final GradeIngestService ingestService = context.getBean(GradeIngestService.class);
+            final GradeService gradeService = context.getBean(GradeService.class);
+
+            awaitApplied(ingestService, acknowledged);
+
+            assertThat(acknowledged).hasSize(GRADES);
+            assertThat(students.stream().mapToInt(id -> gradeService.getForStudent(id).size()).sum()).isEqualTo(GRADES);
+            assertThat(context.getBean(DisciplineStatisticService.class).verify(students, false)).isZero();
+        }
+    }
+
+    @Test
+    public void recover_whenInstancesStartTogether_everyPendingGradeAppliedOnce() throws Exception {
+        final List<Long> acknowledged = new ArrayList<>();
+        final List<Long> students = new ArrayList<>();
+        try (ConfigurableApplicationContext context = start("ingest-shared")) {
+            final GradeIngestService ingestService = context.getBean(GradeIngestService.class);
+            final StudentService studentService = context.getBean(StudentService.class);
+            for (int i = 0; i < 3; i++) {
+                students.add(studentService.add(new StudentRequest("John", "White", "G11")).getId());
+            }
+            ingestService.stop();
+            accept(ingestService, students, GRADES, acknowledged);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<ConfigurableApplicationContext> first = executor.submit(() -> start("ingest-shared"));
+            final Future<ConfigurableApplicationContext> second = executor.submit(() -> start("ingest-shared"));
+            try (ConfigurableApplicationContext context = first.get(); ConfigurableApplicationContext other = second.get()) {
+                final GradeService gradeService = context.getBean(GradeService.class);
+
+                awaitApplied(context.getBean(GradeIngestService.class), acknowledged);
+                other.getBean(GradeIngestService.class).stop();
+
+                assertThat(students.stream().mapToInt(id -> gradeService.getForStudent(id).size()).sum()).isEqualTo(GRADES);
+                // the last grades of a student applied by both instances are not in id order, so only the counts are compared
+                assertThat(context.getBean(DisciplineStatisticService.class).getStats(students).stream().mapToLong(DisciplineStats::getCount).sum())
+                        .isEqualTo(GRADES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void accept_whenApplyingFailsUnexpectedly_permitReleased() throws Exception {
+        final StudentRepository studentRepository = mock(StudentRepository.class);
+        final PendingGradeRepository pendingGradeRepository = mock(PendingGradeRepository.class);
+        final ReplicaRouting replicaRouting = mock(ReplicaRouting.class);
+        final Mapper<PendingGrade, PendingGradeDto> mapper = mock(Mapper.class);
+        when(replicaRouting.readOwnWrites(anyLong(), any(Supplier.class))).thenReturn(true);
+        when(pendingGradeRepository.save(any(PendingGrade.class))).thenAnswer(invocation -> {
+            final PendingGrade pending = invocation.getArgument(0);
+            ReflectionTestUtils.setField(pending, "id", 1L);
+            return pending;
+        });
+        when(pendingGradeRepository.claimPending(any())).thenThrow(new IllegalStateException("Unexpected"));
+        when(mapper.map(any(PendingGrade.class))).thenReturn(new PendingGradeDto(1L, 1L, 9.0, Discipline.ALGEBRA, PendingGradeStatus.PENDING, null, null));
+        final GradeIngestService ingestService = new GradeIngestService(studentRepository, mock(GradeRepository.class), pendingGradeRepository,
+                                                                        mock(DisciplineStatisticService.class), mock(StudentGradeCache.class),
+                                                                        mock(ColumnarGradeStore.class), replicaRouting, mock(GradeEventOutbox.class),
+                                                                        mapper, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                                                                        1, 1, 1);
+        final GradeRequest request = new GradeRequest(1L, 9.0, Discipline.ALGEBRA);
+        ingestService.start();
+        try {
+            assertThat(ingestService.accept(request)).isPresent();
+
+            final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            Optional<PendingGradeDto> next = ingestService.accept(request);
+            while (next.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+                next = ingestService.accept(request);
+            }
+            assertThat(next).isPresent();
+        } finally {
+            ingestService.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void requeue_whenRejectingFails_gradeAppliedLater() throws Exception {
+        final StudentRepository studentRepository = mock(StudentRepository.class);
+        final PendingGradeRepository pendingGradeRepository = mock(PendingGradeRepository.class);
+        final ReplicaRouting replicaRouting = mock(ReplicaRouting.class);
+        final Mapper<PendingGrade, PendingGradeDto> mapper = mock(Mapper.class);
+        final AtomicReference<PendingGrade> saved = new AtomicReference<>();
+        when(replicaRouting.readOwnWrites(anyLong(), any(Supplier.class))).thenReturn(true);
+        when(pendingGradeRepository.save(any(PendingGrade.class))).thenAnswer(invocation -> {
+            final PendingGrade pending = invocation.getArgument(0);
+            ReflectionTestUtils.setField(pending, "id", 1L);
+            saved.set(pending);
+            return pending;
+        });
+        // three attempts to apply and the rejection fail, the grade is applied once queued again
+        final IllegalStateException failure = new IllegalStateException("Unexpected");
+        when(pendingGradeRepository.claimPending(any())).thenThrow(failure, failure, failure, failure)
+                .thenAnswer(invocation -> List.of(saved.get()));
+        when(studentRepository.findExistingIds(any())).thenReturn(List.of(1L));
+        when(mapper.map(any(PendingGrade.class))).thenReturn(new PendingGradeDto(1L, 1L, 9.0, Discipline.ALGEBRA, PendingGradeStatus.PENDING, null, null));
+        final GradeIngestService ingestService = new GradeIngestService(studentRepository, mock(GradeRepository.class), pendingGradeRepository,
+                                                                        mock(DisciplineStatisticService.class), mock(StudentGradeCache.class),
+                                                                        mock(ColumnarGradeStore.class), replicaRouting, mock(GradeEventOutbox.class),
+                                                                        mapper, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                                                                        1, 1, 1);
+        ingestService.start();
+        try {
+            assertThat(ingestService.accept(new GradeRequest(1L, 9.0, Discipline.ALGEBRA))).isPresent();
+
+            final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (saved.get().getStatus() == PendingGradeStatus.PENDING && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+                ingestService.requeue();
+            }
+            assertThat(saved.get().getStatus()).isEqualTo(PendingGradeStatus.APPLIED);
+            verify(pendingGradeRepository, times(5)).claimPending(any());
+        } finally {
+            ingestService.stop();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String database) {
+        return new SpringApplicationBuilder(JunitApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                     "--grades.ingest.enabled=true",
+                     "--grades.ingest.batch-size=20",
+                     "--logging.level.root=warn");
+    }
+
+    private static void accept(GradeIngestService ingestService, List<Long> students, int count, List<Long> acknowledged) {
+        final Discipline[] disciplines = Discipline.values();
+        for (int i = 0; i < count; i++) {
+            final GradeRequest request = new GradeRequest(students.get(i % students.size()), 1.0 + i % 10, disciplines[i % disciplines.length]);
+            acknowledged.add(ingestService.accept(request).map(PendingGradeDto::getId).orElseThrow());
+        }
+    }
+
+    private static void awaitApplied(GradeIngestService ingestService, List<Long> acknowledged) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        for (Long id : acknowledged) {
+            PendingGradeDto pending = ingestService.getStatus(id);
+            while (pending.getStatus() == PendingGradeStatus.PENDING && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+                pending = ingestService.getStatus(id);
+            }
+            assertThat(pending.getStatus()).isEqualTo(PendingGradeStatus.APPLIED);
+            assertThat(pending.getGradeId()).isNotNull();
+        }
+    }
+}
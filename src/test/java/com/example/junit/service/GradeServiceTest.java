@@ -1,24 +1,43 @@
 package com.example.junit.service;
 
+import com.example.junit.datasource.ReplicaRouting;
 import com.example.junit.domain.Discipline;
 import com.example.junit.domain.Grade;
 import com.example.junit.domain.Student;
+import com.example.junit.metrics.GradeMetrics;
+import com.example.junit.repository.DisciplineStats;
+import com.example.junit.repository.GradeRepository;
+import com.example.junit.repository.StudentGrade;
 import com.example.junit.repository.StudentRepository;
 import com.example.junit.service.mapper.Mapper;
 import com.example.junit.web.dto.GradeDto;
 import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentGradesResult;
+import com.example.junit.web.dto.StudentStatistic;
+import com.example.junit.web.dto.StudentStatisticsDto;
+import com.example.junit.web.dto.StudentStatisticsResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
 
+import java.time.Duration;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 
@@ -30,7 +49,15 @@ class GradeServiceTest {
     @Mock
     private StudentRepository studentRepository;
     @Mock
+    private GradeRepository gradeRepository;
+    @Mock
+    private DisciplineStatisticService statisticService;
+    @Mock
+    private ColumnarGradeStore gradeStore;
+    @Mock
     private Mapper<Grade, GradeDto> gradeDtoMapper;
+    @Mock
+    private GradeEventOutbox eventOutbox;
 
     private GradeService gradeService;
 
@@ -38,10 +65,13 @@ class GradeServiceTest {
 
     @BeforeEach
     public void setup() {
-        gradeService = new GradeService(studentRepository, gradeDtoMapper);
+        gradeService = new GradeService(studentRepository, gradeRepository, statisticService,
+                                        new StudentGradeCache(true, 100, Duration.ofMinutes(1), new SimpleMeterRegistry()), gradeStore, gradeDtoMapper,
+                                        new GradeMetrics(new SimpleMeterRegistry()), new ReplicaRouting(false, Duration.ZERO), eventOutbox,
+                                        new PromotionRules(new MockEnvironment()));
 
         student = new Student("John", "White", "G11");
-        when(studentRepository.findById(STUDENT_ID)).thenReturn(Optional.of(student));
+        lenient().when(studentRepository.findById(STUDENT_ID)).thenReturn(Optional.of(student));
     }
 
     @Test
@@ -54,11 +84,21 @@ class GradeServiceTest {
         assertThat(student.getGrades())
                 .hasSize(1)
                 .containsOnly(expectedGrade);
+        verify(statisticService).record(STUDENT_ID, Discipline.GEOMETRY, 9.5);
+        verify(gradeStore).addAfterCommit(STUDENT_ID, "G11", Discipline.GEOMETRY, 9.5);
+        verify(eventOutbox).gradesAdded(List.of(expectedGrade));
+    }
+
+    @Test
+    public void remove_whenGradeNotFound_exceptionThrown() {
+        assertThatThrownBy(() -> gradeService.remove(STUDENT_ID, 1L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Grade not found");
     }
 
     @Test
     public void getForStudent_whenStudentNotFound_exceptionThrown() {
-        when(studentRepository.findById(STUDENT_ID)).thenReturn(Optional.empty());
+        when(gradeRepository.findGradesByStudentIdIn(Set.of(STUDENT_ID))).thenReturn(List.of());
 
         assertThatThrownBy(() -> gradeService.getForStudent(STUDENT_ID))
                 .isInstanceOf(RuntimeException.class)
@@ -67,23 +107,40 @@ class GradeServiceTest {
 
     @Test
     public void getForStudent_whenInvoked_expectedResult() {
-        Grade expectedGrade = new Grade(9.5, Discipline.GEOMETRY);
-        student.addGrade(expectedGrade);
-        GradeDto dto = new GradeDto(1L, 9.5, Discipline.GEOMETRY);
-        when(gradeDtoMapper.mapList(student.getGrades())).thenReturn(List.of(dto));
+        when(gradeRepository.findGradesByStudentIdIn(Set.of(STUDENT_ID)))
+                .thenReturn(List.of(new StudentGrade(STUDENT_ID, 1L, 9.5, Discipline.GEOMETRY)));
 
         assertThat(gradeService.getForStudent(STUDENT_ID))
                 .hasSize(1)
-                .containsOnly(dto);
+                .containsOnly(new GradeDto(1L, 9.5, Discipline.GEOMETRY));
+        verifyNoInteractions(studentRepository);
+    }
+
+    @Test
+    public void getForStudent_whenNoGrades_emptyList() {
+        when(gradeRepository.findGradesByStudentIdIn(Set.of(STUDENT_ID)))
+                .thenReturn(List.of(new StudentGrade(STUDENT_ID, null, null, null)));
+
+        assertThat(gradeService.getForStudent(STUDENT_ID)).isEmpty();
+    }
+
+    @Test
+    public void getForStudent_whenCalledTwice_loadsOnce() {
+        when(gradeRepository.findGradesByStudentIdIn(Set.of(STUDENT_ID)))
+                .thenReturn(List.of(new StudentGrade(STUDENT_ID, 1L, 9.5, Discipline.GEOMETRY)));
+
+        gradeService.getForStudent(STUDENT_ID);
+
+        assertThat(gradeService.getForStudent(STUDENT_ID)).containsOnly(new GradeDto(1L, 9.5, Discipline.GEOMETRY));
+        verify(gradeRepository, times(1)).findGradesByStudentIdIn(Set.of(STUDENT_ID));
     }
 
     @Test
     public void getAveragePerDiscipline_whenInvoked_expectedResult() {
-        student.addGrade(new Grade(9.0, Discipline.GEOMETRY));
-        student.addGrade(new Grade(10.0, Discipline.GEOMETRY));
-        student.addGrade(new Grade(9.5, Discipline.ALGEBRA));
-        student.addGrade(new Grade(8.0, Discipline.ARTIFICIAL_INTELLIGENCE));
-        student.addGrade(new Grade(10.0, Discipline.ARTIFICIAL_INTELLIGENCE));
+        when(statisticService.getStats(STUDENT_ID)).thenReturn(List.of(
+                new DisciplineStats(STUDENT_ID, Discipline.GEOMETRY, 2L, 19.0, 10.0, 9.0),
+                new DisciplineStats(STUDENT_ID, Discipline.ALGEBRA, 1L, 9.5, 9.5, 9.5),
+                new DisciplineStats(STUDENT_ID, Discipline.ARTIFICIAL_INTELLIGENCE, 2L, 18.0, 10.0, 8.0)));
 
         Map<Discipline, Double> result = gradeService.getAveragePerDiscipline(STUDENT_ID);
 
@@ -93,13 +150,33 @@ class GradeServiceTest {
                               Map.entry(Discipline.ARTIFICIAL_INTELLIGENCE, 9.0));
     }
 
+    @Test
+    public void getAveragePerDiscipline_whenInColumnarStore_statisticsNotRead() {
+        DisciplineAggregator aggregator = new DisciplineAggregator();
+        aggregator.add(Discipline.GEOMETRY, 9.0);
+        aggregator.add(Discipline.GEOMETRY, 8.0);
+        when(gradeStore.aggregate(STUDENT_ID)).thenReturn(Optional.of(aggregator));
+
+        assertThat(gradeService.getAveragePerDiscipline(STUDENT_ID)).containsOnly(Map.entry(Discipline.GEOMETRY, 8.5));
+        verifyNoInteractions(statisticService);
+    }
+
+    @Test
+    public void getAveragePerDiscipline_whenStudentNotFound_exceptionThrown() {
+        when(statisticService.getStats(STUDENT_ID)).thenReturn(List.of());
+        when(studentRepository.existsById(STUDENT_ID)).thenReturn(false);
+
+        assertThatThrownBy(() -> gradeService.getAveragePerDiscipline(STUDENT_ID))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Student not found");
+    }
+
     @Test
     public void getMaxPerDiscipline_whenInvoked_expectedResult() {
-        student.addGrade(new Grade(9.0, Discipline.GEOMETRY));
-        student.addGrade(new Grade(10.0, Discipline.GEOMETRY));
-        student.addGrade(new Grade(9.5, Discipline.ALGEBRA));
-        student.addGrade(new Grade(8.0, Discipline.ARTIFICIAL_INTELLIGENCE));
-        student.addGrade(new Grade(10.0, Discipline.ARTIFICIAL_INTELLIGENCE));
+        when(statisticService.getStats(STUDENT_ID)).thenReturn(List.of(
+                new DisciplineStats(STUDENT_ID, Discipline.GEOMETRY, 2L, 19.0, 10.0, 9.0),
+                new DisciplineStats(STUDENT_ID, Discipline.ALGEBRA, 1L, 9.5, 9.5, 9.5),
+                new DisciplineStats(STUDENT_ID, Discipline.ARTIFICIAL_INTELLIGENCE, 2L, 18.0, 10.0, 8.0)));
 
         Map<Discipline, Double> result = gradeService.getMaxPerDiscipline(STUDENT_ID);
 
@@ -111,11 +188,10 @@ class GradeServiceTest {
 
     @Test
     public void isPromotedPerDiscipline_whenInvoked_expectedResult() {
-        student.addGrade(new Grade(9.0, Discipline.GEOMETRY));
-        student.addGrade(new Grade(10.0, Discipline.GEOMETRY));
-        student.addGrade(new Grade(9.5, Discipline.ALGEBRA));
-        student.addGrade(new Grade(2.0, Discipline.ARTIFICIAL_INTELLIGENCE));
-        student.addGrade(new Grade(5.0, Discipline.ARTIFICIAL_INTELLIGENCE));
+        when(statisticService.getStats(STUDENT_ID)).thenReturn(List.of(
+                new DisciplineStats(STUDENT_ID, Discipline.GEOMETRY, 2L, 19.0, 10.0, 9.0),
+                new DisciplineStats(STUDENT_ID, Discipline.ALGEBRA, 1L, 9.5, 9.5, 9.5),
+                new DisciplineStats(STUDENT_ID, Discipline.ARTIFICIAL_INTELLIGENCE, 2L, 7.0, 5.0, 2.0)));
 
         Map<Discipline, Boolean> result = gradeService.isPromotedPerDiscipline(STUDENT_ID);
 
@@ -126,4 +202,50 @@ class GradeServiceTest {
         assertThat(result.get(Discipline.PROGRAMMING_FUNDAMENTALS)).isFalse();
         assertThat(result.get(Discipline.WEB_DEVELOPMENT)).isFalse();
     }
+
+    @Test
+    public void getForStudents_whenSomeStudentsUnknown_listsThemAsMissing() {
+        when(gradeRepository.findGradesByStudentIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                new StudentGrade(1L, 10L, 9.5, Discipline.GEOMETRY),
+                new StudentGrade(1L, 11L, 8.0, Discipline.ALGEBRA),
+                new StudentGrade(3L, null, null, null)));
+
+        StudentGradesResult result = gradeService.getForStudents(List.of(3L, 2L, 1L));
+
+        assertThat(result.getGrades()).containsExactly(
+                Map.entry(3L, List.of()),
+                Map.entry(1L, List.of(new GradeDto(10L, 9.5, Discipline.GEOMETRY), new GradeDto(11L, 8.0, Discipline.ALGEBRA))));
+        assertThat(result.getMissing()).containsExactly(2L);
+    }
+
+    @Test
+    public void getForStudents_whenSomeCached_loadsOnlyTheOthers() {
+        when(gradeRepository.findGradesByStudentIdIn(Set.of(1L))).thenReturn(List.of(new StudentGrade(1L, 10L, 9.5, Discipline.GEOMETRY)));
+        when(gradeRepository.findGradesByStudentIdIn(Set.of(2L))).thenReturn(List.of(new StudentGrade(2L, 20L, 7.0, Discipline.GEOMETRY)));
+        gradeService.getForStudents(List.of(1L));
+
+        StudentGradesResult result = gradeService.getForStudents(List.of(1L, 2L));
+
+        assertThat(result.getGrades()).containsOnlyKeys(1L, 2L);
+        verify(gradeRepository, times(1)).findGradesByStudentIdIn(Set.of(1L));
+    }
+
+    @Test
+    public void getStatisticsForStudents_whenInvoked_returnsRequestedStatisticsAndMissing() {
+        DisciplineAggregator aggregator = new DisciplineAggregator();
+        aggregator.add(Discipline.ALGEBRA, 4.0);
+        when(gradeStore.aggregate(anyLong())).thenReturn(Optional.empty());
+        when(gradeStore.aggregate(3L)).thenReturn(Optional.of(aggregator));
+        when(studentRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L));
+        when(statisticService.getStats(Set.of(1L, 2L))).thenReturn(List.of(
+                new DisciplineStats(1L, Discipline.GEOMETRY, 2L, 19.0, 10.0, 9.0)));
+
+        StudentStatisticsResult result = gradeService.getStatisticsForStudents(List.of(1L, 2L, 3L),
+                                                                               EnumSet.of(StudentStatistic.AVERAGE, StudentStatistic.MAX));
+
+        assertThat(result.getStatistics()).containsExactly(
+                Map.entry(1L, new StudentStatisticsDto(Map.of(Discipline.GEOMETRY, 9.5), Map.of(Discipline.GEOMETRY, 10.0), null)),
+                Map.entry(3L, new StudentStatisticsDto(Map.of(Discipline.ALGEBRA, 4.0), Map.of(Discipline.ALGEBRA, 4.0), null)));
+        assertThat(result.getMissing()).containsExactly(2L);
+    }
 }
@@ -0,0 +1,92 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.GroupReportDto;
+import com.example.junit.web.dto.PromotionDto;
+import com.example.junit.web.dto.StudentRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"promotion.drop-lowest=2", "promotion.min-grades.GEOMETRY=4", "reports.parallelism=3"})
+class GroupPromotionTest {
+
+    @Autowired
+    private ReportService reportService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+
+    @Test
+    public void getGroupPromotion_whenDroppingSeveralGrades_matchesPerStudentEvaluation() {
+        final String group = UUID.randomUUID().toString().substring(0, 8);
+        final List<Long> students = addGroup(group, new Random(42));
+
+        Map<Long, PromotionDto> result = reportService.getGroupPromotion(group);
+
+        assertThat(result).containsOnlyKeys(students);
+        students.forEach(studentId -> assertThat(result.get(studentId).getDisciplines())
+                .isEqualTo(gradeService.isPromotedPerDiscipline(studentId)));
+    }
+
+    @Test
+    public void getGroupReport_whenDroppingSeveralGrades_promotionRateMatchesGroupPromotion() {
+        final String group = UUID.randomUUID().toString().substring(0, 8);
+        final List<Long> students = addGroup(group, new Random(7));
+        final Map<Long, PromotionDto> promotion = reportService.getGroupPromotion(group);
+
+        GroupReportDto result = reportService.getGroupReport(group, 3);
+        GroupReportDto fromAllGroups = reportService.getGroupReports(3).stream()
+                .filter(report -> group.equals(report.getGroup()))
+                .findFirst()
+                .orElseThrow();
+
+        for (Discipline discipline : Discipline.values()) {
+            final double expected = promotion.values().stream().filter(dto -> dto.getDisciplines().get(discipline)).count()
+                                    / (double) students.size();
+            assertThat(result.getPromotionRate()).containsEntry(discipline, expected);
+            assertThat(fromAllGroups.getPromotionRate()).containsEntry(discipline, expected);
+        }
+    }
+
+    @Test
+    public void getGroupPromotion_whenDroppingSeveralGrades_dropsTheLowest() {
+        final String group = UUID.randomUUID().toString().substring(0, 8);
+        final Long studentId = studentService.add(new StudentRequest("Ann", "Promoted", group)).getId();
+        for (double value : new double[]{1.0, 2.0, 5.0, 6.0}) {
+            gradeService.add(new GradeRequest(studentId, value, Discipline.ALGEBRA));
+            gradeService.add(new GradeRequest(studentId, value + 3, Discipline.GEOMETRY));
+        }
+        gradeService.add(new GradeRequest(studentId, 10.0, Discipline.WEB_DEVELOPMENT));
+
+        PromotionDto result = reportService.getGroupPromotion(group).get(studentId);
+
+        assertThat(result.getDisciplines())
+                .containsEntry(Discipline.ALGEBRA, true)
+                .containsEntry(Discipline.GEOMETRY, true)
+                .containsEntry(Discipline.WEB_DEVELOPMENT, false);
+        assertThat(result.isPromoted()).isTrue();
+    }
+
+    private List<Long> addGroup(String group, Random random) {
+        final List<Long> students = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            final Long studentId = studentService.add(new StudentRequest("Student" + i, "Promoted", group)).getId();
+            for (int j = random.nextInt(12); j > 0; j--) {
+                gradeService.add(new GradeRequest(studentId, 1.0 + random.nextInt(10), Discipline.values()[random.nextInt(3)]));
+            }
+            students.add(studentId);
+        }
+        return students;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Grade;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PromotionRulesTest {
+
+    @Test
+    public void evaluate_whenDefaultRules_matchesAveragePromotion() {
+        PromotionRules rules = new PromotionRules(new MockEnvironment());
+        Random random = new Random(42);
+        for (int student = 0; student < 200; student++) {
+            List<Grade> grades = randomGrades(random, random.nextInt(20));
+
+            int promoted = evaluate(rules, grades);
+
+            Map<Discipline, Double> averages = grades.stream()
+                    .collect(Collectors.groupingBy(Grade::getDiscipline, Collectors.averagingDouble(Grade::getValue)));
+            for (Discipline discipline : Discipline.values()) {
+                assertThat(PromotionRules.isPromoted(promoted, discipline))
+                        .isEqualTo(averages.containsKey(discipline) && averages.get(discipline) > 4.5);
+            }
+        }
+    }
+
+    @Test
+    public void evaluate_whenAggregatedAndDroppingLowest_matchesGrades() {
+        PromotionRules rules = new PromotionRules(new MockEnvironment().withProperty("promotion.drop-lowest", "1"));
+        Random random = new Random(7);
+        for (int student = 0; student < 200; student++) {
+            List<Grade> grades = randomGrades(random, random.nextInt(20));
+
+            DisciplineAggregator aggregator = new DisciplineAggregator();
+            grades.forEach(grade -> aggregator.add(grade.getDiscipline(), grade.getValue()));
+
+            int promoted = rules.evaluate(aggregator, rules.newAccumulator());
+
+            assertThat(promoted).isEqualTo(evaluate(rules, grades));
+        }
+    }
+
+    @Test
+    public void evaluate_whenDisciplineThreshold_overridesDefault() {
+        PromotionRules rules = new PromotionRules(new MockEnvironment().withProperty("promotion.threshold.ALGEBRA", "8"));
+
+        int promoted = evaluate(rules, List.of(new Grade(7.0, Discipline.ALGEBRA), new Grade(7.0, Discipline.GEOMETRY)));
+
+        assertThat(PromotionRules.isPromoted(promoted, Discipline.ALGEBRA)).isFalse();
+        assertThat(PromotionRules.isPromoted(promoted, Discipline.GEOMETRY)).isTrue();
+    }
+
+    @Test
+    public void evaluate_whenFewerGradesThanMinimum_notPromoted() {
+        PromotionRules rules = new PromotionRules(new MockEnvironment().withProperty("promotion.min-grades", "2"));
+
+        int promoted = evaluate(rules, List.of(new Grade(9.0, Discipline.ALGEBRA),
+                                               new Grade(9.0, Discipline.GEOMETRY),
+                                               new Grade(8.0, Discipline.GEOMETRY)));
+
+        assertThat(PromotionRules.isPromoted(promoted, Discipline.ALGEBRA)).isFalse();
+        assertThat(PromotionRules.isPromoted(promoted, Discipline.GEOMETRY)).isTrue();
+        assertThat(PromotionRules.isPromoted(promoted)).isTrue();
+    }
+
+    @Test
+    public void evaluate_whenDroppingLowest_averagesTheRest() {
+        PromotionRules rules = new PromotionRules(new MockEnvironment().withProperty("promotion.drop-lowest", "2"));
+
+        int promoted = evaluate(rules, List.of(new Grade(1.0, Discipline.ALGEBRA),
+                                               new Grade(5.0, Discipline.ALGEBRA),
+                                               new Grade(2.0, Discipline.ALGEBRA),
+                                               new Grade(3.0, Discipline.ALGEBRA),
+                                               new Grade(9.0, Discipline.GEOMETRY),
+                                               new Grade(9.0, Discipline.GEOMETRY)));
+
+        assertThat(rules.needsGrades()).isTrue();
+        assertThat(PromotionRules.isPromoted(promoted, Discipline.ALGEBRA)).isFalse();
+        assertThat(PromotionRules.isPromoted(promoted, Discipline.GEOMETRY)).isFalse();
+
+        promoted = evaluate(rules, List.of(new Grade(1.0, Discipline.ALGEBRA),
+                                           new Grade(5.0, Discipline.ALGEBRA),
+                                           new Grade(2.0, Discipline.ALGEBRA),
+                                           new Grade(4.5, Discipline.ALGEBRA),
+                                           new Grade(4.6, Discipline.ALGEBRA)));
+
+        assertThat(PromotionRules.isPromoted(promoted, Discipline.ALGEBRA)).isTrue();
+    }
+
+    @Test
+    public void evaluate_whenWeighted_overallUsesWeightedAverage() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("promotion.overall-threshold", "6")
+                .withProperty("promotion.weight.ALGEBRA", "3");
+        PromotionRules rules = new PromotionRules(environment);
+        List<Grade> grades = List.of(new Grade(8.0, Discipline.ALGEBRA), new Grade(2.0, Discipline.GEOMETRY));
+
+        assertThat(PromotionRules.isPromoted(evaluate(rules, grades))).isTrue();
+
+        rules = new PromotionRules(environment.withProperty("promotion.weight.ALGEBRA", "1"));
+
+        assertThat(PromotionRules.isPromoted(evaluate(rules, grades))).isFalse();
+    }
+
+    @Test
+    public void evaluate_whenNoGrades_nothingPromoted() {
+        PromotionRules rules = new PromotionRules(new MockEnvironment());
+
+        assertThat(rules.evaluate(rules.newAccumulator())).isZero();
+    }
+
+    @Test
+    public void new_whenNegativeDropLowest_exceptionThrown() {
+        assertThatThrownBy(() -> new PromotionRules(new MockEnvironment().withProperty("promotion.drop-lowest.ALGEBRA", "-1")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Invalid promotion rule for ALGEBRA");
+    }
+
+    private static int evaluate(PromotionRules rules, List<Grade> grades) {
+        PromotionAccumulator accumulator = rules.newAccumulator();
+        grades.forEach(grade -> accumulator.add(grade.getDiscipline(), grade.getValue()));
+        return rules.evaluate(accumulator);
+    }
+
+    private static List<Grade> randomGrades(Random random, int count) {
+        List<Grade> grades = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            grades.add(new Grade(1 + random.nextInt(37) / 4.0, Discipline.values()[random.nextInt(Discipline.values().length)]));
+        }
+        return grades;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.GroupReportDto;
+import com.example.junit.web.dto.PromotionDto;
+import com.example.junit.web.dto.RankedStudentDto;
+import com.example.junit.web.dto.StudentRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+class ReportServiceTest {
+
+    @Autowired
+    private ReportService reportService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+
+    private String firstGroup;
+    private String secondGroup;
+    private Long first;
+    private Long second;
+    private Long third;
+
+    @BeforeEach
+    public void setup() {
+        final String prefix = UUID.randomUUID().toString().substring(0, 8);
+        firstGroup = prefix + "-1";
+        secondGroup = prefix + "-2";
+        first = addStudent("Ann", firstGroup);
+        second = addStudent("Bob", firstGroup);
+        third = addStudent("Cid", firstGroup);
+        Long fourth = addStudent("Dan", secondGroup);
+        addGrade(first, 9.0, Discipline.ALGEBRA);
+        addGrade(first, 10.0, Discipline.ALGEBRA);
+        addGrade(second, 4.0, Discipline.ALGEBRA);
+        addGrade(third, 7.0, Discipline.GEOMETRY);
+        addGrade(third, 5.0, Discipline.ALGEBRA);
+        addGrade(fourth, 8.5, Discipline.WEB_DEVELOPMENT);
+    }
+
+    @Test
+    public void getGroupAverages_whenInvoked_averagesPerStudent() {
+        assertThat(reportService.getGroupAverages(firstGroup)).hasSize(3)
+                .containsEntry(first, Map.of(Discipline.ALGEBRA, 9.5))
+                .containsEntry(third, Map.of(Discipline.GEOMETRY, 7.0, Discipline.ALGEBRA, 5.0));
+    }
+
+    @Test
+    public void getGroupReport_whenInvoked_ranksAndAggregatesGroup() {
+        GroupReportDto report = reportService.getGroupReport(firstGroup, 2);
+
+        assertThat(report.getStudents()).isEqualTo(3);
+        assertThat(report.getTop()).extracting(RankedStudentDto::getId).containsExactly(first, third);
+        assertThat(report.getTop().get(0).getAverage()).isEqualTo(9.5);
+        assertThat(report.getTop().get(1).getFirstName()).isEqualTo("Cid");
+        assertThat(report.getPromotionRate().get(Discipline.ALGEBRA)).isCloseTo(2 / 3.0, within(1e-9));
+        assertThat(report.getPromotionRate().get(Discipline.GEOMETRY)).isCloseTo(1 / 3.0, within(1e-9));
+        assertThat(report.getPromotionRate().get(Discipline.WEB_DEVELOPMENT)).isZero();
+        assertThat(report.getHistogram().get(Discipline.ALGEBRA))
+                .containsExactly(Map.entry(4, 1L), Map.entry(5, 1L), Map.entry(9, 1L), Map.entry(10, 1L));
+    }
+
+    @Test
+    public void getGroupReports_whenInvoked_reportsEveryGroup() {
+        List<GroupReportDto> reports = reportService.getGroupReports(10);
+
+        assertThat(reports).extracting(GroupReportDto::getGroup).contains(firstGroup, secondGroup);
+        GroupReportDto second = reports.stream().filter(report -> secondGroup.equals(report.getGroup())).findFirst().orElseThrow();
+        assertThat(second.getTop()).hasSize(1);
+        assertThat(second.getHistogram()).containsOnly(Map.entry(Discipline.WEB_DEVELOPMENT, Map.of(8, 1L)));
+    }
+
+    @Test
+    public void getGroupReport_whenGroupUnknown_exceptionThrown() {
+        assertThatThrownBy(() -> reportService.getGroupReport("missing", 10))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Group not found");
+    }
+
+    @Test
+    public void getGroupPromotion_whenInvoked_evaluatesEveryStudentOfGroup() {
+        Long withoutGrades = addStudent("Eve", firstGroup);
+
+        Map<Long, PromotionDto> result = reportService.getGroupPromotion(firstGroup);
+
+        assertThat(result).containsOnlyKeys(first, second, third, withoutGrades);
+        assertThat(result.get(first).isPromoted()).isTrue();
+        assertThat(result.get(first).getDisciplines()).isEqualTo(gradeService.isPromotedPerDiscipline(first));
+        assertThat(result.get(second).isPromoted()).isFalse();
+        assertThat(result.get(third).getDisciplines())
+                .containsEntry(Discipline.ALGEBRA, true)
+                .containsEntry(Discipline.GEOMETRY, true)
+                .containsEntry(Discipline.WEB_DEVELOPMENT, false);
+        assertThat(result.get(withoutGrades).isPromoted()).isFalse();
+        assertThat(result.get(withoutGrades).getDisciplines()).doesNotContainValue(true);
+    }
+
+    @Test
+    public void getGroupPromotion_whenGroupUnknown_exceptionThrown() {
+        assertThatThrownBy(() -> reportService.getGroupPromotion("missing"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Group not found");
+    }
+
+    private Long addStudent(String firstName, String group) {
+        return studentService.add(new StudentRequest(firstName, "White", group)).getId();
+    }
+
+    private void addGrade(Long studentId, double value, Discipline discipline) {
+        gradeService.add(new GradeRequest(studentId, value, discipline));
+    }
+}
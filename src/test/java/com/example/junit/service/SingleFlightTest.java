@@ -0,0 +1,117 @@
+package com.example.junit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void execute_whenSameKeyInFlight_loadsOnce() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", executor, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(singleFlight.execute(1L, () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "grades";
+            }));
+        }
+        release.countDown();
+
+        assertThat(futures).allSatisfy(future -> assertThat(future.get()).isEqualTo("grades"));
+        assertThat(loads).hasValue(1);
+        assertThat(count("load")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(9);
+    }
+
+    @Test
+    public void execute_afterLoadCompleted_loadsAgain() throws Exception {
+        SingleFlight<Long, Integer> singleFlight = new SingleFlight<>("test", executor, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(singleFlight.execute(1L, loads::incrementAndGet).get()).isEqualTo(1);
+        assertThat(singleFlight.execute(1L, loads::incrementAndGet).get()).isEqualTo(2);
+        assertThat(singleFlight.execute(2L, loads::incrementAndGet).get()).isEqualTo(3);
+    }
+
+    @Test
+    public void execute_whenLoadFails_failsAllWaitersAndLoadsAgain() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", executor, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = singleFlight.execute(1L, () -> {
+            await(release);
+            throw new RuntimeException("Student not found");
+        });
+        CompletableFuture<String> second = singleFlight.execute(1L, () -> "unused");
+        release.countDown();
+
+        assertThatThrownBy(first::join).hasRootCauseMessage("Student not found");
+        assertThatThrownBy(second::join).hasRootCauseMessage("Student not found");
+        assertThat(singleFlight.execute(1L, () -> "grades").get()).isEqualTo("grades");
+    }
+
+    @Test
+    public void forget_whenLoadInFlight_laterCallLoadsAgain() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", executor, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> stale = singleFlight.execute(1L, () -> {
+            await(release);
+            return "stale";
+        });
+        singleFlight.forget(1L);
+        CompletableFuture<String> fresh = singleFlight.execute(1L, () -> "fresh");
+        assertThat(fresh.get()).isEqualTo("fresh");
+        release.countDown();
+
+        assertThat(stale.get()).isEqualTo("stale");
+        assertThat(count("load")).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_whenExecutorRejects_failsAndForgetsKey() {
+        executor.shutdown();
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", executor, meterRegistry);
+
+        assertThatThrownBy(singleFlight.execute(1L, () -> "grades")::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("single.flight.in.flight").tag("name", "test").gauge().value()).isZero();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("single.flight.calls").tag("name", "test").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.junit.service;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.web.dto.GradeDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentGradeCacheTest {
+
+    private static final long STUDENT_ID = 1L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<GradeDto>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of(new GradeDto(1L, 9.0, Discipline.ALGEBRA));
+    };
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void getGrades_whenCached_loaderNotCalledAgain() {
+        StudentGradeCache cache = new StudentGradeCache(true, 10, Duration.ofMinutes(1), meterRegistry);
+
+        cache.getGrades(STUDENT_ID, loader);
+        cache.getGrades(STUDENT_ID, loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "studentGrades").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    public void getGrades_whenExpired_loadedAgain() throws InterruptedException {
+        StudentGradeCache cache = new StudentGradeCache(true, 10, Duration.ofMillis(50), meterRegistry);
+
+        cache.getGrades(STUDENT_ID, loader);
+        Thread.sleep(100);
+        cache.getGrades(STUDENT_ID, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void evictAfterCommit_whenTransactionCommits_entryEvicted() {
+        StudentGradeCache cache = new StudentGradeCache(true, 10, Duration.ofMinutes(1), meterRegistry);
+        cache.getGrades(STUDENT_ID, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit(STUDENT_ID);
+        cache.getGrades(STUDENT_ID, loader);
+        assertThat(loads).hasValue(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.getGrades(STUDENT_ID, loader);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void evictAfterCommit_whenTransactionRollsBack_entryKept() {
+        StudentGradeCache cache = new StudentGradeCache(true, 10, Duration.ofMinutes(1), meterRegistry);
+        cache.getGrades(STUDENT_ID, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit(STUDENT_ID);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        cache.getGrades(STUDENT_ID, loader);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void evict_whenLoadInFlight_loadedValueNotCached() {
+        StudentGradeCache cache = new StudentGradeCache(true, 10, Duration.ofMinutes(1), meterRegistry);
+
+        cache.getGrades(STUDENT_ID, () -> {
+            cache.evict(STUDENT_ID);
+            return loader.get();
+        });
+        cache.getGrades(STUDENT_ID, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void getGrades_whenLoaderFails_nextCallLoadsAgain() {
+        StudentGradeCache cache = new StudentGradeCache(true, 10, Duration.ofMinutes(1), meterRegistry);
+
+        assertThatThrownBy(() -> cache.getGrades(STUDENT_ID, () -> {
+            throw new RuntimeException("Student not found");
+        })).hasMessage("Student not found");
+        cache.getGrades(STUDENT_ID, loader);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void getGrades_whenDisabled_alwaysLoads() {
+        StudentGradeCache cache = new StudentGradeCache(false, 10, Duration.ofMinutes(1), meterRegistry);
+
+        cache.getGrades(STUDENT_ID, loader);
+        cache.getGrades(STUDENT_ID, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.junit.service;
+
+import com.example.junit.datasource.ReplicaRouting;
+import com.example.junit.metrics.QueryCounter;
+import com.example.junit.repository.StudentRepository;
+import com.example.junit.web.dto.RowError;
+import com.example.junit.web.dto.StudentBatchResult;
+import com.example.junit.web.dto.StudentRequest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class StudentImportServiceTest {
+
+    @Autowired
+    private StudentImportService studentImportService;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Test
+    public void upsert_whenKeysRepeat_returnsOneIdPerKeyInInputOrder() {
+        Long existing = studentService.add(new StudentRequest("Ann", "Upsert", "G11")).getId();
+
+        StudentBatchResult result = studentImportService.upsert(List.of(
+                new StudentRequest("Bob", "Upsert", "G11"),
+                new StudentRequest("Ann", "Upsert", "G11"),
+                new StudentRequest("Bob", "Upsert", "G12"),
+                new StudentRequest("Bob", "Upsert", "G11"),
+                new StudentRequest("Bob", "Upsert", null),
+                new StudentRequest("Bob", "Upsert", null)).iterator());
+
+        List<Long> ids = result.getIds();
+        assertThat(ids).hasSize(6).doesNotContainNull();
+        assertThat(ids.get(1)).isEqualTo(existing);
+        assertThat(ids.get(3)).isEqualTo(ids.get(0));
+        assertThat(ids.get(5)).isEqualTo(ids.get(4));
+        assertThat(List.of(ids.get(0), ids.get(1), ids.get(2), ids.get(4))).doesNotHaveDuplicates();
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getExisting()).isEqualTo(1);
+        assertThat(studentRepository.findById(ids.get(2))).hasValueSatisfying(student -> assertThat(student.getGroup()).isEqualTo("G12"));
+
+        StudentBatchResult again = studentImportService.upsert(List.of(
+                new StudentRequest("Bob", "Upsert", null),
+                new StudentRequest("Bob", "Upsert", "G12")).iterator());
+
+        assertThat(again.getIds()).containsExactly(ids.get(4), ids.get(2));
+        assertThat(again.getCreated()).isZero();
+    }
+
+    @Test
+    public void upsert_whenSpanningChunks_batchesInsertsAndKeepsOrder() {
+        List<StudentRequest> requests = new ArrayList<>();
+        int students = StudentImportService.CHUNK_SIZE + 200;
+        for (int i = 0; i < students; i++) {
+            requests.add(new StudentRequest("Student" + i, "Chunked", "G" + (i % 5)));
+        }
+        requests.add(new StudentRequest("Student0", "Chunked", "G0"));
+
+        QueryCounter.Counts counts = QueryCounter.start();
+        StudentBatchResult result;
+        try {
+            result = studentImportService.upsert(requests.iterator());
+        } finally {
+            QueryCounter.stop();
+        }
+
+        assertThat(result.getCreated()).isEqualTo(students);
+        assertThat(result.getExisting()).isEqualTo(1);
+        assertThat(result.getIds()).hasSize(students + 1).doesNotContainNull();
+        assertThat(result.getIds().get(students)).isEqualTo(result.getIds().get(0));
+        assertThat(result.getIds().subList(0, students)).isSorted().doesNotHaveDuplicates();
+        assertThat(counts.getStatements()).isLessThan(students / 10);
+    }
+
+    @Test
+    public void upsert_whenRowsInvalid_reportsThemWithoutIds() {
+        StudentBatchResult result = studentImportService.upsert(Arrays.asList(
+                new StudentRequest("Carl", "Valid", "G11"),
+                new StudentRequest(null, "Invalid", "G11"),
+                new StudentRequest("Carl", " ", "G11")).iterator());
+
+        assertThat(result.getIds()).hasSize(3).satisfies(ids -> {
+            assertThat(ids.get(0)).isNotNull();
+            assertThat(ids.get(1)).isNull();
+            assertThat(ids.get(2)).isNull();
+        });
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(RowError::getRow, RowError::getMessage)
+                .containsExactly(tuple(2L, "First name is required"),
+                                 tuple(3L, "Last name is required"));
+    }
+
+    @Test
+    public void upsert_whenRowMalformed_reportsItAndKeepsInputOrder() {
+        Iterator<Supplier<StudentRequest>> rows = List.<Supplier<StudentRequest>>of(
+                () -> new StudentRequest("Dan", "Parsed", "G11"),
+                () -> {
+                    throw new IllegalArgumentException("Malformed row: Unexpected end-of-input");
+                },
+                () -> new StudentRequest("Eve", "Parsed", "G11")).iterator();
+        Iterator<StudentRequest> requests = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public StudentRequest next() {
+                return rows.next().get();
+            }
+        };
+
+        StudentBatchResult result = studentImportService.upsert(requests);
+
+        assertThat(result.getIds()).hasSize(3).satisfies(ids -> {
+            assertThat(ids.get(0)).isNotNull();
+            assertThat(ids.get(1)).isNull();
+            assertThat(ids.get(2)).isNotNull();
+        });
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(RowError::getRow, RowError::getMessage)
+                .containsExactly(tuple(2L, "Malformed row: Unexpected end-of-input"));
+    }
+
+    @Test
+    public void upsert_whenChunkFailsUnexpectedly_reportsItsRowsWithoutIds() {
+        StudentRepository repository = mock(StudentRepository.class);
+        GradeEventOutbox eventOutbox = mock(GradeEventOutbox.class);
+        doThrow(new IllegalStateException("Unexpected")).when(eventOutbox).studentsCreated(any());
+        StudentImportService importService = new StudentImportService(repository, mock(ReplicaRouting.class), eventOutbox,
+                                                                             new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                                                                             mock(EntityManager.class));
+
+        StudentBatchResult result = importService.upsert(List.of(
+                new StudentRequest("Fay", "Failed", "G11"),
+                new StudentRequest("Gus", "Failed", "G11")).iterator());
+
+        assertThat(result.getIds()).hasSize(2).containsOnlyNulls();
+        assertThat(result.getCreated()).isZero();
+        assertThat(result.getErrors()).extracting(RowError::getRow, RowError::getMessage)
+                .containsExactly(tuple(1L, "Chunk rolled back: Unexpected"),
+                                 tuple(2L, "Chunk rolled back: Unexpected"));
+    }
+}
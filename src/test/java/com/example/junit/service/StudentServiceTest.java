@@ -1,10 +1,13 @@
 package com.example.junit.service;
 
+import com.example.junit.datasource.ReplicaRouting;
 import com.example.junit.domain.Student;
+import com.example.junit.metrics.GradeMetrics;
 import com.example.junit.repository.StudentRepository;
 import com.example.junit.service.mapper.Mapper;
 import com.example.junit.web.dto.StudentDto;
 import com.example.junit.web.dto.StudentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,9 +15,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,12 +33,15 @@ class StudentServiceTest {
     private StudentRepository studentRepository;
     @Mock
     private Mapper<Student, StudentDto> studentDtoMapper;
+    @Mock
+    private GradeEventOutbox eventOutbox;
 
     private StudentService studentService;
 
     @BeforeEach
     public void setup() {
-        studentService = new StudentService(studentRepository, studentDtoMapper);
+        studentService = new StudentService(studentRepository, studentDtoMapper, new GradeMetrics(new SimpleMeterRegistry()),
+                                        new ReplicaRouting(false, Duration.ZERO), eventOutbox);
     }
 
     @Test
@@ -48,6 +60,26 @@ class StudentServiceTest {
         assertThat(savedStudent.getLastName()).isEqualTo("White");
         assertThat(savedStudent.getGroup()).isEqualTo("G11");
         assertThat(savedStudent.getGrades()).isEmpty();
+        verify(eventOutbox).studentsCreated(List.of(student));
+    }
+
+    @Test
+    public void get_whenPageEmpty_noGradesLoaded() {
+        when(studentRepository.findIdsAfter(eq(0L), any())).thenReturn(Collections.emptyList());
+
+        assertThat(studentService.get(null, 10)).isEmpty();
+        verify(studentRepository, never()).findWithGradesByIdIn(any());
+    }
+
+    @Test
+    public void get_whenInvoked_loadsPageWithGrades() {
+        Student student = new Student("John", "White", "G11");
+        StudentDto dto = new StudentDto(6L, "John", "White", "G11", Collections.emptyList());
+        when(studentRepository.findIdsAfter(eq(5L), any())).thenReturn(List.of(6L));
+        when(studentRepository.findWithGradesByIdIn(List.of(6L))).thenReturn(List.of(student));
+        when(studentDtoMapper.mapList(List.of(student))).thenReturn(List.of(dto));
+
+        assertThat(studentService.get(5L, 10)).containsExactly(dto);
     }
 
 }
@@ -0,0 +1,25 @@
+package com.example.junit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopNTest {
+
+    @Test
+    public void toSortedList_whenMerged_equalsFullSortPrefix() {
+        List<Integer> values = new Random(3).ints(10_000, 0, 1_000_000).boxed().toList();
+        TopN<Integer> left = new TopN<>(10, Comparator.<Integer>naturalOrder());
+        TopN<Integer> right = new TopN<>(10, Comparator.<Integer>naturalOrder());
+        IntStream.range(0, values.size()).forEach(i -> (i % 2 == 0 ? left : right).offer(values.get(i)));
+
+        List<Integer> result = left.merge(right).toSortedList();
+
+        assertThat(result).isEqualTo(values.stream().sorted(Comparator.reverseOrder()).limit(10).toList());
+    }
+}
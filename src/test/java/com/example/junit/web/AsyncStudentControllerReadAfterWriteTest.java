@@ -0,0 +1,87 @@
+package com.example.junit.web;
+
+import com.example.junit.service.GradeService;
+import com.example.junit.service.StudentService;
+import com.example.junit.web.dto.StudentRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A grade added while an asynchronous load of its student is in flight must
+ * be visible to requests made after the write, not only to the next load.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AsyncStudentControllerReadAfterWriteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StudentService studentService;
+
+    @SpyBean
+    private GradeService gradeService;
+
+    @Test
+    public void getGradesForStudent_whenGradeAddedDuringLoad_laterRequestSeesIt() throws Exception {
+        final Long studentId = studentService.add(new StudentRequest("Ann", "Async", "G11")).getId();
+        final AtomicBoolean first = new AtomicBoolean(true);
+        final CountDownLatch loaded = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            final Object grades = invocation.callRealMethod();
+            if (first.getAndSet(false)) {
+                loaded.countDown();
+                release.await();
+            }
+            return grades;
+        }).when(gradeService).getForStudent(studentId);
+
+        final MvcResult before = mockMvc.perform(get("/api/async/students/{id}/grades", studentId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+        mockMvc.perform(post("/api/students/{id}/grades", studentId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                   {
+                                       "value": 9.0,
+                                       "discipline": "ALGEBRA"
+                                   }
+                                """))
+               .andExpect(status().isCreated());
+        final MvcResult after = mockMvc.perform(get("/api/async/students/{id}/grades", studentId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        release.countDown();
+
+        mockMvc.perform(asyncDispatch(before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(asyncDispatch(after))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].value", is(9.0)));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.service.GradeService;
+import com.example.junit.web.dto.GradeDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AsyncStudentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private GradeService gradeService;
+
+    @Test
+    public void getGradesForStudent_whenRequestsConcurrent_loadsOnce() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        when(gradeService.getForStudent(1L)).thenAnswer(invocation -> {
+            release.await();
+            return List.of(new GradeDto(5L, 9.0, Discipline.ALGEBRA));
+        });
+
+        final List<MvcResult> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(mockMvc.perform(get("/api/async/students/{id}/grades", 1L))
+                                .andExpect(request().asyncStarted())
+                                .andReturn());
+        }
+        release.countDown();
+
+        for (MvcResult result : results) {
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].value", is(9.0)));
+        }
+        verify(gradeService, times(1)).getForStudent(1L);
+        assertThat(meterRegistry.get("single.flight.calls").tag("name", "grades").tag("result", "coalesced").counter().count())
+                .isGreaterThanOrEqualTo(19);
+    }
+
+    @Test
+    public void getAverageGradePerDiscipline_whenLoaded_expectedResponse() throws Exception {
+        when(gradeService.getAveragePerDiscipline(2L)).thenReturn(Map.of(Discipline.GEOMETRY, 8.5));
+
+        final MvcResult result = mockMvc.perform(get("/api/async/students/{id}/average", 2L)).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.GEOMETRY", is(8.5)));
+    }
+
+    @Test
+    public void isPromotedPerDiscipline_whenPoolSaturated_serviceUnavailable() throws Exception {
+        when(gradeService.isPromotedPerDiscipline(3L)).thenThrow(new RejectedExecutionException());
+
+        final MvcResult result = mockMvc.perform(get("/api/async/students/{id}/promotion", 3L)).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.service.GradeService;
+import com.example.junit.service.StudentService;
+import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentDto;
+import com.example.junit.web.dto.StudentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GradeBookExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+
+    private String lastName;
+    private Long first;
+    private Long second;
+    private GradeDto algebra;
+    private GradeDto geometry;
+
+    @BeforeEach
+    public void setup() {
+        lastName = "Export-" + UUID.randomUUID();
+        first = studentService.add(new StudentRequest("Ann, \"Jr\"", lastName, "G11")).getId();
+        second = studentService.add(new StudentRequest("Bob", lastName, "G12")).getId();
+        algebra = gradeService.add(new GradeRequest(first, 9.5, Discipline.ALGEBRA));
+        geometry = gradeService.add(new GradeRequest(first, 7.0, Discipline.GEOMETRY));
+    }
+
+    @Test
+    public void export_whenCsv_oneLinePerGradeInStudentOrder() throws Exception {
+        final String body = mockMvc.perform(get("/api/students/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"grade-book.csv\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        final List<String> lines = Arrays.asList(body.split("\n"));
+        assertThat(lines.get(0)).isEqualTo(GradeBookWriter.CSV_HEADER);
+        assertThat(lines).filteredOn(line -> line.contains(lastName)).containsExactly(
+                first + ",\"Ann, \"\"Jr\"\"\"," + lastName + ",G11," + algebra.getId() + ",9.5,ALGEBRA",
+                first + ",\"Ann, \"\"Jr\"\"\"," + lastName + ",G11," + geometry.getId() + ",7.0,GEOMETRY",
+                second + ",Bob," + lastName + ",G12,,,");
+    }
+
+    @Test
+    public void export_whenNdjson_oneStudentPerLineShapedLikeStudentDto() throws Exception {
+        final String body = mockMvc.perform(get("/api/students/export").param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body).endsWith("\n");
+        final List<StudentDto> students = body.lines()
+                .map(line -> read(line, StudentDto.class))
+                .filter(student -> lastName.equals(student.getLastName()))
+                .toList();
+        assertThat(students).containsExactly(
+                new StudentDto(first, "Ann, \"Jr\"", lastName, "G11", List.of(algebra, geometry)),
+                new StudentDto(second, "Bob", lastName, "G12", List.of()));
+    }
+
+    @Test
+    public void export_whenGzip_compressesTheSameBody() throws Exception {
+        final byte[] plain = mockMvc.perform(get("/api/students/export").param("format", "ndjson"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        final byte[] compressed = mockMvc.perform(get("/api/students/export").param("format", "ndjson").param("gzip", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"grade-book.ndjson.gz\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain);
+        }
+    }
+
+    @Test
+    public void export_whenUnknownFormat_badRequest() throws Exception {
+        mockMvc.perform(get("/api/students/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private <T> T read(String line, Class<T> type) {
+        try {
+            return objectMapper.readValue(line, type);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
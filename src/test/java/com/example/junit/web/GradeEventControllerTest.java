@@ -0,0 +1,137 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.GradeEventType;
+import com.example.junit.service.GradeEventFeed;
+import com.example.junit.web.dto.GradeEventDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "grades.events.max-consumers=1")
+@AutoConfigureMockMvc
+class GradeEventControllerTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GradeEventFeed feed;
+
+    @BeforeEach
+    public void setup() {
+        when(feed.read(anyLong(), anyInt())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void events_whenEventsAfterPosition_streamsThemAsNdjsonInOrder() throws Exception {
+        when(feed.read(5L, 500)).thenReturn(List.of(
+                new GradeEventDto(6, GradeEventType.STUDENT_CREATED, 1L, null, "John", "White", "G11", null, null, CREATED_AT),
+                new GradeEventDto(7, GradeEventType.GRADE_ADDED, 1L, 3L, null, null, null, 9.5, Discipline.ALGEBRA, CREATED_AT)));
+
+        String body = stream(get("/api/grade-events").param("after", "5"));
+
+        assertThat(body.split("\n")).containsExactly(
+                "{\"sequence\":6,\"type\":\"STUDENT_CREATED\",\"studentId\":1,\"firstName\":\"John\",\"lastName\":\"White\",\"group\":\"G11\",\"createdAt\":\"2026-01-01T00:00:00Z\"}",
+                "{\"sequence\":7,\"type\":\"GRADE_ADDED\",\"studentId\":1,\"gradeId\":3,\"value\":9.5,\"discipline\":\"ALGEBRA\",\"createdAt\":\"2026-01-01T00:00:00Z\"}");
+        verify(feed).read(7L, 500);
+        verify(feed, never()).await(anyLong(), any());
+    }
+
+    @Test
+    public void events_whenLimitReached_stopsReading() throws Exception {
+        when(feed.read(0L, 1)).thenReturn(List.of(
+                new GradeEventDto(1, GradeEventType.STUDENT_CREATED, 1L, null, "John", "White", "G11", null, null, CREATED_AT)));
+
+        String body = stream(get("/api/grade-events").param("limit", "1"));
+
+        assertThat(body.split("\n")).hasSize(1);
+        verify(feed, never()).read(eq(1L), anyInt());
+    }
+
+    @Test
+    public void events_whenCaughtUpAndWaiting_streamsEventsPublishedMeanwhile() throws Exception {
+        when(feed.read(0L, 500))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(List.of(new GradeEventDto(1, GradeEventType.GRADE_REMOVED, 1L, 3L, null, null, null, 9.5, Discipline.ALGEBRA, CREATED_AT)));
+
+        String body = stream(get("/api/grade-events").param("wait", "2"));
+
+        assertThat(body).contains("\"sequence\":1");
+        verify(feed).await(eq(0L), any(Duration.class));
+    }
+
+    @Test
+    public void events_whenBehindRetention_gone() throws Exception {
+        when(feed.purgedThrough()).thenReturn(10L);
+
+        mockMvc.perform(get("/api/grade-events").param("after", "9"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    public void events_whenEveryConsumerThreadWaiting_serviceUnavailable() throws Exception {
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            waiting.countDown();
+            release.await();
+            return null;
+        }).when(feed).await(anyLong(), any());
+        final MvcResult first = mockMvc.perform(get("/api/grade-events").param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(waiting.await(10, TimeUnit.SECONDS)).isTrue();
+
+        mockMvc.perform(get("/api/grade-events"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        release.countDown();
+        mockMvc.perform(asyncDispatch(first)).andExpect(status().isOk());
+    }
+
+    private String stream(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+}
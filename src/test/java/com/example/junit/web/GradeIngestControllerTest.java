@@ -0,0 +1,81 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.PendingGradeStatus;
+import com.example.junit.service.GradeIngestService;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.PendingGradeDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"grades.ingest.enabled=true", "grades.ingest.retry-after=2"})
+@AutoConfigureMockMvc
+class GradeIngestControllerTest {
+
+    private static final String GRADE = "{\"value\": 9.0, \"discipline\": \"ALGEBRA\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private GradeIngestService gradeIngestService;
+
+    @Test
+    public void accept_whenQueued_acceptedWithLocation() throws Exception {
+        PendingGradeDto pending = new PendingGradeDto(7L, 1L, 9.0, Discipline.ALGEBRA, PendingGradeStatus.PENDING, null, null);
+        when(gradeIngestService.accept(any(GradeRequest.class))).thenReturn(Optional.of(pending));
+
+        mockMvc.perform(post("/api/students/{id}/grades/pending", 1L).contentType(MediaType.APPLICATION_JSON).content(GRADE))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/students/1/grades/pending/7"))
+                .andExpect(jsonPath("$.id", is(7)))
+                .andExpect(jsonPath("$.status", is("PENDING")));
+    }
+
+    @Test
+    public void accept_whenQueueFull_tooManyRequestsWithRetryAfter() throws Exception {
+        when(gradeIngestService.accept(any(GradeRequest.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/students/{id}/grades/pending", 1L).contentType(MediaType.APPLICATION_JSON).content(GRADE))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+    }
+
+    @Test
+    public void accept_whenValueOutOfRange_badRequest() throws Exception {
+        mockMvc.perform(post("/api/students/{id}/grades/pending", 1L).contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"value\": 11.0, \"discipline\": \"ALGEBRA\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(gradeIngestService);
+    }
+
+    @Test
+    public void getStatus_whenApplied_expectedResponse() throws Exception {
+        PendingGradeDto pending = new PendingGradeDto(7L, 1L, 9.0, Discipline.ALGEBRA, PendingGradeStatus.APPLIED, 42L, null);
+        when(gradeIngestService.getStatus(7L)).thenReturn(pending);
+
+        mockMvc.perform(get("/api/students/{id}/grades/pending/{pendingId}", 1L, 7L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("APPLIED")))
+                .andExpect(jsonPath("$.gradeId", is(42)));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.metrics.QueryMetricsFilter;
+import com.example.junit.service.GradeService;
+import com.example.junit.service.StudentGradeCache;
+import com.example.junit.service.StudentService;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private StudentGradeCache gradeCache;
+
+    private Long first;
+
+    @BeforeEach
+    public void setup() {
+        first = addStudent();
+        Long second = addStudent();
+        for (Long id : new Long[]{first, second}) {
+            gradeService.add(new GradeRequest(id, 9.0, Discipline.ALGEBRA));
+            gradeService.add(new GradeRequest(id, 7.0, Discipline.ALGEBRA));
+            gradeService.add(new GradeRequest(id, 8.0, Discipline.GEOMETRY));
+        }
+        gradeCache.evict(first);
+    }
+
+    @Test
+    public void get_whenPageHasManyStudents_statementCountConstant() throws Exception {
+        assertThat(statements(get("/api/students").param("after", String.valueOf(first - 1)).param("limit", "2"), "/api/students"))
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void getGradesForStudent_whenNotCached_gradesLoaded() throws Exception {
+        final String uri = "/api/students/{id}/grades";
+
+        assertThat(statements(get(uri, first), uri)).isEqualTo(1);
+        // read as projections, not through the cached student and grade entities
+        assertThat(entities(uri)).isZero();
+        assertThat(statements(get(uri, first), uri)).isZero();
+    }
+
+    @Test
+    public void getAverageGradePerDiscipline_whenNotCached_statisticsLoaded() throws Exception {
+        final String uri = "/api/students/{id}/average";
+
+        assertThat(statements(get(uri, first), uri)).isEqualTo(1);
+        assertThat(entities(uri)).isEqualTo(2);
+    }
+
+    @Test
+    public void getGradesForStudents_whenManyStudents_statementCountConstant() throws Exception {
+        final String uri = "/api/students/grades";
+        final Long second = addStudent();
+        gradeCache.evict(second);
+
+        assertThat(statements(get(uri).param("ids", first.toString(), second.toString(), "0"), uri)).isEqualTo(1);
+        assertThat(statements(get(uri).param("ids", first.toString(), second.toString(), "0"), uri)).isEqualTo(1);
+    }
+
+    @Test
+    public void getStatisticsForStudents_whenManyStudents_statementCountConstant() throws Exception {
+        final String uri = "/api/students/statistics";
+        final Long second = addStudent();
+        gradeCache.evict(second);
+
+        assertThat(statements(get(uri).param("ids", first.toString(), second.toString(), "0"), uri)).isEqualTo(2);
+    }
+
+    @Test
+    public void addGrade_whenInvoked_statementCountConstant() throws Exception {
+        final String uri = "/api/students/{id}/grades";
+        final MockHttpServletRequestBuilder request = post(uri, first)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"value\": 6.0, \"discipline\": \"ALGEBRA\"}");
+
+        // the student comes from the second-level cache: grade insert, grade_event insert, statistic lock and update
+        assertThat(statements(request, uri)).isEqualTo(4);
+    }
+
+    @Test
+    public void addGrade_whenFirstOfDiscipline_statisticInserted() throws Exception {
+        final String uri = "/api/students/{id}/grades";
+        final MockHttpServletRequestBuilder request = post(uri, first)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"value\": 6.0, \"discipline\": \"WEB_DEVELOPMENT\"}");
+
+        // the statistic is not found, inserted if absent and locked again
+        assertThat(statements(request, uri)).isEqualTo(6);
+    }
+
+    private Long addStudent() {
+        return studentService.add(new StudentRequest("John", "White", "G11")).getId();
+    }
+
+    private long statements(MockHttpServletRequestBuilder request, String uri) throws Exception {
+        final double before = total(QueryMetricsFilter.STATEMENTS, request.buildRequest(null).getMethod(), uri);
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        return (long) (total(QueryMetricsFilter.STATEMENTS, request.buildRequest(null).getMethod(), uri) - before);
+    }
+
+    private double entities(String uri) {
+        return summary(QueryMetricsFilter.ENTITIES, "GET", uri).max();
+    }
+
+    private double total(String name, String method, String uri) {
+        final DistributionSummary summary = summary(name, method, uri);
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return meterRegistry.find(name).tag("method", method).tag("uri", uri).summary();
+    }
+}
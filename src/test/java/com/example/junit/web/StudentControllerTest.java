@@ -1,11 +1,21 @@
 package com.example.junit.web;
 
 import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.Student;
+import com.example.junit.service.GradeImportService;
 import com.example.junit.service.GradeService;
+import com.example.junit.service.StudentImportService;
 import com.example.junit.service.StudentService;
 import com.example.junit.web.dto.GradeDto;
+import com.example.junit.web.dto.GradeImportResult;
 import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentBatchResult;
 import com.example.junit.web.dto.StudentDto;
+import com.example.junit.web.dto.StudentGradesResult;
+import com.example.junit.web.dto.StudentStatistic;
+import com.example.junit.web.dto.StudentStatisticsDto;
+import com.example.junit.web.dto.StudentStatisticsResult;
 import com.example.junit.web.dto.StudentRequest;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -14,19 +24,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
@@ -41,12 +59,16 @@ class StudentControllerTest {
     private StudentService studentService;
     @MockBean
     private GradeService gradeService;
+    @MockBean
+    private GradeImportService gradeImportService;
+    @MockBean
+    private StudentImportService studentImportService;
 
     @Test
     public void get_whenInvoked_expectedResponse() throws Exception {
-        GradeDto gradeDto = new GradeDto(1L, 9.0, Discipline.ALGEBRA);
-        StudentDto dto = new StudentDto(1L, "John", "White", "G11", List.of(gradeDto));
-        when(studentService.get()).thenReturn(List.of(dto));
+        Student student = student(1L, "John", "White", "G11");
+        student.addGrade(grade(1L, 9.0, Discipline.ALGEBRA));
+        when(studentService.getWithGrades(null, 100)).thenReturn(List.of(student));
 
         mockMvc.perform(get("/api/students"))
                 .andExpect(status().isOk())
@@ -58,6 +80,30 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$[0].grades", hasSize(1)));
     }
 
+    @Test
+    public void get_whenCursorGiven_passesCursorAndLimit() throws Exception {
+        when(studentService.getWithGrades(10L, 5)).thenReturn(List.of(student(11L, "John", "White", "G11")));
+
+        mockMvc.perform(get("/api/students").param("after", "10").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(11)));
+    }
+
+    @Test
+    public void stream_whenInvoked_writesAllPages() throws Exception {
+        when(studentService.getWithGrades(null, 1)).thenReturn(List.of(student(1L, "John", "White", "G11")));
+        when(studentService.getWithGrades(1L, 1)).thenReturn(List.of(student(2L, "Jane", "Black", "G12")));
+        when(studentService.getWithGrades(2L, 1)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/students/stream").param("pageSize", "1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].id", is(2)));
+    }
+
     @Test
     public void getGradesForStudent_whenInvoked_expectedResponse() throws Exception {
         GradeDto gradeDto = new GradeDto(1L, 9.0, Discipline.ALGEBRA);
@@ -82,6 +128,36 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.WEB_DEVELOPMENT", is(9.3)));
     }
 
+    @Test
+    public void getGradesForStudents_whenInvoked_expectedResponse() throws Exception {
+        when(gradeService.getForStudents(List.of(1L, 2L))).thenReturn(new StudentGradesResult(
+                Map.of(1L, List.of(new GradeDto(1L, 9.0, Discipline.ALGEBRA))), List.of(2L)));
+
+        mockMvc.perform(get("/api/students/grades").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.grades.1[0].value", is(9.0)))
+                .andExpect(jsonPath("$.missing[0]", is(2)));
+    }
+
+    @Test
+    public void getStatisticsForStudents_whenStatsGiven_passesThem() throws Exception {
+        when(gradeService.getStatisticsForStudents(List.of(1L), Set.of(StudentStatistic.AVERAGE))).thenReturn(new StudentStatisticsResult(
+                Map.of(1L, new StudentStatisticsDto(Map.of(Discipline.ALGEBRA, 9.0), null, null)), List.of()));
+
+        mockMvc.perform(get("/api/students/statistics").param("ids", "1").param("stats", "AVERAGE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statistics.1.average.ALGEBRA", is(9.0)))
+                .andExpect(jsonPath("$.statistics.1.max").doesNotExist());
+    }
+
+    @Test
+    public void getGradesForStudents_whenTooManyIds_badRequest() throws Exception {
+        String ids = String.join(",", Collections.nCopies(501, "1"));
+
+        mockMvc.perform(get("/api/students/grades").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void add_whenInvoked_callsService() throws Exception {
         StudentRequest request = new StudentRequest("John", "White", "G11");
@@ -119,4 +195,98 @@ class StudentControllerTest {
         assertThat(argumentCaptor.getValue().getStudentId()).isEqualTo(1);
     }
 
+    @Test
+    public void importGrades_whenCsv_callsServiceWithParsedRows() throws Exception {
+        when(gradeImportService.importGrades(any())).thenAnswer(invocation -> {
+            GradeRequestReader reader = invocation.getArgument(0);
+            assertThat(reader.next()).isEqualTo(new GradeRequest(1L, 9.0, Discipline.ALGEBRA));
+            assertThat(reader.hasNext()).isFalse();
+            return new GradeImportResult(1, 0, Collections.emptyList());
+        });
+
+        mockMvc.perform(post("/api/students/grades")
+                                .contentType("text/csv")
+                                .content("studentId,value,discipline\n1,9.0,ALGEBRA\n"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.imported", is(1)))
+               .andExpect(jsonPath("$.failed", is(0)));
+    }
+
+    @Test
+    public void upsert_whenJsonArrayOrNdjson_callsServiceWithParsedRows() throws Exception {
+        when(studentImportService.upsert(any())).thenAnswer(invocation -> {
+            Iterator<StudentRequest> requests = invocation.getArgument(0);
+            assertThat(requests.next()).isEqualTo(new StudentRequest("John", "White", "G11"));
+            assertThat(requests.next()).isEqualTo(new StudentRequest("Jane", "Black", null));
+            assertThat(requests.hasNext()).isFalse();
+            return new StudentBatchResult(List.of(1L, 2L), 1, 1, 0, Collections.emptyList());
+        });
+
+        mockMvc.perform(post("/api/students/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                   [
+                                       {"firstName": "John", "lastName": "White", "group": "G11"},
+                                       {"firstName": "Jane", "lastName": "Black"}
+                                   ]
+                                """))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.ids", hasSize(2)))
+               .andExpect(jsonPath("$.created", is(1)));
+
+        mockMvc.perform(post("/api/students/batch")
+                                .contentType("application/x-ndjson")
+                                .content("""
+                                   {"firstName": "John", "lastName": "White", "group": "G11"}
+                                   {"firstName": "Jane", "lastName": "Black"}
+                                """))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.existing", is(1)));
+    }
+
+    @Test
+    public void upsert_whenRowsMalformed_reportsThemPerRow() throws Exception {
+        when(studentImportService.upsert(any())).thenAnswer(invocation -> {
+            Iterator<StudentRequest> requests = invocation.getArgument(0);
+            assertThat(requests.next()).isEqualTo(new StudentRequest("John", "White", "G11"));
+            assertThatThrownBy(requests::next).isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("Malformed row: ");
+            assertThat(requests.next()).isEqualTo(new StudentRequest("Jane", "Black", null));
+            assertThatThrownBy(requests::next).isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("Malformed row: ");
+            assertThat(requests.hasNext()).isFalse();
+            return new StudentBatchResult(Arrays.asList(1L, null, 2L, null), 2, 0, 2, Collections.emptyList());
+        });
+
+        mockMvc.perform(post("/api/students/batch")
+                                .contentType("application/x-ndjson")
+                                .content("""
+                                   {"firstName": "John", "lastName": "White", "group": "G11"}
+                                   {"firstName": {"value": "Ann"}, "lastName": "Grey"}
+                                   {"firstName": "Jane", "lastName": "Black"}
+                                   {"firstName": "Kate", "lastName": Grey}
+                                   {"firstName": "Bob", "lastName": "Brown"}
+                                """))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.failed", is(2)));
+    }
+
+    @Test
+    public void get_whenCborAccepted_writesCbor() throws Exception {
+        when(studentService.getWithGrades(null, 100)).thenReturn(List.of(student(1L, "John", "White", "G11")));
+
+        mockMvc.perform(get("/api/students").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    private static Student student(Long id, String firstName, String lastName, String group) {
+        Student student = new Student(firstName, lastName, group);
+        ReflectionTestUtils.setField(student, "id", id);
+        return student;
+    }
+
+    private static Grade grade(Long id, Double value, Discipline discipline) {
+        Grade grade = new Grade(value, discipline);
+        ReflectionTestUtils.setField(grade, "id", id);
+        return grade;
+    }
 }
@@ -0,0 +1,134 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Discipline;
+import com.example.junit.domain.Grade;
+import com.example.junit.domain.Student;
+import com.example.junit.service.StudentService;
+import com.example.junit.service.mapper.Mapper;
+import com.example.junit.web.dto.GradeRequest;
+import com.example.junit.web.dto.StudentDto;
+import com.example.junit.web.dto.StudentRequest;
+import com.example.junit.service.GradeService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentJsonWriterTest {
+
+    private static final String[] NAMES = {"John", "Ana-Maria", "Đorđe", "O'Brien", "\"quoted\"", "tab\tand\\slash", "日本", ""};
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Mapper<Student, StudentDto> studentDtoMapper;
+    @Autowired
+    private StudentService studentService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void writeStudents_whenJson_sameBytesAsDtoSerialization() throws Exception {
+        final List<Student> students = students(new Random(1));
+
+        assertThat(write(objectMapper.getFactory(), students)).isEqualTo(objectMapper.writeValueAsBytes(studentDtoMapper.mapList(students)));
+    }
+
+    @Test
+    public void writeStudents_whenSmile_sameBytesAsDtoSerialization() throws Exception {
+        final List<Student> students = students(new Random(2));
+
+        assertThat(write(new SmileFactory(), students))
+                .isEqualTo(new ObjectMapper(new SmileFactory()).writeValueAsBytes(studentDtoMapper.mapList(students)));
+    }
+
+    @Test
+    public void writeStudents_whenCbor_sameBytesAsDtoSerialization() throws Exception {
+        final List<Student> students = students(new Random(3));
+
+        assertThat(write(new CBORFactory(), students))
+                .isEqualTo(new ObjectMapper(new CBORFactory()).writeValueAsBytes(studentDtoMapper.mapList(students)));
+    }
+
+    @Test
+    public void get_whenInvoked_sameBytesAsDtoSerialization() throws Exception {
+        final Long first = studentService.add(new StudentRequest("Ana", "Đurić", null)).getId();
+        final Long second = studentService.add(new StudentRequest("John", "White", "G11")).getId();
+        gradeService.add(new GradeRequest(second, 9.5, Discipline.ALGEBRA));
+        gradeService.add(new GradeRequest(second, 10.0, Discipline.WEB_DEVELOPMENT));
+
+        final byte[] body = mockMvc.perform(get("/api/students").param("after", String.valueOf(first - 1)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertThat(body).isEqualTo(objectMapper.writeValueAsBytes(studentService.get(first - 1, 2)));
+    }
+
+    @Test
+    public void get_whenSmileAccepted_sameBytesAsDtoSerialization() throws Exception {
+        final Long first = studentService.add(new StudentRequest("John", "White", "G11")).getId();
+        gradeService.add(new GradeRequest(first, 7.0, Discipline.GEOMETRY));
+
+        final byte[] body = mockMvc.perform(get("/api/students").param("after", String.valueOf(first - 1)).param("limit", "1")
+                                                    .accept(StudentListHttpMessageConverter.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertThat(body).isEqualTo(new ObjectMapper(new SmileFactory()).writeValueAsBytes(studentService.get(first - 1, 1)));
+    }
+
+    private static byte[] write(JsonFactory factory, List<Student> students) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            StudentJsonWriter.writeStudents(generator, students);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Student> students(Random random) {
+        final Discipline[] disciplines = Discipline.values();
+        final List<Student> students = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            final Student student = new Student(name(random), name(random), random.nextInt(5) == 0 ? null : "G" + random.nextInt(100));
+            ReflectionTestUtils.setField(student, "id", random.nextInt(10) == 0 ? null : id * 1_000_003);
+            for (long g = 0, grades = random.nextInt(30); g < grades; g++) {
+                final Double value = random.nextInt(20) == 0 ? null : random.nextDouble() * 10;
+                final Grade grade = new Grade(value, random.nextInt(20) == 0 ? null : disciplines[random.nextInt(disciplines.length)]);
+                ReflectionTestUtils.setField(grade, "id", id * 100 + g);
+                student.addGrade(grade);
+            }
+            students.add(student);
+        }
+        return students;
+    }
+
+    private static String name(Random random) {
+        return random.nextInt(10) == 0 ? null : NAMES[random.nextInt(NAMES.length)];
+    }
+}
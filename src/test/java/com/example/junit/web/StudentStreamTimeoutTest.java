@@ -0,0 +1,68 @@
+package com.example.junit.web;
+
+import com.example.junit.domain.Student;
+import com.example.junit.service.StudentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * A stream taking longer than the async request timeout must still end with
+ * a complete JSON array.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.mvc.async.request-timeout=500ms")
+class StudentStreamTimeoutTest {
+
+    private static final int PAGES = 6;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private StudentService studentService;
+
+    @Test
+    public void stream_whenSlowerThanAsyncTimeout_writesAllPages() throws Exception {
+        when(studentService.getWithGrades(null, 1)).thenAnswer(invocation -> page(1L));
+        for (long id = 1; id <= PAGES; id++) {
+            final long next = id + 1;
+            when(studentService.getWithGrades(eq(id), eq(1))).thenAnswer(invocation -> next > PAGES ? Collections.emptyList() : page(next));
+        }
+
+        final HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/students/stream?pageSize=1")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        final JsonNode students = objectMapper.readTree(response.body());
+        assertThat(students).hasSize(PAGES);
+        assertThat(students.get(PAGES - 1).get("id").asLong()).isEqualTo(PAGES);
+    }
+
+    private static List<Student> page(long id) throws InterruptedException {
+        // Tomcat checks async timeouts about once a second, so the pages take several seconds in all
+        Thread.sleep(500);
+        final Student student = new Student("John", "White", "G11");
+        ReflectionTestUtils.setField(student, "id", id);
+        return List.of(student);
+    }
+}